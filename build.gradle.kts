@@ -10,6 +10,7 @@ plugins {
     jacoco
 
     alias(libs.plugins.git.version)
+    alias(libs.plugins.jmh)
     alias(libs.plugins.jreleaser)
     alias(libs.plugins.sonarqube)
     alias(libs.plugins.spotless)
@@ -48,8 +49,13 @@ dependencies {
     api(libs.jakarta.annotation.api)
     api(libs.org.apache.commons.commons.compress)
 
+    implementation(libs.org.apache.commons.commons.codec)
+    implementation(libs.org.apache.commons.commons.io)
     implementation(libs.slf4j.api)
 
+    compileOnly(libs.com.github.luben.zstd.jni)
+    compileOnly(libs.org.tukaani.xz)
+
     testImplementation(platform(libs.junit.bom))
 
     testImplementation(libs.assertj.core)
@@ -66,6 +72,9 @@ dependencies {
     testFixturesImplementation(libs.assertj.core)
     testFixturesImplementation(libs.junit.jupiter)
     testFixturesApi(libs.logback.classic)
+
+    jmh(libs.com.github.luben.zstd.jni)
+    jmh(libs.org.tukaani.xz)
 }
 
 tasks.test {
@@ -85,6 +94,8 @@ testing {
 
                 implementation(platform(libs.junit.bom))
 
+                implementation(libs.com.github.luben.zstd.jni)
+                implementation(libs.org.brotli.dec)
                 implementation(libs.org.tukaani.xz)
                 implementation(libs.assertj.core)
                 implementation(libs.junit.jupiter)
@@ -118,6 +129,13 @@ tasks.check {
     dependsOn(tasks.testCodeCoverageReport)
 }
 
+jmh {
+    jmhVersion = libs.versions.jmh
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes = listOf(it) }
+}
+
 sonar {
     properties {
         property("sonar.projectKey", "compress4j_compress4j")
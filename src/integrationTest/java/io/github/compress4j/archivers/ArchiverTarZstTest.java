@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+class ArchiverTarZstTest extends AbstractArchiverTest {
+
+    @Override
+    protected Archiver getArchiver() {
+        return ArchiverFactory.createArchiver(ArchiveFormat.TAR, CompressionType.ZSTANDARD);
+    }
+
+    @Override
+    protected File getArchive() {
+        return new File(AbstractResourceTest.RESOURCES_DIR, "archive.tar.zst");
+    }
+
+    @Test
+    void getFilenameExtension_tar_zst_returnsCorrectFilenameExtension() {
+        assertThat(getArchiver().getFilenameExtension()).isEqualTo(".tar.zst");
+    }
+
+    @Test
+    void stream_withLongDistanceMatching_readsEntries() throws IOException {
+        Archiver archiver = ArchiverFactory.createArchiver(
+                ArchiveFormat.TAR,
+                CompressionType.ZSTANDARD,
+                CompressionOptions.builder().setLongDistanceMatching(28).build());
+        File archive = archiver.create("archive", archiveCreateTmpDir, ARCHIVE_DIR);
+
+        try (ArchiveStream stream = archiver.stream(archive)) {
+            assertThat(stream.getNextEntry()).isNotNull();
+        }
+        assertThat(archiver.readEntry(archive, "folder/folder_file.txt")).isNotNull();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static io.github.compress4j.archivers.AbstractCompressorTest.COMPRESS_TXT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import org.junit.jupiter.api.Test;
+
+class CompressorBrotliTest extends AbstractResourceTest {
+
+    private static final File COMPRESSED_FILE = new File(RESOURCES_DIR, "compress.txt.br");
+
+    private final Compressor compressor = CompressorFactory.createCompressor(CompressionType.BROTLI);
+
+    @Test
+    void decompress_withFileDestination_decompressesFileCorrectly() throws Exception {
+        File destination = new File(archiveExtractTmpDir, "compress.txt");
+
+        compressor.decompress(COMPRESSED_FILE, destination);
+
+        assertThat(destination).exists().hasSameTextualContentAs(COMPRESS_TXT);
+    }
+
+    @Test
+    void decompress_withDirectoryDestination_decompressesFileCorrectly() throws Exception {
+        compressor.decompress(COMPRESSED_FILE, archiveExtractTmpDir);
+
+        assertThat(new File(archiveExtractTmpDir, "compress.txt")).exists().hasSameTextualContentAs(COMPRESS_TXT);
+    }
+
+    @Test
+    void decompressingStream_decompressesStreamCorrectly() throws Exception {
+        ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        try (InputStream in = compressor.decompressingStream(new FileInputStream(COMPRESSED_FILE))) {
+            in.transferTo(decompressed);
+        }
+
+        assertThat(decompressed.toString()).isEqualTo(Files.readString(COMPRESS_TXT.toPath()));
+    }
+
+    @Test
+    void compress_isNotSupported() {
+        File destination = new File(archiveCreateTmpDir, "compress.txt.br");
+
+        var exception = assertThrows(IOException.class, () -> compressor.compress(COMPRESS_TXT, destination));
+        assertThat(exception).hasMessageContaining("Brotli files can only be decompressed");
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("java:S2187")
+public class CompressorTunedZstdTest extends AbstractCompressorTest {
+
+    @Override
+    protected File getCompressedFile() {
+        return new File(AbstractResourceTest.RESOURCES_DIR, "compress.txt.zst");
+    }
+
+    @Override
+    protected CompressionType getCompressionType() {
+        return CompressionType.ZSTANDARD;
+    }
+
+    @Override
+    protected Compressor getCompressor() {
+        CompressionOptions options = CompressionOptions.builder()
+                .setLevel(19)
+                .setThreads(4)
+                .setLongDistanceMatching(28)
+                .build();
+        return CompressorFactory.createCompressor(getCompressionType(), options);
+    }
+
+    @Test
+    void compress_withLevelOutOfRange_throwsException() {
+        Compressor compressor = CompressorFactory.createCompressor(
+                getCompressionType(), CompressionOptions.builder().setLevel(23).build());
+        File destination = new File(archiveCreateTmpDir, "compress.txt.zst");
+
+        var exception =
+                assertThrows(IllegalArgumentException.class, () -> compressor.compress(COMPRESS_TXT, destination));
+        assertThat(exception).hasMessageStartingWith("ZSTANDARD level must be between");
+    }
+}
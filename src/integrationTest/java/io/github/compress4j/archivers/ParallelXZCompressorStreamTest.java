@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.SeekableFileInputStream;
+import org.tukaani.xz.SeekableXZInputStream;
+
+class ParallelXZCompressorStreamTest {
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final CompressionOptions OPTIONS = CompressionOptions.builder().setThreads(3).build();
+
+    @TempDir
+    File tempDir;
+
+    private static byte[] compressibleData(int size) {
+        Random random = new Random(size);
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+
+    private File compress(byte[] data) throws IOException {
+        File file = new File(tempDir, "data.xz");
+        try (OutputStream out = new ParallelXZCompressorOutputStream(
+                new FileOutputStream(file), new LZMA2Options(1), 3, BLOCK_SIZE)) {
+            out.write(data);
+        }
+        return file;
+    }
+
+    @Test
+    void compress_writesOneBlockPerBlockSize() throws IOException {
+        File file = compress(compressibleData(5 * BLOCK_SIZE + 1));
+
+        try (SeekableXZInputStream in = new SeekableXZInputStream(new SeekableFileInputStream(file))) {
+            assertThat(in.getBlockCount()).isEqualTo(6);
+        }
+    }
+
+    @Test
+    void compress_isReadableBySingleStreamDecoder() throws IOException {
+        byte[] data = compressibleData(5 * BLOCK_SIZE + 1);
+        File file = compress(data);
+
+        try (InputStream in = new XZCompressorInputStream(new FileInputStream(file))) {
+            assertThat(in.readAllBytes()).isEqualTo(data);
+        }
+    }
+
+    @Test
+    void compress_emptyInput_isReadable() throws IOException {
+        File file = compress(new byte[0]);
+
+        try (InputStream in = new XZCompressorInputStream(new FileInputStream(file))) {
+            assertThat(in.readAllBytes()).isEmpty();
+        }
+    }
+
+    @Test
+    void decompress_multipleBlocks_decodesInParallel() throws IOException {
+        byte[] data = compressibleData(7 * BLOCK_SIZE + 123);
+        File file = compress(data);
+
+        try (InputStream in = ParallelXZCompressorInputStream.open(file, OPTIONS)) {
+            assertThat(in).isNotNull();
+            assertThat(in.readAllBytes()).isEqualTo(data);
+        }
+    }
+
+    @Test
+    void decompress_singleBlock_fallsBackToSequentialDecoding() throws IOException {
+        File file = compress(compressibleData(BLOCK_SIZE / 2));
+
+        assertThat(ParallelXZCompressorInputStream.open(file, OPTIONS)).isNull();
+    }
+
+    @Test
+    void decompress_memoryBudgetForOneThread_fallsBackToSequentialDecoding() throws IOException {
+        File file = compress(compressibleData(3 * BLOCK_SIZE));
+        CompressionOptions options = CompressionOptions.builder()
+                .setThreads(3)
+                .setMemoryBudget(BLOCK_SIZE)
+                .build();
+
+        assertThat(ParallelXZCompressorInputStream.open(file, options)).isNull();
+    }
+}
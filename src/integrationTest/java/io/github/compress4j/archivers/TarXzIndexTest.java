@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TarXzIndexTest {
+
+    private static final CompressionOptions OPTIONS =
+            CompressionOptions.builder().setThreads(3).setBlockSize(64 * 1024).build();
+
+    @TempDir
+    File tempDir;
+
+    private final Archiver archiver = ArchiverFactory.createArchiver(ArchiveFormat.TAR, CompressionType.XZ, OPTIONS);
+
+    private File archive;
+    private Map<String, byte[]> entries;
+
+    @BeforeEach
+    void createArchive() throws IOException {
+        File source = new File(tempDir, "logs");
+        Random random = new Random(1);
+        for (int i = 0; i < 20; i++) {
+            StringBuilder log = new StringBuilder();
+            for (int line = random.nextInt(5_000); line >= 0; line--) {
+                log.append("line ").append(random.nextInt(1_000)).append(" of log ").append(i).append('\n');
+            }
+            File file = new File(source, "day" + i / 7 + "/log" + i + ".txt");
+            Files.createDirectories(file.getParentFile().toPath());
+            Files.write(file.toPath(), log.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        archive = archiver.create("logs", tempDir, source);
+
+        entries = new LinkedHashMap<>();
+        try (ArchiveStream stream = archiver.stream(archive)) {
+            ArchiveEntry entry;
+            while ((entry = stream.getNextEntry()) != null) {
+                entries.put(entry.getName(), stream.readAllBytes());
+            }
+        }
+    }
+
+    @Test
+    void stream_fromEntry_returnsEveryEntryAndItsSuccessors() throws IOException {
+        List<String> names = new ArrayList<>(entries.keySet());
+
+        for (int i = 0; i < names.size(); i++) {
+            try (ArchiveStream stream = archiver.stream(archive, names.get(i))) {
+                ArchiveEntry entry = stream.getNextEntry();
+                assertThat(entry.getName()).isEqualTo(names.get(i));
+                assertThat(stream.readAllBytes()).isEqualTo(entries.get(names.get(i)));
+
+                ArchiveEntry next = stream.getNextEntry();
+                if (i + 1 < names.size()) {
+                    assertThat(next.getName()).isEqualTo(names.get(i + 1));
+                } else {
+                    assertThat(next).isNull();
+                }
+            }
+        }
+    }
+
+    @Test
+    void stream_fromEntry_concurrently_readsDisjointEntries() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Map<String, Future<byte[]>> read = new LinkedHashMap<>();
+            for (String name : entries.keySet()) {
+                read.put(name, executor.submit(() -> {
+                    try (ArchiveStream stream = archiver.stream(archive, name)) {
+                        stream.getNextEntry();
+                        return stream.readAllBytes();
+                    }
+                }));
+            }
+
+            for (Map.Entry<String, Future<byte[]>> entry : read.entrySet()) {
+                assertThat(entry.getValue().get()).isEqualTo(entries.get(entry.getKey()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void build_writesIndexWithEntryOffsets() throws IOException {
+        File indexFile = TarXzIndex.build(archive);
+
+        assertThat(indexFile).isEqualTo(new File(archive.getPath() + ".index")).isFile();
+        TarXzIndex index = TarXzIndex.load(archive);
+        for (String name : entries.keySet()) {
+            assertThat(index.getEntryOffset(name)).isNotNull();
+        }
+        assertThat(index.getEntryOffset("missing.txt")).isNull();
+    }
+
+    @Test
+    void load_afterArchiveChanged_rebuildsIndex() throws IOException {
+        TarXzIndex.build(archive);
+        assertThat(archive.setLastModified(archive.lastModified() - 10_000)).isTrue();
+
+        TarXzIndex index = TarXzIndex.load(archive);
+
+        assertThat(index.isValidFor(archive)).isTrue();
+        String last = new ArrayList<>(entries.keySet()).get(entries.size() - 1);
+        try (ArchiveStream stream = archiver.stream(archive, last)) {
+            assertThat(stream.getNextEntry().getName()).isEqualTo(last);
+            assertThat(stream.readAllBytes()).isEqualTo(entries.get(last));
+        }
+    }
+
+    @Test
+    void stream_fromMissingEntry_returnsNoEntries() throws IOException {
+        try (ArchiveStream stream = archiver.stream(archive, "missing.txt")) {
+            assertThat(stream.getNextEntry()).isNull();
+        }
+    }
+}
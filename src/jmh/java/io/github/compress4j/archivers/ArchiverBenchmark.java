@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.CopyOption;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link Archiver#create(String, File, File)}, {@link Archiver#extract(File, File, CopyOption...)} and
+ * {@link Archiver#stream(File)} for the file types of every writable archive format, and for tar archives with every
+ * compression type that applies to archives. {@link ArchiveFormat#DUMP} is left out as it can only be read, and
+ * {@link CompressionType#PACK200} as it only compresses jar files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ArchiverBenchmark {
+
+    @Param({".7z", ".ar", ".cpio", ".jar", ".tar", ".zip", ".tar.gz", ".tar.bz2", ".tar.xz", ".tar.zst", ".tar.lz4"})
+    public String fileType;
+
+    @Param({"TINY_FILES", "HUGE_FILES"})
+    public Corpus corpus;
+
+    @Param({"COMPRESSIBLE", "INCOMPRESSIBLE"})
+    public Corpus.Data data;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private Archiver archiver;
+    private File source;
+    private File destination;
+    private File archive;
+
+    @Setup
+    public void setUp() throws IOException {
+        FileType type = FileType.get(new File("archive" + fileType));
+        CompressionOptions options = CompressionOptions.builder().setThreads(threads).build();
+        archiver = type.isCompressed()
+                ? ArchiverFactory.createArchiver(type.getArchiveFormat(), type.getCompressionType(), options)
+                : ArchiverFactory.createArchiver(type.getArchiveFormat(), options);
+
+        source = corpus.create(data);
+        destination = Files.createTempDirectory("compress4j-jmh-destination").toFile();
+        archive = archiver.create("archive", destination, source);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Corpus.delete(source);
+        Corpus.delete(destination);
+    }
+
+    @Benchmark
+    public File create() throws IOException {
+        return archiver.create("created", destination, source);
+    }
+
+    @Benchmark
+    public void extract() throws IOException {
+        archiver.extract(archive, new File(destination, "extracted"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Benchmark
+    public void stream(Blackhole blackhole) throws IOException {
+        byte[] buffer = new byte[8192];
+        try (ArchiveStream stream = archiver.stream(archive)) {
+            ArchiveEntry entry;
+            while ((entry = stream.getNextEntry()) != null) {
+                blackhole.consume(entry.getName());
+                int n;
+                while ((n = stream.read(buffer)) != -1) {
+                    blackhole.consume(n);
+                }
+            }
+        }
+    }
+}
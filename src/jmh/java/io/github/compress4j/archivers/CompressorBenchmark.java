@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Compressor#compress(File, File)} and {@link Compressor#decompress(File, File)} for every compression
+ * type that can compress. The input is a tar archive of the corpus, or a jar archive for
+ * {@link CompressionType#PACK200}, which only compresses jar files. {@link CompressionType#BROTLI} is left out as it
+ * can only be decompressed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CompressorBenchmark {
+
+    @Param({"BZIP2", "GZIP", "XZ", "PACK200", "LZ4_FRAMED", "SNAPPY_FRAMED", "ZSTANDARD"})
+    public CompressionType type;
+
+    @Param({"TINY_FILES", "HUGE_FILES"})
+    public Corpus corpus;
+
+    @Param({"COMPRESSIBLE", "INCOMPRESSIBLE"})
+    public Corpus.Data data;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private Compressor compressor;
+    private File source;
+    private File destination;
+    private File input;
+    private File compressed;
+
+    @Setup
+    public void setUp() throws IOException {
+        compressor = CompressorFactory.createCompressor(type, CompressionOptions.builder().setThreads(threads).build());
+
+        source = corpus.create(data);
+        destination = Files.createTempDirectory("compress4j-jmh-destination").toFile();
+        ArchiveFormat format = type == CompressionType.PACK200 ? ArchiveFormat.JAR : ArchiveFormat.TAR;
+        input = ArchiverFactory.createArchiver(format).create("input", destination, source);
+        compressed = new File(destination, "compressed" + compressor.getFilenameExtension());
+        compressor.compress(input, compressed);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Corpus.delete(source);
+        Corpus.delete(destination);
+    }
+
+    @Benchmark
+    public File compress() throws IOException {
+        File file = new File(destination, "benchmark" + compressor.getFilenameExtension());
+        compressor.compress(input, file);
+        return file;
+    }
+
+    @Benchmark
+    public File decompress() throws IOException {
+        File file = new File(destination, "decompressed");
+        compressor.decompress(compressed, file);
+        return file;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/** The input files the benchmarks run on. All files are written flat into one directory. */
+enum Corpus {
+
+    /** Many small files, where the per-entry overhead dominates. */
+    TINY_FILES(2_000, 1024),
+    /** A few large files, where the compression throughput dominates. */
+    HUGE_FILES(2, 16 * 1024 * 1024);
+
+    private static final String[] WORDS = {
+        "archive", "compress", "entry", "stream", "block", "deflate", "index", "header", "footer", "buffer", "thread",
+        "file", "directory", "permission", "checksum", "dictionary", "window", "level", "extract", "create"
+    };
+
+    private final int files;
+    private final int fileSize;
+
+    Corpus(int files, int fileSize) {
+        this.files = files;
+        this.fileSize = fileSize;
+    }
+
+    /** The kind of content of the corpus files. */
+    enum Data {
+        /** Text made of a small vocabulary, compressing to about a quarter of its size. */
+        COMPRESSIBLE,
+        /** Random bytes that no compressor can shrink. */
+        INCOMPRESSIBLE
+    }
+
+    /**
+     * Writes the files of this corpus into a new temporary directory.
+     *
+     * @param data the kind of content to write
+     * @return the directory holding the corpus files
+     * @throws IOException if the files can not be written
+     */
+    File create(Data data) throws IOException {
+        Path directory = Files.createTempDirectory("compress4j-jmh-" + name().toLowerCase());
+        Random random = new Random(42);
+        byte[] content = new byte[fileSize];
+
+        for (int i = 0; i < files; i++) {
+            fill(content, data, random);
+            try (OutputStream out = Files.newOutputStream(directory.resolve(String.format("f%05d.bin", i)))) {
+                out.write(content);
+            }
+        }
+        return directory.toFile();
+    }
+
+    private static void fill(byte[] content, Data data, Random random) {
+        if (data == Data.INCOMPRESSIBLE) {
+            random.nextBytes(content);
+            return;
+        }
+
+        int position = 0;
+        while (position < content.length) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            for (int i = 0; i < word.length() && position < content.length; i++) {
+                content[position++] = (byte) word.charAt(i);
+            }
+            if (position < content.length) {
+                content[position++] = (byte) (random.nextInt(8) == 0 ? '\n' : ' ');
+            }
+        }
+    }
+
+    /**
+     * Deletes the given directory with all its contents.
+     *
+     * @param directory the directory to delete
+     * @throws IOException if a file can not be deleted
+     */
+    static void delete(File directory) throws IOException {
+        if (directory == null || !directory.exists()) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
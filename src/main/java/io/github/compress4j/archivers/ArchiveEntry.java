@@ -64,7 +64,8 @@ public interface ArchiveEntry {
     /**
      * Extracts the entry to the given destination directory.
      *
-     * <p>The destination is expected to be a writable directory.
+     * <p>The destination is expected to be a writable directory. The permissions and modification time of the
+     * extracted file or directory are restored once the {@link ArchiveStream} this entry came from is closed.
      *
      * @param destination the directory to extract the value to
      * @param options options specifying how the copy should be done
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.StringJoiner;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
+import org.apache.commons.compress.archivers.sevenz.SevenZMethodConfiguration;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipMethod;
+
+/**
+ * The metadata of an archive entry as listed by {@link Archiver#list(java.io.File)}. The metadata is read from the
+ * headers of the archive, without the entry data. Instances are immutable and remain valid after the archive is closed.
+ * <br>
+ * Not every archive format records every attribute. Attributes a format does not record are reported as
+ * {@link #UNKNOWN}, null or 0, as documented by the respective getter.
+ */
+public final class ArchiveEntryInfo {
+
+    /** Special value of a size or CRC that is not recorded in the archive. */
+    public static final long UNKNOWN = -1;
+
+    /** Mask of the bit of 7z windows attributes that marks unix file modes in the upper 16 bits. */
+    private static final int SEVEN_Z_UNIX_EXTENSION = 0x8000;
+
+    private final String name;
+    private final long size;
+    private final long compressedSize;
+    private final String method;
+    private final long crc;
+    private final Date lastModifiedDate;
+    private final int mode;
+    private final boolean directory;
+
+    private ArchiveEntryInfo(
+            String name,
+            long size,
+            long compressedSize,
+            String method,
+            long crc,
+            Date lastModifiedDate,
+            int mode,
+            boolean directory) {
+        this.name = name;
+        this.size = size;
+        this.compressedSize = compressedSize;
+        this.method = method;
+        this.crc = crc;
+        this.lastModifiedDate = lastModifiedDate;
+        this.mode = mode;
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the metadata of the given commons-compress entry. Only the attributes held by the entry object are read.
+     *
+     * @param entry the entry read from the headers of an archive
+     * @return the metadata of the entry
+     * @throws IOException if the mode of the entry can not be read
+     */
+    static ArchiveEntryInfo of(ArchiveEntry entry) throws IOException {
+        if (entry instanceof ZipArchiveEntry) {
+            ZipArchiveEntry zipEntry = (ZipArchiveEntry) entry;
+            ZipMethod zipMethod = ZipMethod.getMethodByCode(zipEntry.getMethod());
+            return new ArchiveEntryInfo(
+                    zipEntry.getName(),
+                    zipEntry.getSize(),
+                    zipEntry.getCompressedSize(),
+                    zipMethod != null ? zipMethod.name() : String.valueOf(zipEntry.getMethod()),
+                    zipEntry.getCrc(),
+                    zipEntry.getLastModifiedDate(),
+                    zipEntry.getUnixMode(),
+                    zipEntry.isDirectory());
+        } else if (entry instanceof SevenZArchiveEntry) {
+            SevenZArchiveEntry sevenZEntry = (SevenZArchiveEntry) entry;
+            int attributes = sevenZEntry.getHasWindowsAttributes() ? sevenZEntry.getWindowsAttributes() : 0;
+            return new ArchiveEntryInfo(
+                    sevenZEntry.getName(),
+                    sevenZEntry.getSize(),
+                    UNKNOWN,
+                    getMethod(sevenZEntry),
+                    sevenZEntry.getHasCrc() ? sevenZEntry.getCrcValue() : UNKNOWN,
+                    sevenZEntry.getHasLastModifiedDate() ? sevenZEntry.getLastModifiedDate() : null,
+                    (attributes & SEVEN_Z_UNIX_EXTENSION) != 0 ? attributes >>> 16 : 0,
+                    sevenZEntry.isDirectory());
+        }
+
+        return new ArchiveEntryInfo(
+                entry.getName(),
+                entry.getSize(),
+                UNKNOWN,
+                null,
+                UNKNOWN,
+                entry.getLastModifiedDate(),
+                AttributeAccessor.create(entry).getMode(),
+                entry.isDirectory());
+    }
+
+    /**
+     * Returns the metadata of the given entry of an {@link ArchiveStream}. Entries wrapping a commons-compress entry
+     * are read like {@link #of(ArchiveEntry)}, others only record their name, size, modification date and type.
+     *
+     * @param entry the current entry of an archive stream
+     * @return the metadata of the entry
+     * @throws IOException if the mode of the entry can not be read
+     */
+    static ArchiveEntryInfo of(io.github.compress4j.archivers.ArchiveEntry entry) throws IOException {
+        if (entry instanceof CommonsArchiveEntry) {
+            return of(((CommonsArchiveEntry) entry).getEntry());
+        }
+        return new ArchiveEntryInfo(
+                entry.getName(),
+                entry.getSize(),
+                UNKNOWN,
+                null,
+                UNKNOWN,
+                entry.getLastModifiedDate(),
+                0,
+                entry.isDirectory());
+    }
+
+    /** Returns the names of the coders of the given 7z entry, joined by '+', or null if it has no data. */
+    private static String getMethod(SevenZArchiveEntry entry) {
+        Iterable<? extends SevenZMethodConfiguration> methods = entry.getContentMethods();
+        if (methods == null) {
+            return null;
+        }
+
+        StringJoiner method = new StringJoiner("+");
+        for (SevenZMethodConfiguration configuration : methods) {
+            method.add(configuration.getMethod().name());
+        }
+        return method.length() > 0 ? method.toString() : null;
+    }
+
+    /**
+     * Returns the name of the entry in the archive.
+     *
+     * @return the name of the entry
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the uncompressed size of the entry.
+     *
+     * @return the size of the entry once uncompressed, or {@link #UNKNOWN}
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the size of the entry data in the archive. Only formats that compress each entry on its own, like zip
+     * and jar, record it.
+     *
+     * @return the compressed size of the entry, or {@link #UNKNOWN}
+     */
+    public long getCompressedSize() {
+        return compressedSize;
+    }
+
+    /**
+     * Returns the name of the method the entry data is compressed with, e.g. {@code DEFLATED} or {@code STORED} for zip
+     * and jar entries. The methods of 7z entries are recorded for the folder that holds them, which is only read once
+     * the folder is decoded, so they are usually not listed.
+     *
+     * @return the compression method, or null if it is unknown or the format does not compress each entry on its own
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the CRC-32 checksum of the uncompressed entry data, as recorded by zip and 7z files.
+     *
+     * @return the checksum of the entry, or {@link #UNKNOWN}
+     */
+    public long getCrc() {
+        return crc;
+    }
+
+    /**
+     * Returns the last modified date of the entry.
+     *
+     * @return the date the entry was last modified, or null if the archive does not record it
+     */
+    public Date getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    /**
+     * Returns the unix file mode of the entry, including its permission bits.
+     *
+     * @return the unix file mode flags, or 0 if the archive does not record them
+     */
+    public int getMode() {
+        return mode;
+    }
+
+    /**
+     * Checks whether the entry is a directory.
+     *
+     * @return true if the entry refers to a directory
+     */
+    public boolean isDirectory() {
+        return directory;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The result of an asynchronous archiver or compressor operation, such as
+ * {@link Archiver#extractAsync(java.io.File, java.io.File, java.util.concurrent.Executor,
+ * java.nio.file.CopyOption...)}. <br>
+ * The operation stops cooperatively once this future is done before the operation itself completed it: after
+ * {@link #cancel(boolean)}, a timeout of {@link #orTimeout(long, TimeUnit)}, or any other completion. It then checks
+ * before writing its next buffer, fails with an {@link java.io.InterruptedIOException}, and deletes the files it has
+ * written so far on the thread of the executor. Pre-existing files are only deleted if the operation was about to
+ * replace them. <br>
+ * {@link #getBytesWritten()} reports the progress of the running operation.
+ *
+ * @param <T> the result type
+ */
+public final class ArchiveFuture<T> extends CompletableFuture<T> {
+
+    private final LongAdder bytesWritten = new LongAdder();
+
+    ArchiveFuture() {}
+
+    /**
+     * Returns the number of bytes the operation has written so far: the data of the extracted files, the bytes of the
+     * created archive, or the output of the compressor.
+     *
+     * @return the number of bytes written
+     */
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    void addBytesWritten(long bytes) {
+        bytesWritten.add(bytes);
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pool of open archive files, for applications that read from the same zip, jar and 7z files many times. Opening
+ * such a file parses its central directory or header, which for archives of many entries costs far more than reading
+ * an entry. Pooling is opt-in: archivers use a pool once it is set with
+ * {@link ReadOptions.Builder#setHandlePool(ArchiveHandlePool)}. One pool can be shared by any number of
+ * archivers and threads. <br>
+ * Handles are keyed by the canonical path of the archive and its identity: size, modification time and file key
+ * (e.g. the inode), so an archive that was replaced or changed is opened again. A zip file is opened once and read by
+ * all threads concurrently, as commons-compress reads its entries with positional reads. A 7z file decodes through
+ * state of its own, so each concurrent reader leases a handle of its own, and idle handles are reused. <br>
+ * Handles that have not been used for the idle timeout are closed by a daemon thread of the pool. {@link #close()}
+ * closes the idle handles at once, and the handles in use when they are released.
+ */
+public final class ArchiveHandlePool implements Closeable {
+
+    /** The idle timeout of pools created without one. */
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(1);
+
+    private final long idleTimeoutNanos;
+    private final ScheduledExecutorService sweeper;
+    private final Map<Key, Slot> shared = new HashMap<>();
+    private final Map<Key, Deque<Slot>> exclusive = new HashMap<>();
+
+    private boolean closed;
+    private long openCount;
+
+    /** Creates a new, empty pool that closes handles idle for {@link #DEFAULT_IDLE_TIMEOUT}. */
+    public ArchiveHandlePool() {
+        this(DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * Creates a new, empty pool.
+     *
+     * @param idleTimeout the time after which handles that are not used are closed
+     * @throws IllegalArgumentException if the idle timeout is not positive
+     */
+    public ArchiveHandlePool(Duration idleTimeout) {
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Idle timeout must be positive, was " + idleTimeout);
+        }
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+
+        long period = Math.max(idleTimeoutNanos / 2, TimeUnit.MILLISECONDS.toNanos(10));
+        this.sweeper = ThreadPools.newSingleThreadScheduledExecutor("handle-pool");
+        sweeper.scheduleWithFixedDelay(this::closeIdleHandles, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Leases a handle of the given archive, opening it if the pool holds no usable one.
+     *
+     * @param archive the archive file
+     * @param concurrent true if the handle may be used by several threads at once, false if every lease needs a handle
+     *     of its own
+     * @param opener opens a new handle of the archive
+     * @return the lease of the handle, which has to be closed once the handle is no longer used
+     * @param <T> the type of the handle
+     * @throws IOException if the archive can not be opened
+     */
+    @SuppressWarnings("unchecked")
+    <T extends Closeable> Lease<T> acquire(File archive, boolean concurrent, Opener<T> opener) throws IOException {
+        Key key = Key.of(archive);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Handle pool is closed");
+            }
+            Slot slot = concurrent ? shared.get(key) : poll(key);
+            if (slot != null) {
+                slot.leases++;
+                return new Lease<>((T) slot.handle, () -> release(slot), () -> evict(slot));
+            }
+        }
+
+        T handle = opener.open(archive);
+        Slot opened = new Slot(key, handle, concurrent);
+        Slot slot;
+        synchronized (this) {
+            openCount++;
+            slot = concurrent && !closed ? shared.putIfAbsent(key, opened) : null;
+            if (slot == null) {
+                slot = opened;
+            }
+            slot.leases++;
+        }
+        if (slot != opened) {
+            // another thread opened the archive meanwhile
+            handle.close();
+        }
+        Slot leased = slot;
+        return new Lease<>((T) leased.handle, () -> release(leased), () -> evict(leased));
+    }
+
+    private Slot poll(Key key) {
+        Deque<Slot> idle = exclusive.get(key);
+        if (idle == null) {
+            return null;
+        }
+        Slot slot = idle.pollLast();
+        if (idle.isEmpty()) {
+            exclusive.remove(key);
+        }
+        return slot;
+    }
+
+    private void release(Slot slot) throws IOException {
+        synchronized (this) {
+            slot.leases--;
+            slot.lastUsed = System.nanoTime();
+            if (!closed && !slot.evicted) {
+                if (!slot.concurrent) {
+                    exclusive.computeIfAbsent(slot.key, k -> new ArrayDeque<>()).addLast(slot);
+                    return;
+                } else if (shared.get(slot.key) == slot || slot.leases > 0) {
+                    return;
+                }
+            } else if (slot.leases > 0) {
+                return;
+            }
+        }
+        slot.handle.close();
+    }
+
+    /** Removes the given slot from the pool, so that its handle is closed once released rather than leased again. */
+    private synchronized void evict(Slot slot) {
+        slot.evicted = true;
+        shared.remove(slot.key, slot);
+    }
+
+    /** Closes the handles that are not leased and have not been used for the idle timeout. */
+    private void closeIdleHandles() {
+        List<Closeable> idle = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (this) {
+            for (Iterator<Slot> slots = shared.values().iterator(); slots.hasNext(); ) {
+                Slot slot = slots.next();
+                if (slot.leases == 0 && now - slot.lastUsed >= idleTimeoutNanos) {
+                    slots.remove();
+                    idle.add(slot.handle);
+                }
+            }
+            for (Iterator<Deque<Slot>> deques = exclusive.values().iterator(); deques.hasNext(); ) {
+                Deque<Slot> deque = deques.next();
+                for (Iterator<Slot> slots = deque.iterator(); slots.hasNext(); ) {
+                    Slot slot = slots.next();
+                    if (now - slot.lastUsed >= idleTimeoutNanos) {
+                        slots.remove();
+                        idle.add(slot.handle);
+                    }
+                }
+                if (deque.isEmpty()) {
+                    deques.remove();
+                }
+            }
+        }
+        closeQuietly(idle);
+    }
+
+    /**
+     * Returns the number of archive handles currently held by the pool, whether leased or idle.
+     *
+     * @return the number of pooled handles
+     */
+    public synchronized int getHandleCount() {
+        int count = shared.size();
+        for (Deque<Slot> idle : exclusive.values()) {
+            count += idle.size();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of archive handles the pool has opened so far. The difference to the number of reads shows
+     * how many opens the pool saved.
+     *
+     * @return the number of opened handles
+     */
+    public synchronized long getOpenCount() {
+        return openCount;
+    }
+
+    /**
+     * Closes the pool and all idle handles. Leased handles are closed once they are released. Archivers whose options
+     * hold a closed pool fail to read zip and 7z files.
+     */
+    @Override
+    public void close() {
+        List<Closeable> idle = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Slot slot : shared.values()) {
+                if (slot.leases == 0) {
+                    idle.add(slot.handle);
+                }
+            }
+            for (Deque<Slot> slots : exclusive.values()) {
+                for (Slot slot : slots) {
+                    idle.add(slot.handle);
+                }
+            }
+            shared.clear();
+            exclusive.clear();
+        }
+        sweeper.shutdownNow();
+        closeQuietly(idle);
+    }
+
+    private static void closeQuietly(List<Closeable> handles) {
+        for (Closeable handle : handles) {
+            try {
+                handle.close();
+            } catch (IOException e) {
+                // the handle is discarded anyway
+            }
+        }
+    }
+
+    /**
+     * Opens a new handle of an archive.
+     *
+     * @param <T> the type of the handle
+     */
+    @FunctionalInterface
+    interface Opener<T extends Closeable> {
+
+        /**
+         * Opens the given archive.
+         *
+         * @param archive the archive file
+         * @return the new handle
+         * @throws IOException if the archive can not be opened
+         */
+        T open(File archive) throws IOException;
+    }
+
+    /**
+     * The use of a handle by one reader. Closing the lease returns the handle to its pool, or closes a handle that is
+     * not pooled.
+     *
+     * @param <T> the type of the handle
+     */
+    static final class Lease<T extends Closeable> implements Closeable {
+
+        private final T handle;
+        private final Closeable release;
+        private final Runnable eviction;
+        private boolean released;
+
+        private Lease(T handle, Closeable release, Runnable eviction) {
+            this.handle = handle;
+            this.release = release;
+            this.eviction = eviction;
+        }
+
+        /**
+         * Returns a lease of a handle that is not pooled, which closes the handle when it is closed.
+         *
+         * @param handle the handle
+         * @return a new lease
+         * @param <T> the type of the handle
+         */
+        static <T extends Closeable> Lease<T> of(T handle) {
+            return new Lease<>(handle, handle, () -> {});
+        }
+
+        /**
+         * Returns the leased handle. The handle must not be used once the lease is closed.
+         *
+         * @return the handle
+         */
+        T get() {
+            return handle;
+        }
+
+        /**
+         * Removes the handle from its pool, as a failed read may have broken it. The handle is closed once all its
+         * leases are released, and later reads of the archive open a new one. Does nothing for handles that are not
+         * pooled.
+         */
+        void evict() {
+            eviction.run();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!released) {
+                released = true;
+                release.close();
+            }
+        }
+    }
+
+    /** A handle held by the pool. */
+    private static final class Slot {
+
+        private final Key key;
+        private final Closeable handle;
+        private final boolean concurrent;
+        private boolean evicted;
+        private int leases;
+        private long lastUsed = System.nanoTime();
+
+        Slot(Key key, Closeable handle, boolean concurrent) {
+            this.key = key;
+            this.handle = handle;
+            this.concurrent = concurrent;
+        }
+    }
+
+    /** Identifies one version of an archive file. */
+    private static final class Key {
+
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+        private final Object fileKey;
+
+        private Key(Path path, BasicFileAttributes attributes) {
+            this.path = path;
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+            this.fileKey = attributes.fileKey();
+        }
+
+        static Key of(File archive) throws IOException {
+            Path path = archive.getCanonicalFile().toPath();
+            return new Key(path, Files.readAttributes(path, BasicFileAttributes.class));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return size == key.size
+                    && lastModified == key.lastModified
+                    && path.equals(key.path)
+                    && Objects.equals(fileKey, key.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, lastModified, fileKey);
+        }
+    }
+}
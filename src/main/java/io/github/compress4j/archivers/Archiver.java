@@ -18,7 +18,12 @@ package io.github.compress4j.archivers;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.CopyOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * An Archiver facades a specific archiving library, allowing for simple archiving of files and directories, and
@@ -68,6 +73,151 @@ public interface Archiver {
      */
     void extract(File archive, File destination, CopyOption... options) throws IOException;
 
+    /**
+     * Creates an archive from the given source file or directory, and saves it into the given destination directory.
+     * Behaves like {@link #create(String, File, File)}.
+     *
+     * @param archive the name of the archive to create
+     * @param destination the destination directory where to place the created archive
+     * @param source the input file or directory to archive
+     * @return the newly created archive file
+     * @throws IllegalArgumentException if a path is not associated with the default file system
+     * @throws IOException propagated I/O errors by {@code java.io}
+     */
+    default Path create(String archive, Path destination, Path source) throws IOException {
+        return create(archive, IOUtils.toFile(destination), IOUtils.toFile(source)).toPath();
+    }
+
+    /**
+     * Creates an archive from the given source files or directories, and saves it into the given destination
+     * directory. Behaves like {@link #create(String, File, File...)}.
+     *
+     * @param archive the name of the archive to create
+     * @param destination the destination directory where to place the created archive
+     * @param sources the input files or directories to archive
+     * @return the newly created archive file
+     * @throws IllegalArgumentException if a path is not associated with the default file system
+     * @throws IOException propagated I/O errors by {@code java.io}
+     */
+    default Path create(String archive, Path destination, Path... sources) throws IOException {
+        File[] files = new File[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            files[i] = IOUtils.toFile(sources[i]);
+        }
+        return create(archive, IOUtils.toFile(destination), files).toPath();
+    }
+
+    /**
+     * Extracts the given archive file into the given destination directory. Behaves like
+     * {@link #extract(File, File, CopyOption...)}. Uncompressed tar files are extracted without copying the entry
+     * data through the Java heap.
+     *
+     * @param archive the archive file to extract
+     * @param destination the directory to which to extract the files
+     * @param options options specifying how the copy should be done
+     * @throws IllegalArgumentException if a path is not associated with the default file system
+     * @throws IOException propagated I/O errors by {@code java.io}
+     */
+    default void extract(Path archive, Path destination, CopyOption... options) throws IOException {
+        extract(IOUtils.toFile(archive), IOUtils.toFile(destination), options);
+    }
+
+    /**
+     * Extracts the entries of the given archive file accepted by the given filter into the given destination directory.
+     * <br>
+     * The destination is expected to be a writable directory. Directories containing accepted entries are created even
+     * if their own entries are rejected. Zip and uncompressed tar files skip the data of rejected entries without
+     * reading it, and 7z files do not decompress the blocks that hold only rejected entries. By default every entry of
+     * the archive is read, and the data of rejected entries is discarded.
+     *
+     * @param archive the archive file to extract
+     * @param destination the directory to which to extract the files
+     * @param filter the filter selecting the entries to extract
+     * @param options options specifying how the copy should be done
+     * @throws IOException propagated I/O errors by {@code java.io}
+     */
+    default void extract(File archive, File destination, EntryFilter filter, CopyOption... options)
+            throws IOException {
+        IOUtils.requireDirectory(destination);
+
+        try (ArchiveStream stream = stream(archive)) {
+            ArchiveEntry entry;
+            while ((entry = stream.getNextEntry()) != null) {
+                if (filter.accept(entry.getName())) {
+                    entry.extract(destination, options);
+                }
+            }
+        }
+    }
+
+    /**
+     * Extracts the entries of the given archive file accepted by the given filter into the given destination directory.
+     * Behaves like {@link #extract(File, File, EntryFilter, CopyOption...)}.
+     *
+     * @param archive the archive file to extract
+     * @param destination the directory to which to extract the files
+     * @param filter the filter selecting the entries to extract
+     * @param options options specifying how the copy should be done
+     * @throws IllegalArgumentException if a path is not associated with the default file system
+     * @throws IOException propagated I/O errors by {@code java.io}
+     */
+    default void extract(Path archive, Path destination, EntryFilter filter, CopyOption... options)
+            throws IOException {
+        extract(IOUtils.toFile(archive), IOUtils.toFile(destination), filter, options);
+    }
+
+    /**
+     * Creates an archive from the given source files or directories on the given executor. Behaves like
+     * {@link #create(String, File, File...)}, but returns at once. Cancelling the returned future, or letting it time
+     * out, stops the creation before its next write and deletes the partially written archive, see
+     * {@link ArchiveFuture}.
+     *
+     * @param archive the name of the archive to create
+     * @param destination the destination directory where to place the created archive
+     * @param executor the executor to create the archive on
+     * @param sources the input files or directories to archive
+     * @return a future completed with the newly created archive file, or exceptionally with the failure of the creation
+     */
+    default ArchiveFuture<File> createAsync(String archive, File destination, Executor executor, File... sources) {
+        return AsyncOperation.run(executor, () -> create(archive, destination, sources));
+    }
+
+    /**
+     * Extracts the given archive file into the given destination directory on the given executor. Behaves like
+     * {@link #extract(File, File, CopyOption...)}, but returns at once. Cancelling the returned future, or letting it
+     * time out, stops the extraction before its next write and deletes the files and directories extracted so far, see
+     * {@link ArchiveFuture}.
+     *
+     * @param archive the archive file to extract
+     * @param destination the directory to which to extract the files
+     * @param executor the executor to extract the archive on
+     * @param options options specifying how the copy should be done
+     * @return a future completed once the archive is extracted, or exceptionally with the failure of the extraction
+     */
+    default ArchiveFuture<Void> extractAsync(File archive, File destination, Executor executor, CopyOption... options) {
+        return extractAsync(archive, destination, EntryFilter.ALL, executor, options);
+    }
+
+    /**
+     * Extracts the entries of the given archive file accepted by the given filter into the given destination directory
+     * on the given executor. Behaves like {@link #extract(File, File, EntryFilter, CopyOption...)}, and can be
+     * cancelled like {@link #extractAsync(File, File, Executor, CopyOption...)}.
+     *
+     * @param archive the archive file to extract
+     * @param destination the directory to which to extract the files
+     * @param filter the filter selecting the entries to extract
+     * @param executor the executor to extract the archive on
+     * @param options options specifying how the copy should be done
+     * @return a future completed once the archive is extracted, or exceptionally with the failure of the extraction
+     */
+    default ArchiveFuture<Void> extractAsync(
+            File archive, File destination, EntryFilter filter, Executor executor, CopyOption... options) {
+        return AsyncOperation.run(executor, () -> {
+            extract(archive, destination, filter, options);
+            return null;
+        });
+    }
+
     /**
      * Extracts the given archive supplied as an input stream into the given destination directory. <br>
      * The destination directory is expected to be a writable directory.
@@ -79,6 +229,41 @@ public interface Archiver {
      */
     void extract(InputStream archive, File destination, CopyOption... options) throws IOException;
 
+    /**
+     * Lists the metadata of the entries of the given archive file, in the order they appear in the archive, without
+     * reading the entry data. <br>
+     * Zip files are listed from their central directory and 7z files from their header, and uncompressed tar files by
+     * reading the tar headers and seeking over the entry data. Other archives are read as a stream, skipping the entry
+     * data, which for compressed archives still requires the whole archive to be decompressed. By default the entries
+     * are read through {@link #stream(File)}.
+     *
+     * @param archive the archive file to list
+     * @return the metadata of every entry of the archive
+     * @throws IOException propagated I/O errors by {@code java.io}
+     */
+    default List<ArchiveEntryInfo> list(File archive) throws IOException {
+        try (ArchiveStream stream = stream(archive)) {
+            List<ArchiveEntryInfo> entries = new ArrayList<>();
+            ArchiveEntry entry;
+            while ((entry = stream.getNextEntry()) != null) {
+                entries.add(ArchiveEntryInfo.of(entry));
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Lists the metadata of the entries of the given archive file. Behaves like {@link #list(File)}.
+     *
+     * @param archive the archive file to list
+     * @return the metadata of every entry of the archive
+     * @throws IllegalArgumentException if a path is not associated with the default file system
+     * @throws IOException propagated I/O errors by {@code java.io}
+     */
+    default List<ArchiveEntryInfo> list(Path archive) throws IOException {
+        return list(IOUtils.toFile(archive));
+    }
+
     /**
      * Reads the given archive file as an {@link ArchiveStream} which is used to access individual {@link ArchiveEntry}
      * objects within the archive without extracting the archive onto the file system.
@@ -89,6 +274,56 @@ public interface Archiver {
      */
     ArchiveStream stream(File archive) throws IOException;
 
+    /**
+     * Reads the given archive file as an {@link ArchiveStream}. Behaves like {@link #stream(File)}.
+     *
+     * @param archive the archive file to stream
+     * @return a new archive stream for the given archive
+     * @throws IllegalArgumentException if a path is not associated with the default file system
+     * @throws IOException propagated I/O errors by {@code java.io}
+     */
+    default ArchiveStream stream(Path archive) throws IOException {
+        return stream(IOUtils.toFile(archive));
+    }
+
+    /**
+     * Reads the given archive file as an {@link ArchiveStream} positioned at the entry with the given name. The first
+     * call of {@link ArchiveStream#getNextEntry()} returns that entry, and further calls return the entries following
+     * it, so a single entry or a range of entries can be read. If the archive holds no entry of that name, the first
+     * call returns null. <br>
+     * By default the entries before the named one are read and skipped. Gzip compressed tar files that have a
+     * {@link TarGzIndex} are instead decompressed from the last checkpoint before the entry.
+     *
+     * @param archive the archive file to stream
+     * @param entryName the name of the first entry to return
+     * @return a new archive stream starting at the named entry
+     * @throws IOException propagated I/O errors by {@code java.io}
+     */
+    default ArchiveStream stream(File archive, String entryName) throws IOException {
+        return new EntrySeekingArchiveStream(stream(archive), entryName);
+    }
+
+    /**
+     * Reads the whole content of the entry with the given name from the given archive file. If the archive holds
+     * several entries of that name, the first one is read. The content has to fit into a single buffer. <br>
+     * Zip files read the entry directly, and 7z files decode only the folder holding the entry. Archivers whose
+     * {@link ReadOptions} have an {@link EntryCache} serve repeated reads of an entry from the cache. By default
+     * the entry is read through {@link #stream(File, String)}.
+     *
+     * @param archive the archive file to read from
+     * @param entryName the name of the entry to read
+     * @return a read-only buffer holding the content of the entry, or null if the archive holds no such entry
+     * @throws IOException propagated I/O errors by {@code java.io}
+     */
+    default ByteBuffer readEntry(File archive, String entryName) throws IOException {
+        try (ArchiveStream stream = stream(archive, entryName)) {
+            if (stream.getNextEntry() == null) {
+                return null;
+            }
+            return ByteBuffer.wrap(stream.readAllBytes()).asReadOnlyBuffer();
+        }
+    }
+
     /**
      * Returns the filename extension that indicates the file format this archiver handles. E.g .tar" or ".zip". In case
      * of compressed archives, it will return the composite filename extensions, e.g. ".tar.gz"
@@ -15,16 +15,21 @@
  */
 package io.github.compress4j.archivers;
 
-import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.CopyOption;
 import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.apache.commons.compress.archivers.ArchiveException;
-import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
 
 /**
  * Decorates an {@link Archiver} with a {@link Compressor}, s.t. it is able to compress the archives it generates and
@@ -32,9 +37,19 @@ import org.apache.commons.compress.compressors.CompressorException;
  */
 class ArchiverCompressorDecorator<E extends org.apache.commons.compress.archivers.ArchiveEntry> implements Archiver {
 
+    private static final int MAX_CACHED_INDEXES = 16;
+
     private final CommonsArchiver<E> archiver;
     private final CommonsCompressor compressor;
 
+    /** The tar entry indexes used last, by absolute archive file, kept as lookups tend to go to few archives. */
+    private final Map<File, TarEntryIndex> indexes = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, TarEntryIndex> eldest) {
+            return size() > MAX_CACHED_INDEXES;
+        }
+    });
+
     /**
      * Decorates the given Archiver with the given Compressor.
      *
@@ -51,20 +66,27 @@ class ArchiverCompressorDecorator<E extends org.apache.commons.compress.archiver
         return create(archive, destination, IOUtils.filesContainedIn(source));
     }
 
+    /**
+     * Creates the compressed archive in a single pass: the archive stream is piped straight into the compressor
+     * stream, so no intermediate uncompressed archive is written to disk. If creation fails, the partially written
+     * archive is removed.
+     */
     @Override
     public File create(String archive, File destination, File... sources) throws IOException {
         IOUtils.requireDirectory(destination);
 
-        File temp = File.createTempFile(destination.getName(), archiver.getFilenameExtension(), destination);
-        File destinationArchive;
-
-        try {
-            temp = archiver.create(temp.getName(), temp.getParentFile(), sources);
-            destinationArchive = new File(destination, getArchiveFileName(archive));
-
-            compressor.compress(temp, destinationArchive);
-        } finally {
-            Files.delete(temp.toPath());
+        File destinationArchive = new File(destination, getArchiveFileName(archive));
+
+        AsyncOperation operation = AsyncOperation.current();
+        operation.created(destinationArchive);
+        try (OutputStream output = new BufferedOutputStream(operation.watch(new FileOutputStream(destinationArchive)));
+                OutputStream compressed = compressor.compressingStream(output);
+                ArchiveOutputStream<E> archiveStream = archiver.createArchiveOutputStream(compressed)) {
+            archiver.writeToArchive(sources, archiveStream);
+            archiveStream.finish();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(destinationArchive.toPath());
+            throw e;
         }
 
         return destinationArchive;
@@ -72,6 +94,12 @@ class ArchiverCompressorDecorator<E extends org.apache.commons.compress.archiver
 
     @Override
     public void extract(File archive, File destination, CopyOption... options) throws IOException {
+        extract(archive, destination, EntryFilter.ALL, options);
+    }
+
+    @Override
+    public void extract(File archive, File destination, EntryFilter filter, CopyOption... options)
+            throws IOException {
         IOUtils.requireDirectory(destination);
 
         /*
@@ -82,8 +110,8 @@ class ArchiverCompressorDecorator<E extends org.apache.commons.compress.archiver
             throw new FileNotFoundException(String.format("Archive %s does not exist.", archive.getAbsolutePath()));
         }
 
-        try (InputStream archiveStream = new BufferedInputStream(new FileInputStream(archive))) {
-            archiver.extract(compressor.decompressingStream(archiveStream), destination, options);
+        try (InputStream archiveStream = compressor.decompressingStream(archive)) {
+            archiver.extract(archiveStream, destination, filter, options);
         } catch (FileNotFoundException e) {
             // Java throws F-N-F for no access, and callers expect I-A-E for that.
             throw new IllegalArgumentException(
@@ -97,16 +125,82 @@ class ArchiverCompressorDecorator<E extends org.apache.commons.compress.archiver
         archiver.extract(compressor.decompressingStream(archive), destination, options);
     }
 
+    /**
+     * Lists the entries by reading the tar headers from the decompressed archive. As the entry data can only be skipped
+     * by decompressing it, listing takes about as long as decompressing the archive.
+     */
+    @Override
+    public List<ArchiveEntryInfo> list(File archive) throws IOException {
+        if (!archive.exists()) {
+            throw new FileNotFoundException(String.format("Archive %s does not exist.", archive.getAbsolutePath()));
+        }
+
+        try (InputStream archiveStream = compressor.decompressingStream(archive)) {
+            return archiver.list(archiveStream);
+        }
+    }
+
+    /**
+     * Streams the archive through the decompressing stream of the compressor, so that its options apply, e.g. the
+     * window size of Zstandard or the threads of the parallel decoders.
+     */
     @Override
     public ArchiveStream stream(File archive) throws IOException {
+        InputStream archiveStream = compressor.decompressingStream(archive);
         try {
-            return new CommonsArchiveStream<>(CommonsStreamFactory.createArchiveInputStream(
-                    archiver, CommonsStreamFactory.createCompressorInputStream(archive)));
-        } catch (ArchiveException | CompressorException e) {
+            return new CommonsArchiveStream<>(CommonsStreamFactory.createArchiveInputStream(archiver, archiveStream));
+        } catch (ArchiveException e) {
+            archiveStream.close();
             throw new IOException(e);
         }
     }
 
+    /**
+     * Streams a compressed tar file from the named entry using its index: a gzip compressed file that has a
+     * {@link TarGzIndex} is decompressed from the last checkpoint before the entry, and an XZ compressed file seeks to
+     * the entry with its {@link TarXzIndex}, which is built on first use. Other archives are streamed from their start.
+     */
+    @Override
+    public ArchiveStream stream(File archive, String entryName) throws IOException {
+        TarEntryIndex index = readIndex(archive);
+        if (index == null) {
+            return Archiver.super.stream(archive, entryName);
+        }
+
+        InputStream tarStream = index.open(archive, entryName);
+        try {
+            return new EntrySeekingArchiveStream(
+                    new CommonsArchiveStream<>(CommonsStreamFactory.createArchiveInputStream(
+                            archiver, tarStream != null ? tarStream : InputStream.nullInputStream())),
+                    entryName);
+        } catch (ArchiveException e) {
+            if (tarStream != null) {
+                tarStream.close();
+            }
+            throw new IOException(e);
+        }
+    }
+
+    private TarEntryIndex readIndex(File archive) throws IOException {
+        CompressionType compressionType = compressor.getCompressionType();
+        if (archiver.getArchiveFormat() != ArchiveFormat.TAR
+                || (compressionType != CompressionType.GZIP && compressionType != CompressionType.XZ)) {
+            return null;
+        }
+
+        File key = archive.getAbsoluteFile();
+        TarEntryIndex index = indexes.get(key);
+        if (index == null || !index.isValidFor(archive)) {
+            index = compressionType == CompressionType.GZIP ? TarGzIndex.read(archive) : TarXzIndex.load(archive);
+            if (index != null) {
+                indexes.put(key, index);
+            } else {
+                indexes.remove(key);
+            }
+        }
+        return index;
+    }
+
     @Override
     public String getFilenameExtension() {
         return archiver.getFilenameExtension() + compressor.getFilenameExtension();
@@ -36,13 +36,27 @@ public final class ArchiverFactory {
      * @throws IllegalArgumentException if the given file is not a known archive
      */
     public static Archiver createArchiver(File archive) throws IllegalArgumentException {
+        return createArchiver(archive, CompressionOptions.DEFAULT);
+    }
+
+    /**
+     * Probes the given {@link File} for its file type and creates an {@link Archiver} based on this file type, tuned by
+     * the given {@link CompressionOptions}. If the File has a composite file extension such as ".tar.gz", the created
+     * {@link Archiver} will also handle ".gz" compression.
+     *
+     * @param archive the archive file to check.
+     * @param options the options to tune the compression with
+     * @return a new Archiver instance (that may also handle compression)
+     * @throws IllegalArgumentException if the given file is not a known archive
+     */
+    public static Archiver createArchiver(File archive, CompressionOptions options) throws IllegalArgumentException {
         FileType fileType = FileType.get(archive);
 
         if (fileType == FileType.UNKNOWN) {
             throw new IllegalArgumentException("Unknown file extension " + archive.getName());
         }
 
-        return createArchiver(fileType);
+        return createArchiver(fileType, options);
     }
 
     /**
@@ -53,14 +67,27 @@ public final class ArchiverFactory {
      * @return a new Archiver instance (that may also handle compression)
      */
     public static Archiver createArchiver(FileType fileType) {
+        return createArchiver(fileType, CompressionOptions.DEFAULT);
+    }
+
+    /**
+     * Creates an Archiver that handles the given {@link FileType}, tuned by the given {@link CompressionOptions}. The
+     * Archiver may handle compression inherently, if the {@link FileType} uses a compression type, such as ".tgz"
+     * might.
+     *
+     * @param fileType the file type
+     * @param options the options to tune the compression with
+     * @return a new Archiver instance (that may also handle compression)
+     */
+    public static Archiver createArchiver(FileType fileType, CompressionOptions options) {
         if (fileType == FileType.UNKNOWN) {
             throw new IllegalArgumentException("Unknown file type");
         }
 
         if (fileType.isArchive() && fileType.isCompressed()) {
-            return createArchiver(fileType.getArchiveFormat(), fileType.getCompressionType());
+            return createArchiver(fileType.getArchiveFormat(), fileType.getCompressionType(), options);
         } else if (fileType.isArchive()) {
-            return createArchiver(fileType.getArchiveFormat());
+            return createArchiver(fileType.getArchiveFormat(), options);
         } else {
             throw new IllegalArgumentException("Unknown archive file extension " + fileType);
         }
@@ -95,8 +122,23 @@ public final class ArchiverFactory {
      */
     public static <E extends ArchiveEntry> Archiver createArchiver(
             ArchiveFormat archiveFormat, CompressionType compression) {
-        CommonsArchiver<E> archiver = new CommonsArchiver<>(archiveFormat);
-        CommonsCompressor compressor = new CommonsCompressor(compression);
+        return createArchiver(archiveFormat, compression, CompressionOptions.DEFAULT);
+    }
+
+    /**
+     * Creates an Archiver for the given archive format that uses compression tuned by the given
+     * {@link CompressionOptions}, e.g. to compress on multiple threads.
+     *
+     * @param archiveFormat the archive format
+     * @param compression the compression algorithm
+     * @param options the options to tune the compression with
+     * @return a new Archiver instance that also handles compression
+     * @param <E> ArchiveEntry to be used
+     */
+    public static <E extends ArchiveEntry> Archiver createArchiver(
+            ArchiveFormat archiveFormat, CompressionType compression, CompressionOptions options) {
+        CommonsArchiver<E> archiver = new CommonsArchiver<>(archiveFormat, options);
+        CommonsCompressor compressor = new CommonsCompressor(compression, options);
 
         return new ArchiverCompressorDecorator<>(archiver, compressor);
     }
@@ -124,11 +166,49 @@ public final class ArchiverFactory {
      * @param <E> ArchiveEntry to be used
      */
     public static <E extends ArchiveEntry> Archiver createArchiver(ArchiveFormat archiveFormat) {
+        return createArchiver(archiveFormat, CompressionOptions.DEFAULT);
+    }
+
+    /**
+     * Creates an Archiver for the given archive format that compresses entries as tuned by the given
+     * {@link CompressionOptions}. Zip and jar archives are created and extracted on multiple threads if the options
+     * request it. Other formats read as a stream are then decoded on one thread while the extracted files are written
+     * on others.
+     *
+     * @param archiveFormat the archive format
+     * @param options the options to tune the compression of entries with
+     * @return a new Archiver instance
+     * @param <E> ArchiveEntry to be used
+     */
+    public static <E extends ArchiveEntry> Archiver createArchiver(
+            ArchiveFormat archiveFormat, CompressionOptions options) {
+        return createArchiver(archiveFormat, options, ReadOptions.DEFAULT);
+    }
+
+    /**
+     * Creates an Archiver for the given archive format that compresses entries as tuned by the given
+     * {@link CompressionOptions}, and reads archives with the entry cache and handle pool of the given
+     * {@link ReadOptions}. All formats serve {@link Archiver#readEntry(java.io.File, String)} from the
+     * {@link ReadOptions#getEntryCache() entry cache}, if there is one, and zip, jar and 7z files are opened from the
+     * {@link ReadOptions#getHandlePool() handle pool}, if there is one.
+     *
+     * @param archiveFormat the archive format
+     * @param options the options to tune the compression of entries with
+     * @param readOptions the options to read archives with
+     * @return a new Archiver instance
+     * @param <E> ArchiveEntry to be used
+     */
+    public static <E extends ArchiveEntry> Archiver createArchiver(
+            ArchiveFormat archiveFormat, CompressionOptions options, ReadOptions readOptions) {
         if (archiveFormat == ArchiveFormat.SEVEN_Z) {
-            return new SevenZArchiver();
+            return new SevenZArchiver(options, readOptions);
         } else if (archiveFormat == ArchiveFormat.ZIP) {
-            return new ZipFileArchiver();
+            return new ZipFileArchiver(ArchiveFormat.ZIP, options, readOptions);
+        } else if (archiveFormat == ArchiveFormat.JAR) {
+            return new ZipFileArchiver(ArchiveFormat.JAR, options, readOptions);
+        } else if (archiveFormat == ArchiveFormat.TAR) {
+            return new TarFileArchiver(options, readOptions);
         }
-        return new CommonsArchiver<E>(archiveFormat);
+        return new CommonsArchiver<E>(archiveFormat, options, readOptions);
     }
 }
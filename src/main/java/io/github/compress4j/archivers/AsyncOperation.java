@@ -0,0 +1,233 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import jakarta.annotation.Nonnull;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+
+/**
+ * An archiver or compressor operation running asynchronously, see {@link ArchiveFuture}. <br>
+ * The blocking archiver and compressor methods take no parameter for cancellation, so the operation is bound to the
+ * thread running it, and found by the code that writes outputs through {@link #current()}. Objects that write on other
+ * threads, such as an {@link ExtractionContext}, keep the operation of the thread that created them. On threads
+ * without an operation, {@link #NONE} is returned, which neither checks nor records anything.
+ */
+final class AsyncOperation {
+
+    /** The operation of blocking calls, which is never cancelled. */
+    static final AsyncOperation NONE = new AsyncOperation(null);
+
+    private static final ThreadLocal<AsyncOperation> CURRENT = new ThreadLocal<>();
+
+    private final ArchiveFuture<?> future;
+    private final Deque<File> outputs = new ConcurrentLinkedDeque<>();
+
+    private AsyncOperation(ArchiveFuture<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * Returns the operation run by the current thread.
+     *
+     * @return the current operation, or {@link #NONE} if the thread runs none
+     */
+    static AsyncOperation current() {
+        AsyncOperation operation = CURRENT.get();
+        return operation != null ? operation : NONE;
+    }
+
+    /**
+     * Runs the given task on the given executor as an operation. If the task fails, or the future is completed by
+     * other means before the task completes, the outputs recorded by the task are deleted.
+     *
+     * @param executor the executor to run the task on
+     * @param task the blocking task
+     * @return the future completed with the result of the task
+     * @param <T> the result type
+     */
+    static <T> ArchiveFuture<T> run(Executor executor, Task<T> task) {
+        ArchiveFuture<T> future = new ArchiveFuture<>();
+        AsyncOperation operation = new AsyncOperation(future);
+        try {
+            executor.execute(() -> operation.run(future, task));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private <T> void run(ArchiveFuture<T> future, Task<T> task) {
+        if (future.isDone()) {
+            return;
+        }
+
+        CURRENT.set(this);
+        try {
+            if (!future.complete(task.call())) {
+                deleteOutputs();
+            }
+        } catch (Exception | Error e) {
+            deleteOutputs();
+            future.completeExceptionally(e);
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Returns true if this is the operation of an asynchronous call.
+     *
+     * @return false for {@link #NONE}, true otherwise
+     */
+    boolean isAsync() {
+        return future != null;
+    }
+
+    /**
+     * Fails if the future of this operation is done, which for a running operation means that it was cancelled or
+     * timed out.
+     *
+     * @throws InterruptedIOException if the operation is to stop
+     */
+    void checkCancelled() throws InterruptedIOException {
+        if (future != null && future.isDone()) {
+            throw new InterruptedIOException("Operation was cancelled");
+        }
+    }
+
+    /**
+     * Records a file or directory written by this operation, to be deleted if the operation fails. Directories are
+     * recorded before the files inside them, and deleted after them.
+     *
+     * @param output the file or directory
+     */
+    void created(File output) {
+        if (future != null) {
+            outputs.addFirst(output);
+        }
+    }
+
+    /**
+     * Counts the given number of bytes as written by this operation.
+     *
+     * @param bytes the number of bytes written
+     */
+    void written(long bytes) {
+        if (future != null) {
+            future.addBytesWritten(bytes);
+        }
+    }
+
+    /**
+     * Returns a stream that checks for cancellation before every read of the given stream, and counts the bytes read
+     * as written. Used for streams that are copied into an output.
+     *
+     * @param in the stream to watch
+     * @return the watching stream, or the given stream for {@link #NONE}
+     */
+    InputStream watch(InputStream in) {
+        if (future == null) {
+            return in;
+        }
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                checkCancelled();
+                int b = super.read();
+                if (b != -1) {
+                    written(1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+                checkCancelled();
+                int read = in.read(b, off, len);
+                if (read > 0) {
+                    written(read);
+                }
+                return read;
+            }
+        };
+    }
+
+    /**
+     * Returns a stream that checks for cancellation before every write to the given stream, and counts the bytes
+     * written.
+     *
+     * @param out the stream to watch
+     * @return the watching stream, or the given stream for {@link #NONE}
+     */
+    OutputStream watch(OutputStream out) {
+        if (future == null) {
+            return out;
+        }
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                checkCancelled();
+                out.write(b);
+                written(1);
+            }
+
+            @Override
+            public void write(@Nonnull byte[] b, int off, int len) throws IOException {
+                checkCancelled();
+                out.write(b, off, len);
+                written(len);
+            }
+        };
+    }
+
+    private void deleteOutputs() {
+        File output;
+        while ((output = outputs.pollFirst()) != null) {
+            try {
+                Files.deleteIfExists(output.toPath());
+            } catch (IOException e) {
+                // e.g. a directory that also holds files of others, keep it
+            }
+        }
+    }
+
+    /**
+     * A blocking archiver or compressor call.
+     *
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    interface Task<T> {
+
+        /**
+         * Runs the call.
+         *
+         * @return the result of the call
+         * @throws IOException propagated I/O errors by {@code java.io}
+         */
+        T call() throws IOException;
+    }
+}
@@ -81,6 +81,29 @@ abstract class AttributeAccessor<E extends ArchiveEntry> {
         return (T) new FallbackAttributeAccessor(entry);
     }
 
+    /**
+     * Returns the unix file mode of the given ArchiveEntry. Behaves like {@code create(entry).getMode()} without
+     * allocating an accessor, for callers reading the mode of every entry of an archive.
+     *
+     * @param entry the entry to read the mode of
+     * @return unix file mode flags, or {@code 0} for entries without a mode
+     */
+    public static int getMode(ArchiveEntry entry) {
+        if (entry instanceof ArArchiveEntry) {
+            return ((ArArchiveEntry) entry).getMode();
+        } else if (entry instanceof ArjArchiveEntry) {
+            return ((ArjArchiveEntry) entry).getMode();
+        } else if (entry instanceof CpioArchiveEntry) {
+            return (int) ((CpioArchiveEntry) entry).getMode();
+        } else if (entry instanceof TarArchiveEntry) {
+            return ((TarArchiveEntry) entry).getMode();
+        } else if (entry instanceof ZipArchiveEntry) {
+            return ((ZipArchiveEntry) entry).getUnixMode();
+        }
+
+        return 0;
+    }
+
     public static class FallbackAttributeAccessor extends AttributeAccessor<ArchiveEntry> {
         protected FallbackAttributeAccessor(ArchiveEntry entry) {
             super(entry);
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes values of arbitrary bit length to an {@link OutputStream}, most significant bit first. Used to splice the
+ * bit-aligned blocks of bzip2 streams.
+ */
+final class BitWriter {
+
+    private final OutputStream out;
+
+    private long buffer;
+    private int count;
+
+    BitWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Reads up to 57 bits from the given byte array, most significant bit first.
+     *
+     * @param source the bytes to read from
+     * @param fromBit the index of the first bit to read
+     * @param length the number of bits to read
+     * @return the bits read, right-aligned
+     */
+    static long readBits(byte[] source, long fromBit, int length) {
+        long value = 0;
+        for (long bit = fromBit; bit < fromBit + length; bit++) {
+            value = (value << 1) | ((source[(int) (bit >>> 3)] >>> (7 - (bit & 7))) & 1);
+        }
+        return value;
+    }
+
+    /**
+     * Writes the lowest bits of the given value.
+     *
+     * @param length the number of bits to write, at most 56
+     * @param value the value holding the bits right-aligned
+     * @throws IOException if an I/O error occurs
+     */
+    void writeBits(int length, long value) throws IOException {
+        buffer = (buffer << length) | (value & ((1L << length) - 1));
+        count += length;
+        while (count >= 8) {
+            count -= 8;
+            out.write((int) (buffer >>> count));
+        }
+        buffer &= (1L << count) - 1;
+    }
+
+    /**
+     * Copies a range of bits from the given byte array.
+     *
+     * @param source the bytes to copy from
+     * @param fromBit the index of the first bit to copy
+     * @param length the number of bits to copy
+     * @throws IOException if an I/O error occurs
+     */
+    void writeBits(byte[] source, long fromBit, long length) throws IOException {
+        long bit = fromBit;
+        long end = fromBit + length;
+
+        while (bit < end && (bit & 7) != 0) {
+            writeBits(1, readBits(source, bit++, 1));
+        }
+        if (count == 0) {
+            int bytes = (int) ((end - bit) >>> 3);
+            out.write(source, (int) (bit >>> 3), bytes);
+            bit += bytes * 8L;
+        } else {
+            for (; end - bit >= 8; bit += 8) {
+                writeBits(8, source[(int) (bit >>> 3)]);
+            }
+        }
+        while (bit < end) {
+            writeBits(1, readBits(source, bit++, 1));
+        }
+    }
+
+    /**
+     * Pads the last partial byte with zero bits and writes it.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void alignToByte() throws IOException {
+        if (count > 0) {
+            writeBits(8 - count, 0);
+        }
+    }
+}
@@ -0,0 +1,672 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import jakarta.annotation.Nonnull;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.ZipException;
+
+/**
+ * Gzip decompressor stream that can record the decoder state at deflate block boundaries and resume decoding from such
+ * a checkpoint, in the manner of zlib's {@code zran} example. <br>
+ * {@link java.util.zip.Inflater} can neither report block boundaries nor start decoding at a bit offset, so this stream
+ * decodes deflate itself. A checkpoint holds the bit offset of a block in the compressed file, the number of bytes
+ * decoded before it and the last 32 KiB of those bytes, which is all the state the following blocks depend on.
+ * Concatenated gzip members are decoded as one stream, and the checksum of each member is verified unless decoding
+ * resumed within it.
+ */
+final class CheckpointInflaterInputStream extends InputStream {
+
+    /** Size of the deflate window, the largest distance a block may refer back to. */
+    static final int WINDOW_SIZE = 32 * 1024;
+
+    private static final int WINDOW_MASK = WINDOW_SIZE - 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_BITS = 15;
+    /** Number of bits looked up at once when decoding a Huffman code, like the root table of zlib's inflate. */
+    private static final int ROOT_BITS = 9;
+    private static final int MAX_LENGTH_CODES = 286;
+    private static final int MAX_DISTANCE_CODES = 30;
+    private static final int FIXED_LENGTH_CODES = 288;
+
+    private static final int[] LENGTH_BASE = {
+        3, 4, 5, 6, 7, 8, 9, 10, 11, 13, 15, 17, 19, 23, 27, 31, 35, 43, 51, 59, 67, 83, 99, 115, 131, 163, 195, 227,
+        258
+    };
+    private static final int[] LENGTH_EXTRA = {
+        0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 4, 5, 5, 5, 5, 0
+    };
+    private static final int[] DISTANCE_BASE = {
+        1, 2, 3, 4, 5, 7, 9, 13, 17, 25, 33, 49, 65, 97, 129, 193, 257, 385, 513, 769, 1025, 1537, 2049, 3073, 4097,
+        6145, 8193, 12289, 16385, 24577
+    };
+    private static final int[] DISTANCE_EXTRA = {
+        0, 0, 0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6, 7, 7, 8, 8, 9, 9, 10, 10, 11, 11, 12, 12, 13, 13
+    };
+    private static final int[] CODE_LENGTH_ORDER = {16, 17, 18, 0, 8, 7, 9, 6, 10, 5, 11, 4, 12, 3, 13, 2, 14, 1, 15};
+
+    private static final Huffman FIXED_LENGTHS;
+    private static final Huffman FIXED_DISTANCES;
+
+    static {
+        int[] lengths = new int[FIXED_LENGTH_CODES];
+        for (int symbol = 0; symbol < FIXED_LENGTH_CODES; symbol++) {
+            if (symbol < 144) {
+                lengths[symbol] = 8;
+            } else if (symbol < 256) {
+                lengths[symbol] = 9;
+            } else if (symbol < 280) {
+                lengths[symbol] = 7;
+            } else {
+                lengths[symbol] = 8;
+            }
+        }
+        int[] distances = new int[MAX_DISTANCE_CODES];
+        Arrays.fill(distances, 5);
+        try {
+            FIXED_LENGTHS = Huffman.of(lengths, 0, lengths.length);
+            FIXED_DISTANCES = Huffman.of(distances, 0, distances.length);
+        } catch (ZipException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private enum State {
+        MEMBER_HEADER,
+        BLOCK_HEADER,
+        STORED,
+        CODES,
+        MEMBER_TRAILER,
+        END
+    }
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferPosition;
+    private int bufferLength;
+
+    /** Offset in the compressed file of the next byte to be loaded into the bit buffer. */
+    private long position;
+
+    private long bitBuffer;
+    private int bitCount;
+
+    private final byte[] window = new byte[WINDOW_SIZE];
+    private long bytesDecoded;
+
+    private State state;
+    private boolean lastBlock;
+    private int storedRemaining;
+    private Huffman lengthCode;
+    private Huffman distanceCode;
+    private int copyLength;
+    private int copyDistance;
+
+    private final CRC32 crc = new CRC32();
+    private boolean verifyMember;
+    private long memberStart;
+
+    private CheckpointSink checkpointSink;
+    private long checkpointSpacing;
+    private long lastCheckpoint;
+
+    private boolean closed;
+
+    /**
+     * Creates a new stream decoding the given gzip data from its start.
+     *
+     * @param in the gzip data
+     */
+    CheckpointInflaterInputStream(InputStream in) {
+        this.in = in;
+        this.state = State.MEMBER_HEADER;
+    }
+
+    /**
+     * Creates a new stream that resumes decoding at the given checkpoint.
+     *
+     * @param in the gzip data, positioned at {@link Checkpoint#getOffset()}
+     * @param checkpoint the checkpoint to resume at
+     * @throws IOException if the gzip data can not be read
+     */
+    CheckpointInflaterInputStream(InputStream in, Checkpoint checkpoint) throws IOException {
+        this.in = in;
+        this.state = State.BLOCK_HEADER;
+        this.position = checkpoint.getOffset();
+        this.bytesDecoded = checkpoint.getBytesDecoded();
+        this.lastCheckpoint = bytesDecoded;
+
+        byte[] history = checkpoint.getWindow();
+        for (int i = 0; i < history.length; i++) {
+            window[(int) (bytesDecoded - history.length + i) & WINDOW_MASK] = history[i];
+        }
+        if (checkpoint.getBits() > 0) {
+            int b = nextByte();
+            if (b < 0) {
+                throw new EOFException("Unexpected end of gzip data at checkpoint");
+            }
+            bitBuffer = b >>> checkpoint.getBits();
+            bitCount = 8 - checkpoint.getBits();
+        }
+    }
+
+    /**
+     * Makes this stream pass a checkpoint to the given sink at the first block boundary after every
+     * {@code spacing} decoded bytes.
+     *
+     * @param spacing the minimum number of decoded bytes between two checkpoints
+     * @param sink the sink receiving the checkpoints
+     */
+    void recordCheckpoints(long spacing, CheckpointSink sink) {
+        this.checkpointSpacing = spacing;
+        this.checkpointSink = sink;
+    }
+
+    /**
+     * Returns the number of bytes decoded from the start of the gzip data, including those before the checkpoint this
+     * stream resumed at.
+     *
+     * @return the position of this stream in the decoded data
+     */
+    long getBytesDecoded() {
+        return bytesDecoded;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        int produced = 0;
+        int verified = 0;
+        while (produced < len && state != State.END) {
+            if (copyLength > 0) {
+                int n = Math.min(copyLength, len - produced);
+                for (int i = 0; i < n; i++) {
+                    byte value = window[(int) (bytesDecoded - copyDistance) & WINDOW_MASK];
+                    window[(int) bytesDecoded++ & WINDOW_MASK] = value;
+                    b[off + produced++] = value;
+                }
+                copyLength -= n;
+                continue;
+            }
+
+            switch (state) {
+                case MEMBER_HEADER:
+                    readMemberHeader();
+                    break;
+                case BLOCK_HEADER:
+                    readBlockHeader();
+                    break;
+                case STORED:
+                    produced += copyStored(b, off + produced, len - produced);
+                    break;
+                case CODES:
+                    int symbol = lengthCode.decode(this);
+                    if (symbol < 256) {
+                        window[(int) bytesDecoded++ & WINDOW_MASK] = (byte) symbol;
+                        b[off + produced++] = (byte) symbol;
+                    } else if (symbol == 256) {
+                        state = State.BLOCK_HEADER;
+                    } else {
+                        readCopy(symbol - 257);
+                    }
+                    break;
+                case MEMBER_TRAILER:
+                    updateCrc(b, off + verified, produced - verified);
+                    verified = produced;
+                    readMemberTrailer();
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected state " + state);
+            }
+        }
+
+        updateCrc(b, off + verified, produced - verified);
+        return produced == 0 ? -1 : produced;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] scratch = new byte[(int) Math.min(BUFFER_SIZE, Math.max(n, 0))];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(scratch, 0, (int) Math.min(scratch.length, n - skipped));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            in.close();
+        }
+    }
+
+    private void readMemberHeader() throws IOException {
+        if (bits(8) != 0x1f || bits(8) != 0x8b) {
+            throw new ZipException("Not in gzip format");
+        }
+        if (bits(8) != 8) {
+            throw new ZipException("Unsupported gzip compression method");
+        }
+        int flags = bits(8);
+        bits(16); // modification time
+        bits(16);
+        bits(8); // extra flags
+        bits(8); // operating system
+        if ((flags & 4) != 0) {
+            int length = bits(16);
+            for (int i = 0; i < length; i++) {
+                bits(8);
+            }
+        }
+        if ((flags & 8) != 0) {
+            skipZeroTerminated();
+        }
+        if ((flags & 16) != 0) {
+            skipZeroTerminated();
+        }
+        if ((flags & 2) != 0) {
+            bits(16); // header checksum
+        }
+
+        crc.reset();
+        verifyMember = true;
+        memberStart = bytesDecoded;
+        lastBlock = false;
+        state = State.BLOCK_HEADER;
+    }
+
+    private void skipZeroTerminated() throws IOException {
+        while (bits(8) != 0) {
+            // skip
+        }
+    }
+
+    private void readBlockHeader() throws IOException {
+        if (lastBlock) {
+            state = State.MEMBER_TRAILER;
+            return;
+        }
+        if (checkpointSink != null && bytesDecoded - lastCheckpoint >= checkpointSpacing) {
+            checkpointSink.add(checkpoint());
+            lastCheckpoint = bytesDecoded;
+        }
+
+        lastBlock = bits(1) == 1;
+        int type = bits(2);
+        if (type == 0) {
+            bits(bitCount & 7);
+            storedRemaining = bits(16);
+            if (bits(16) != (~storedRemaining & 0xffff)) {
+                throw new ZipException("Invalid stored block length in gzip data");
+            }
+            state = State.STORED;
+        } else if (type == 1) {
+            lengthCode = FIXED_LENGTHS;
+            distanceCode = FIXED_DISTANCES;
+            state = State.CODES;
+        } else if (type == 2) {
+            readDynamicCodes();
+            state = State.CODES;
+        } else {
+            throw new ZipException("Invalid block type in gzip data");
+        }
+    }
+
+    private Checkpoint checkpoint() {
+        long bitPosition = position * 8 - bitCount;
+        int length = (int) Math.min(bytesDecoded, WINDOW_SIZE);
+        byte[] history = new byte[length];
+        for (int i = 0; i < length; i++) {
+            history[i] = window[(int) (bytesDecoded - length + i) & WINDOW_MASK];
+        }
+        return new Checkpoint(bitPosition >>> 3, (int) (bitPosition & 7), bytesDecoded, history);
+    }
+
+    private void readDynamicCodes() throws IOException {
+        int lengthCount = bits(5) + 257;
+        int distanceCount = bits(5) + 1;
+        int codeLengthCount = bits(4) + 4;
+        if (lengthCount > MAX_LENGTH_CODES || distanceCount > MAX_DISTANCE_CODES) {
+            throw new ZipException("Too many length or distance codes in gzip data");
+        }
+
+        int[] codeLengths = new int[CODE_LENGTH_ORDER.length];
+        for (int i = 0; i < codeLengthCount; i++) {
+            codeLengths[CODE_LENGTH_ORDER[i]] = bits(3);
+        }
+        Huffman codeLengthCode = Huffman.of(codeLengths, 0, codeLengths.length);
+
+        int[] lengths = new int[lengthCount + distanceCount];
+        int index = 0;
+        while (index < lengths.length) {
+            int symbol = codeLengthCode.decode(this);
+            if (symbol < 16) {
+                lengths[index++] = symbol;
+                continue;
+            }
+
+            int length = 0;
+            int repeat;
+            if (symbol == 16) {
+                if (index == 0) {
+                    throw new ZipException("Repeated length without first length in gzip data");
+                }
+                length = lengths[index - 1];
+                repeat = 3 + bits(2);
+            } else if (symbol == 17) {
+                repeat = 3 + bits(3);
+            } else {
+                repeat = 11 + bits(7);
+            }
+            if (index + repeat > lengths.length) {
+                throw new ZipException("Too many code lengths in gzip data");
+            }
+            while (repeat-- > 0) {
+                lengths[index++] = length;
+            }
+        }
+        if (lengths[256] == 0) {
+            throw new ZipException("Missing end-of-block code in gzip data");
+        }
+
+        lengthCode = Huffman.of(lengths, 0, lengthCount);
+        distanceCode = Huffman.of(lengths, lengthCount, distanceCount);
+    }
+
+    private void readCopy(int lengthSymbol) throws IOException {
+        if (lengthSymbol >= LENGTH_BASE.length) {
+            throw new ZipException("Invalid length code in gzip data");
+        }
+        int length = LENGTH_BASE[lengthSymbol] + bits(LENGTH_EXTRA[lengthSymbol]);
+        int distanceSymbol = distanceCode.decode(this);
+        if (distanceSymbol >= MAX_DISTANCE_CODES) {
+            throw new ZipException("Invalid distance code in gzip data");
+        }
+        int distance = DISTANCE_BASE[distanceSymbol] + bits(DISTANCE_EXTRA[distanceSymbol]);
+        if (distance > bytesDecoded) {
+            throw new ZipException("Distance too far back in gzip data");
+        }
+        copyLength = length;
+        copyDistance = distance;
+    }
+
+    private int copyStored(byte[] b, int off, int len) throws IOException {
+        if (storedRemaining == 0) {
+            state = State.BLOCK_HEADER;
+            return 0;
+        }
+        if (bufferPosition == bufferLength && !fill()) {
+            throw new EOFException("Unexpected end of gzip data");
+        }
+
+        int n = Math.min(Math.min(storedRemaining, len), bufferLength - bufferPosition);
+        System.arraycopy(buffer, bufferPosition, b, off, n);
+        for (int i = 0; i < n; i++) {
+            window[(int) (bytesDecoded + i) & WINDOW_MASK] = b[off + i];
+        }
+        bufferPosition += n;
+        position += n;
+        bytesDecoded += n;
+        storedRemaining -= n;
+        return n;
+    }
+
+    private void readMemberTrailer() throws IOException {
+        bits(bitCount & 7);
+        long expectedCrc = bits(16) | (long) bits(16) << 16;
+        long expectedSize = bits(16) | (long) bits(16) << 16;
+        if (verifyMember
+                && (expectedCrc != crc.getValue() || expectedSize != ((bytesDecoded - memberStart) & 0xffffffffL))) {
+            throw new ZipException("Corrupt gzip trailer");
+        }
+
+        // another member may follow, anything else is trailing garbage and ignored like gzip does
+        int next = nextByte();
+        if (next == 0x1f) {
+            bitBuffer = next;
+            bitCount = 8;
+            state = State.MEMBER_HEADER;
+        } else {
+            state = State.END;
+        }
+    }
+
+    private void updateCrc(byte[] b, int off, int len) {
+        if (verifyMember && len > 0) {
+            crc.update(b, off, len);
+        }
+    }
+
+    /**
+     * Returns the next {@code n} bits of the compressed data, least significant bit first.
+     *
+     * @param n the number of bits to read, at most 16
+     * @return the bits read
+     * @throws IOException if the compressed data ends before
+     */
+    private int bits(int n) throws IOException {
+        while (bitCount < n) {
+            int b = nextByte();
+            if (b < 0) {
+                throw new EOFException("Unexpected end of gzip data");
+            }
+            bitBuffer |= (long) b << bitCount;
+            bitCount += 8;
+        }
+        int value = (int) (bitBuffer & ((1L << n) - 1));
+        bitBuffer >>>= n;
+        bitCount -= n;
+        return value;
+    }
+
+    /**
+     * Returns the next {@code n} bits of the compressed data without consuming them, if they are held by the bit
+     * buffer and the bytes buffered after it.
+     *
+     * @param n the number of bits to peek at, at most 16
+     * @return the bits, or -1 if not enough bytes are buffered
+     */
+    private int peekBits(int n) {
+        long peeked = bitBuffer;
+        int count = bitCount;
+        int next = bufferPosition;
+        while (count < n) {
+            if (next == bufferLength) {
+                return -1;
+            }
+            peeked |= (long) (buffer[next++] & 0xff) << count;
+            count += 8;
+        }
+        return (int) (peeked & ((1 << n) - 1));
+    }
+
+    private int nextByte() throws IOException {
+        if (bufferPosition == bufferLength && !fill()) {
+            return -1;
+        }
+        position++;
+        return buffer[bufferPosition++] & 0xff;
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer);
+        bufferPosition = 0;
+        bufferLength = Math.max(n, 0);
+        return n > 0;
+    }
+
+    /** Receives the checkpoints recorded while decoding. */
+    @FunctionalInterface
+    interface CheckpointSink {
+
+        /**
+         * Receives the next checkpoint.
+         *
+         * @param checkpoint the checkpoint
+         * @throws IOException if the checkpoint can not be stored
+         */
+        void add(Checkpoint checkpoint) throws IOException;
+    }
+
+    /** The state needed to resume decoding at a deflate block boundary. */
+    static final class Checkpoint {
+
+        private final long offset;
+        private final int bits;
+        private final long bytesDecoded;
+        private final byte[] window;
+
+        /**
+         * Creates a new checkpoint.
+         *
+         * @param offset the offset in the compressed file of the byte in which the block starts
+         * @param bits the number of bits of that byte that precede the block, 0 to 7
+         * @param bytesDecoded the number of bytes decoded before the block
+         * @param window the last bytes decoded before the block, at most {@value #WINDOW_SIZE}
+         */
+        Checkpoint(long offset, int bits, long bytesDecoded, byte[] window) {
+            this.offset = offset;
+            this.bits = bits;
+            this.bytesDecoded = bytesDecoded;
+            this.window = window;
+        }
+
+        long getOffset() {
+            return offset;
+        }
+
+        int getBits() {
+            return bits;
+        }
+
+        long getBytesDecoded() {
+            return bytesDecoded;
+        }
+
+        byte[] getWindow() {
+            return window;
+        }
+    }
+
+    /**
+     * A canonical Huffman code. Codes of up to {@value #ROOT_BITS} bits are decoded by a single lookup of the next
+     * {@value #ROOT_BITS} bits, longer codes one bit at a time like zlib's {@code puff}.
+     */
+    private static final class Huffman {
+
+        private final int[] count = new int[MAX_BITS + 1];
+        private final int[] symbol;
+        /** The symbol and length of the code starting with the index bits, or 0 for codes longer than the index. */
+        private final int[] table = new int[1 << ROOT_BITS];
+
+        private Huffman(int symbols) {
+            this.symbol = new int[symbols];
+        }
+
+        static Huffman of(int[] lengths, int offset, int symbols) throws ZipException {
+            Huffman huffman = new Huffman(symbols);
+            for (int i = 0; i < symbols; i++) {
+                huffman.count[lengths[offset + i]]++;
+            }
+
+            int left = 1;
+            for (int length = 1; length <= MAX_BITS; length++) {
+                left = (left << 1) - huffman.count[length];
+                if (left < 0) {
+                    throw new ZipException("Over-subscribed Huffman code in gzip data");
+                }
+            }
+
+            int[] offsets = new int[MAX_BITS + 1];
+            for (int length = 1; length < MAX_BITS; length++) {
+                offsets[length + 1] = offsets[length] + huffman.count[length];
+            }
+            for (int i = 0; i < symbols; i++) {
+                if (lengths[offset + i] != 0) {
+                    huffman.symbol[offsets[lengths[offset + i]]++] = i;
+                }
+            }
+            huffman.fillTable();
+            return huffman;
+        }
+
+        /**
+         * Enters the codes of up to {@value #ROOT_BITS} bits into the lookup table. Deflate stores codes most
+         * significant bit first, so each code is reversed to match the order of the bit buffer, and entered at every
+         * index it is a prefix of.
+         */
+        private void fillTable() {
+            int code = 0;
+            int index = 0;
+            for (int length = 1; length <= ROOT_BITS; length++) {
+                for (int i = 0; i < count[length]; i++, code++) {
+                    int reversed = Integer.reverse(code) >>> (32 - length);
+                    int entry = symbol[index++] << 4 | length;
+                    for (int j = reversed; j < table.length; j += 1 << length) {
+                        table[j] = entry;
+                    }
+                }
+                code <<= 1;
+            }
+        }
+
+        int decode(CheckpointInflaterInputStream stream) throws IOException {
+            int peeked = stream.peekBits(ROOT_BITS);
+            if (peeked >= 0 && table[peeked] != 0) {
+                int entry = table[peeked];
+                stream.bits(entry & 0xf);
+                return entry >>> 4;
+            }
+
+            int code = 0;
+            int first = 0;
+            int index = 0;
+            for (int length = 1; length <= MAX_BITS; length++) {
+                code |= stream.bits(1);
+                int n = count[length];
+                if (code - n < first) {
+                    return symbol[index + (code - first)];
+                }
+                index += n;
+                first = (first + n) << 1;
+                code <<= 1;
+            }
+            throw new ZipException("Invalid Huffman code in gzip data");
+        }
+    }
+}
@@ -27,9 +27,9 @@ class CommonsArchiveEntry implements ArchiveEntry {
     private final org.apache.commons.compress.archivers.ArchiveEntry entry;
 
     /** The {@link ArchiveStream} this entry belongs to. */
-    private final ArchiveStream stream;
+    private final CommonsArchiveStream<?> stream;
 
-    CommonsArchiveEntry(ArchiveStream stream, org.apache.commons.compress.archivers.ArchiveEntry entry) {
+    CommonsArchiveEntry(CommonsArchiveStream<?> stream, org.apache.commons.compress.archivers.ArchiveEntry entry) {
         this.stream = stream;
         this.entry = entry;
     }
@@ -62,7 +62,17 @@ class CommonsArchiveEntry implements ArchiveEntry {
     public File extract(File destination, CopyOption... options)
             throws IOException, IllegalStateException, IllegalArgumentException {
         assertState();
-        return IOUtils.copy(stream, destination, entry, options);
+        return stream.extract(entry, destination, options);
+    }
+
+    /**
+     * Returns the wrapped commons compress entry.
+     *
+     * @return the wrapped entry
+     */
+    org.apache.commons.compress.archivers.ArchiveEntry getEntry() {
+        assertState();
+        return entry;
     }
 
     private void assertState() {
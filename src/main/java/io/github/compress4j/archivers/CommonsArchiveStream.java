@@ -16,13 +16,22 @@
 package io.github.compress4j.archivers;
 
 import jakarta.annotation.Nonnull;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.CopyOption;
+import java.util.HashMap;
+import java.util.Map;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 
-/** {@link ArchiveStream} implementation that wraps a commons compress {@link ArchiveInputStream}. */
+/**
+ * {@link ArchiveStream} implementation that wraps a commons compress {@link ArchiveInputStream}. <br>
+ * The entries extracted into the same destination share one {@link ExtractionContext}, whose collected permissions and
+ * modification times are applied when the stream is closed.
+ */
 class CommonsArchiveStream<E extends org.apache.commons.compress.archivers.ArchiveEntry> extends ArchiveStream {
 
     private final ArchiveInputStream<E> stream;
+    private final Map<File, ExtractionContext> contexts = new HashMap<>();
 
     CommonsArchiveStream(ArchiveInputStream<E> stream) {
         this.stream = stream;
@@ -35,6 +44,25 @@ class CommonsArchiveStream<E extends org.apache.commons.compress.archivers.Archi
         return (next == null) ? null : new CommonsArchiveEntry(this, next);
     }
 
+    /**
+     * Extracts the data of the current entry into the given destination directory.
+     *
+     * @param entry the current entry
+     * @param destination the directory to extract the entry to
+     * @param options options specifying how the copy should be done
+     * @return the created file or directory
+     * @throws IOException if an I/O error occurs when reading or writing
+     */
+    File extract(org.apache.commons.compress.archivers.ArchiveEntry entry, File destination, CopyOption... options)
+            throws IOException {
+        ExtractionContext context = contexts.get(destination);
+        if (context == null) {
+            context = new ExtractionContext(destination);
+            contexts.put(destination, context);
+        }
+        return context.copy(this, entry, options);
+    }
+
     @Override
     public int read() throws IOException {
         return stream.read();
@@ -52,6 +80,10 @@ class CommonsArchiveStream<E extends org.apache.commons.compress.archivers.Archi
 
     @Override
     public void close() throws IOException {
+        for (ExtractionContext context : contexts.values()) {
+            context.applyMetadata();
+        }
+        contexts.clear();
         super.close();
         stream.close();
     }
@@ -18,16 +18,24 @@ package io.github.compress4j.archivers;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.CopyOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.zip.Deflater;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 
 /**
  * Implementation of an {@link Archiver} that uses {@link ArchiveStreamFactory} to generate archive streams by a given
@@ -37,12 +45,24 @@ import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 class CommonsArchiver<E extends ArchiveEntry> implements Archiver {
 
     private final ArchiveFormat archiveFormat;
+    private final CompressionOptions options;
+    private final ReadOptions readOptions;
 
     CommonsArchiver(ArchiveFormat archiveFormat) {
+        this(archiveFormat, CompressionOptions.DEFAULT);
+    }
+
+    CommonsArchiver(ArchiveFormat archiveFormat, CompressionOptions options) {
+        this(archiveFormat, options, ReadOptions.DEFAULT);
+    }
+
+    CommonsArchiver(ArchiveFormat archiveFormat, CompressionOptions options, ReadOptions readOptions) {
         this.archiveFormat = archiveFormat;
+        this.options = options;
+        this.readOptions = readOptions;
     }
 
-    private static String getRelativePath(File parent, File source) {
+    static String getRelativePath(File parent, File source) {
         return parent.toPath().toUri().relativize(source.toPath().toUri()).getPath();
     }
 
@@ -50,6 +70,24 @@ class CommonsArchiver<E extends ArchiveEntry> implements Archiver {
         return archiveFormat;
     }
 
+    /**
+     * Returns the options used to compress the entries of archive formats that compress each entry on its own.
+     *
+     * @return the compression options
+     */
+    public CompressionOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Returns the options holding the entry cache and the handle pool used to read archives.
+     *
+     * @return the read options
+     */
+    public ReadOptions getReadOptions() {
+        return readOptions;
+    }
+
     @Override
     public File create(String archive, File destination, File source) throws IOException {
         return create(archive, destination, IOUtils.filesContainedIn(source));
@@ -61,6 +99,7 @@ class CommonsArchiver<E extends ArchiveEntry> implements Archiver {
         IOUtils.requireDirectory(destination);
 
         File archiveFile = createNewArchiveFile(archive, getFilenameExtension(), destination);
+        AsyncOperation.current().created(archiveFile);
 
         try (ArchiveOutputStream<E> outputStream = createArchiveOutputStream(archiveFile)) {
             writeToArchive(sources, outputStream);
@@ -72,25 +111,126 @@ class CommonsArchiver<E extends ArchiveEntry> implements Archiver {
 
     @Override
     public void extract(File archive, File destination, CopyOption... options) throws IOException {
+        extract(archive, destination, EntryFilter.ALL, options);
+    }
+
+    @Override
+    public void extract(File archive, File destination, EntryFilter filter, CopyOption... options)
+            throws IOException {
         assertExtractSource(archive);
 
         IOUtils.requireDirectory(destination);
 
         try (ArchiveInputStream<?> input = createArchiveInputStream(archive)) {
-            extract(input, destination, options);
+            extract(input, destination, filter, options);
         }
     }
 
     @Override
     public void extract(InputStream archive, File destination, CopyOption... options) throws IOException {
-        extract(createArchiveInputStream(archive), destination, options);
+        extract(archive, destination, EntryFilter.ALL, options);
     }
 
-    private <T extends ArchiveEntry> void extract(ArchiveInputStream<T> input, File destination, CopyOption... options)
+    /**
+     * Extracts the entries of the given archive supplied as an input stream that are accepted by the given filter into
+     * the given destination directory. The data of rejected entries is skipped by the archive input stream.
+     *
+     * @param archive the archive contents as a stream
+     * @param destination the destination directory
+     * @param filter the filter selecting the entries to extract
+     * @param options options specifying how the copy should be done
+     * @throws IOException propagated I/O errors by {@code java.io}
+     */
+    void extract(InputStream archive, File destination, EntryFilter filter, CopyOption... options) throws IOException {
+        extract(createArchiveInputStream(archive), destination, filter, options);
+    }
+
+    private <T extends ArchiveEntry> void extract(
+            ArchiveInputStream<T> input, File destination, EntryFilter filter, CopyOption... options)
             throws IOException {
-        T entry;
+        ExtractionContext context = new ExtractionContext(destination);
+        if (getOptions().isParallel()) {
+            try (ExtractionPipeline pipeline = new ExtractionPipeline(context, getOptions())) {
+                T entry;
+                while ((entry = input.getNextEntry()) != null) {
+                    if (filter.accept(entry.getName())) {
+                        pipeline.extract(input, entry, options);
+                    }
+                }
+                pipeline.finish();
+            }
+        } else {
+            T entry;
+            while ((entry = input.getNextEntry()) != null) {
+                if (filter.accept(entry.getName())) {
+                    context.copy(input, entry, options);
+                }
+            }
+        }
+        context.applyMetadata();
+    }
+
+    @Override
+    public List<ArchiveEntryInfo> list(File archive) throws IOException {
+        assertExtractSource(archive);
+
+        try (ArchiveInputStream<?> input = createArchiveInputStream(archive)) {
+            return list(input);
+        }
+    }
+
+    /**
+     * Lists the metadata of the entries of the given archive supplied as an input stream. The entry data is skipped by
+     * the archive input stream.
+     *
+     * @param archive the archive contents as a stream
+     * @return the metadata of every entry of the archive
+     * @throws IOException propagated I/O errors by {@code java.io}
+     */
+    List<ArchiveEntryInfo> list(InputStream archive) throws IOException {
+        return list(createArchiveInputStream(archive));
+    }
+
+    private static List<ArchiveEntryInfo> list(ArchiveInputStream<?> input) throws IOException {
+        List<ArchiveEntryInfo> entries = new ArrayList<>();
+        ArchiveEntry entry;
         while ((entry = input.getNextEntry()) != null) {
-            IOUtils.copy(input, destination, entry, options);
+            entries.add(ArchiveEntryInfo.of(entry));
+        }
+        return entries;
+    }
+
+    @Override
+    public ByteBuffer readEntry(File archive, String entryName) throws IOException {
+        assertExtractSource(archive);
+
+        EntryCache cache = readOptions.getEntryCache();
+        if (cache != null) {
+            return cache.get(archive, entryName, () -> loadEntry(archive, entryName));
+        }
+
+        byte[] content = loadEntry(archive, entryName);
+        return content != null ? ByteBuffer.wrap(content).asReadOnlyBuffer() : null;
+    }
+
+    /**
+     * Reads the whole content of the first entry with the given name from the given archive file. Subclasses can
+     * override this to read the entry without reading the entries before it.
+     *
+     * @param archive the archive file to read from
+     * @param entryName the name of the entry to read
+     * @return the content of the entry, or null if the archive holds no such entry
+     * @throws IOException propagated I/O errors by {@code java.io}
+     */
+    byte[] loadEntry(File archive, String entryName) throws IOException {
+        try (ArchiveInputStream<?> input = createArchiveInputStream(archive)) {
+            ArchiveEntry entry;
+            while ((entry = input.getNextEntry()) != null) {
+                if (entry.getName().equals(entryName)) {
+                    return input.readAllBytes();
+                }
+            }
+            return null;
         }
     }
 
@@ -145,13 +285,34 @@ class CommonsArchiver<E extends ArchiveEntry> implements Archiver {
      * @throws IOException propagated IO exceptions
      */
     protected ArchiveOutputStream<E> createArchiveOutputStream(File archiveFile) throws IOException {
+        return createArchiveOutputStream(AsyncOperation.current().watch(new FileOutputStream(archiveFile)));
+    }
+
+    /**
+     * Returns a new ArchiveOutputStream that writes the archive into the given {@link OutputStream}. This allows the
+     * archive to be piped into another stream, e.g. a compressor, without an intermediate file. Zip and jar entries are
+     * deflated with the gzip level of the options, and written by a {@link ParallelZipArchiveOutputStream} if the
+     * options request more than one thread.
+     *
+     * @param out the stream to write the archive to
+     * @return a new ArchiveOutputStream writing to the given stream.
+     * @throws IOException propagated IO exceptions
+     */
+    @SuppressWarnings("unchecked")
+    protected ArchiveOutputStream<E> createArchiveOutputStream(OutputStream out) throws IOException {
+        if (options.isParallel() && (archiveFormat == ArchiveFormat.ZIP || archiveFormat == ArchiveFormat.JAR)) {
+            return (ArchiveOutputStream<E>) new ParallelZipArchiveOutputStream(
+                    out, options.getThreads(), archiveFormat == ArchiveFormat.JAR, getDeflateLevel());
+        }
+
         try {
-            ArchiveOutputStream<E> archiveOutputStream =
-                    CommonsStreamFactory.createArchiveOutputStream(this, archiveFile);
+            ArchiveOutputStream<E> archiveOutputStream = CommonsStreamFactory.createArchiveOutputStream(this, out);
 
             if (archiveOutputStream instanceof TarArchiveOutputStream) {
                 TarArchiveOutputStream tarArchiveOutputStream = (TarArchiveOutputStream) archiveOutputStream;
                 (tarArchiveOutputStream).setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            } else if (archiveOutputStream instanceof ZipArchiveOutputStream) {
+                ((ZipArchiveOutputStream) archiveOutputStream).setLevel(getDeflateLevel());
             }
 
             return archiveOutputStream;
@@ -160,6 +321,14 @@ class CommonsArchiver<E extends ArchiveEntry> implements Archiver {
         }
     }
 
+    /**
+     * Returns the level to deflate zip and jar entries with. Zip entries use the same deflate algorithm as gzip, so the
+     * gzip level of the options applies.
+     */
+    private int getDeflateLevel() {
+        return options.getLevel(CompressionType.GZIP, Deflater.NO_COMPRESSION, Deflater.BEST_COMPRESSION);
+    }
+
     /**
      * Asserts that the given File object is a readable file that can be used to extract from.
      *
@@ -202,21 +371,55 @@ class CommonsArchiver<E extends ArchiveEntry> implements Archiver {
 
     /**
      * Recursion entry point for {@link #writeToArchive(File, File[], ArchiveOutputStream)}. <br>
-     * Recursively writes all given source {@link File}s into the given {@link ArchiveOutputStream}.
+     * Recursively writes all given source {@link File}s into the given {@link ArchiveOutputStream}. If the options
+     * request more than one thread, the sources are walked and read ahead on worker threads.
      *
      * @param sources the files to write in to the archive
      * @param archive the archive to write into
      * @throws IOException when an I/O error occurs
      */
     protected void writeToArchive(File[] sources, ArchiveOutputStream<E> archive) throws IOException {
+        if (options.isParallel() && !(archive instanceof ParallelZipArchiveOutputStream)) {
+            assertSources(sources);
+            writeToArchiveWithPrefetching(sources, archive);
+            return;
+        }
+
+        for (File source : sources) {
+            assertSources(source);
+
+            writeToArchive(source.getParentFile(), new File[] {source}, archive);
+        }
+    }
+
+    private static void assertSources(File... sources) throws FileNotFoundException {
         for (File source : sources) {
             if (!source.exists()) {
                 throw new FileNotFoundException(source.getPath());
             } else if (!source.canRead()) {
                 throw new FileNotFoundException(source.getPath() + " (Permission denied)");
             }
+        }
+    }
 
-            writeToArchive(source.getParentFile(), new File[] {source}, archive);
+    /**
+     * Writes all given source {@link File}s into the given {@link ArchiveOutputStream} in the same order as
+     * {@link #writeToArchive(File, File[], ArchiveOutputStream)}, while a {@link PrefetchingSourceReader} walks the
+     * directories and reads the upcoming files ahead on worker threads.
+     *
+     * @param sources the files to write in to the archive
+     * @param archive the archive to write into
+     * @throws IOException when an I/O error occurs
+     */
+    private void writeToArchiveWithPrefetching(File[] sources, ArchiveOutputStream<E> archive) throws IOException {
+        try (PrefetchingSourceReader<E> reader =
+                new PrefetchingSourceReader<>(archive, sources, options.getThreads())) {
+            PrefetchingSourceReader.PrefetchedFile<E> file;
+            while ((file = reader.next()) != null) {
+                archive.putArchiveEntry(file.getEntry());
+                file.transferTo(archive);
+                archive.closeArchiveEntry();
+            }
         }
     }
 
@@ -243,7 +446,9 @@ class CommonsArchiver<E extends ArchiveEntry> implements Archiver {
 
     /**
      * Creates a new {@link ArchiveEntry} in the given {@link ArchiveOutputStream}, and copies the given {@link File}
-     * into the new entry.
+     * into the new entry. A {@link ParallelZipArchiveOutputStream} reads and compresses the file on a worker thread.
+     * Files reaching the {@link CompressionOptions#getMemoryMapThreshold() memory map threshold} are read through
+     * memory mappings.
      *
      * @param file the file to add to the archive
      * @param entryName the name of the archive entry
@@ -253,14 +458,28 @@ class CommonsArchiver<E extends ArchiveEntry> implements Archiver {
     protected void createArchiveEntry(File file, String entryName, ArchiveOutputStream<E> archive) throws IOException {
         E entry = archive.createArchiveEntry(file, entryName);
         // TODO #23: read permission from file, write it to the ArchiveEntry
+
+        if (archive instanceof ParallelZipArchiveOutputStream) {
+            ((ParallelZipArchiveOutputStream) archive).addArchiveEntry((ZipArchiveEntry) entry, file);
+            return;
+        }
+
         archive.putArchiveEntry(entry);
 
         if (!entry.isDirectory()) {
+            copyToArchive(file, archive);
+        }
+
+        archive.closeArchiveEntry();
+    }
+
+    private void copyToArchive(File file, OutputStream archive) throws IOException {
+        if (options.isMemoryMapped(file.length())) {
+            MemoryMappedFiles.transferTo(file, archive);
+        } else {
             try (FileInputStream input = new FileInputStream(file)) {
                 input.transferTo(archive);
             }
         }
-
-        archive.closeArchiveEntry();
     }
 }
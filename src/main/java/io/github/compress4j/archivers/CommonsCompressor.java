@@ -16,15 +16,15 @@
 package io.github.compress4j.archivers;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import org.apache.commons.compress.compressors.CompressorException;
-import org.apache.commons.compress.compressors.CompressorInputStream;
-import org.apache.commons.compress.compressors.CompressorOutputStream;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
 
 /**
@@ -35,15 +35,25 @@ import org.apache.commons.compress.compressors.CompressorStreamFactory;
 class CommonsCompressor implements Compressor {
 
     private final CompressionType compressionType;
+    private final CompressionOptions options;
 
     CommonsCompressor(CompressionType type) {
+        this(type, CompressionOptions.DEFAULT);
+    }
+
+    CommonsCompressor(CompressionType type, CompressionOptions options) {
         this.compressionType = type;
+        this.options = options;
     }
 
     public CompressionType getCompressionType() {
         return compressionType;
     }
 
+    public CompressionOptions getOptions() {
+        return options;
+    }
+
     @Override
     public void compress(File source, File destination) throws IllegalArgumentException, IOException {
         assertSource(source);
@@ -53,12 +63,14 @@ class CommonsCompressor implements Compressor {
             destination = new File(destination, getCompressedFilename(source));
         }
 
+        AsyncOperation operation = AsyncOperation.current();
+        operation.created(destination);
+        // buffered, as some compressors write their headers and trailers, or the whole stream in the case of bzip2, a
+        // byte at a time
         try (BufferedInputStream input = new BufferedInputStream(new FileInputStream(source));
-                CompressorOutputStream compressed =
-                        CommonsStreamFactory.createCompressorOutputStream(this, destination)) {
+                OutputStream output = new BufferedOutputStream(operation.watch(new FileOutputStream(destination)));
+                OutputStream compressed = compressingStream(output)) {
             input.transferTo(compressed);
-        } catch (CompressorException e) {
-            throw new IOException(e);
         }
     }
 
@@ -71,10 +83,25 @@ class CommonsCompressor implements Compressor {
             destination = new File(destination, getDecompressedFilename(source));
         }
 
-        try (CompressorInputStream compressed =
-                        CommonsStreamFactory.createCompressorInputStream(getCompressionType(), source);
-                FileOutputStream output = new FileOutputStream(destination); ) {
+        AsyncOperation operation = AsyncOperation.current();
+        operation.created(destination);
+        try (InputStream compressed = decompressingStream(source);
+                OutputStream output = operation.watch(new FileOutputStream(destination))) {
             compressed.transferTo(output);
+        }
+    }
+
+    /**
+     * Opens the given compressed file as a decompressing stream. Unlike {@link #decompressingStream(InputStream)} this
+     * has random access to the file, which allows formats with independent blocks to be decoded in parallel.
+     *
+     * @param source the compressed file
+     * @return a stream that decompresses the file on the fly
+     * @throws IOException an I/O error
+     */
+    InputStream decompressingStream(File source) throws IOException {
+        try {
+            return CommonsStreamFactory.createCompressorInputStream(this, source);
         } catch (CompressorException e) {
             throw new IOException(e);
         }
@@ -83,7 +110,23 @@ class CommonsCompressor implements Compressor {
     @Override
     public InputStream decompressingStream(InputStream compressedStream) throws IOException {
         try {
-            return CommonsStreamFactory.createCompressorInputStream(getCompressionType(), compressedStream);
+            return CommonsStreamFactory.createCompressorInputStream(this, compressedStream);
+        } catch (CompressorException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Wraps the given stream in a compressing stream tuned by the options of this compressor. Closing the returned
+     * stream finishes the compressed data and closes the given stream.
+     *
+     * @param destinationStream the stream to write the compressed data to
+     * @return a stream that compresses the data on the fly
+     * @throws IOException an I/O error
+     */
+    OutputStream compressingStream(OutputStream destinationStream) throws IOException {
+        try {
+            return CommonsStreamFactory.createCompressorOutputStream(this, destinationStream);
         } catch (CompressorException e) {
             throw new IOException(e);
         }
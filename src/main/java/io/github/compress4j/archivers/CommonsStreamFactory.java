@@ -23,6 +23,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.zip.Deflater;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
@@ -32,6 +33,9 @@ import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorInputStream;
 import org.apache.commons.compress.compressors.CompressorOutputStream;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
 
 /**
  * Wraps the two commons-compress factory types {@link CompressorFactory} and {@link ArchiveStreamFactory} into a
@@ -112,6 +116,20 @@ final class CommonsStreamFactory {
         return createArchiveOutputStream(archiver.getArchiveFormat(), archive);
     }
 
+    /**
+     * Uses the {@link ArchiveStreamFactory} and the name of the given archiver to create a new
+     * {@link ArchiveOutputStream} writing to the given {@link OutputStream}.
+     *
+     * @param archiver the invoking archiver
+     * @param out the stream to write the archive to
+     * @return a new {@link ArchiveOutputStream}
+     * @throws ArchiveException if the archiver name is not known
+     */
+    static <E extends ArchiveEntry> ArchiveOutputStream<E> createArchiveOutputStream(
+            CommonsArchiver<E> archiver, OutputStream out) throws ArchiveException {
+        return createArchiveOutputStream(archiver.getArchiveFormat().getName(), out);
+    }
+
     /**
      * Uses the {@link CompressorStreamFactory} to create a new {@link CompressorInputStream} for the given source
      * {@link File}.
@@ -139,9 +157,70 @@ final class CommonsStreamFactory {
         return createCompressorInputStream(type, new BufferedInputStream(new FileInputStream(source)));
     }
 
+    /**
+     * Creates a new decompressing stream for the given source {@link File}, honouring the options of the given
+     * compressor. If the options request more than one thread and the file consists of independently decodable blocks,
+     * the blocks are decoded in parallel. Otherwise, the {@link CompressorStreamFactory} is used to create a
+     * {@link CompressorInputStream}.
+     *
+     * @param compressor the invoking compressor
+     * @param source the compressed file
+     * @return a new decompressing {@link InputStream}
+     * @throws IOException if an I/O error occurs
+     * @throws CompressorException if the compressor name is not known
+     */
+    static InputStream createCompressorInputStream(CommonsCompressor compressor, File source)
+            throws IOException, CompressorException {
+        CompressionOptions options = compressor.getOptions();
+
+        if (options.isParallel() && compressor.getCompressionType() == CompressionType.XZ) {
+            ArchiverDependencyChecker.checkXZ();
+            InputStream parallel = ParallelXZCompressorInputStream.open(source, options);
+            if (parallel != null) {
+                return parallel;
+            }
+        }
+
+        return createCompressorInputStream(compressor, new BufferedInputStream(new FileInputStream(source)));
+    }
+
+    /**
+     * Creates a new decompressing stream reading from the given {@link InputStream}, honouring the options of the
+     * given compressor. If the options request more than one thread and the blocks of the compression type can be
+     * located without random access, the blocks are decoded in parallel. Zstandard streams are created through zstd-jni
+     * directly, so that the long distance matching window of the options is accepted. Otherwise, the
+     * {@link CompressorStreamFactory} is used to create a {@link CompressorInputStream}.
+     *
+     * @param compressor the invoking compressor
+     * @param in the compressed stream
+     * @return a new decompressing {@link InputStream}
+     * @throws IOException if an I/O error occurs
+     * @throws CompressorException if the compressor name is not known
+     */
+    static InputStream createCompressorInputStream(CommonsCompressor compressor, InputStream in)
+            throws IOException, CompressorException {
+        CompressionOptions options = compressor.getOptions();
+
+        if (compressor.getCompressionType() == CompressionType.ZSTANDARD) {
+            ArchiverDependencyChecker.checkZstd();
+            return ZstdCompressorStreams.createInputStream(in, options);
+        }
+
+        if (options.isParallel() && compressor.getCompressionType() == CompressionType.BZIP2) {
+            int threads = options.getThreads(ParallelBZip2CompressorInputStream.MEMORY_PER_THREAD);
+            if (threads > 1) {
+                return new ParallelBZip2CompressorInputStream(in, threads);
+            }
+        }
+
+        return createCompressorInputStream(compressor.getCompressionType(), in);
+    }
+
     /** @see CompressorStreamFactory#createCompressorInputStream(String, java.io.InputStream) */
     static CompressorInputStream createCompressorInputStream(CompressionType compressionType, InputStream in)
             throws CompressorException {
+        ArchiverDependencyChecker.check(compressionType.getName());
+
         return compressorStreamFactory.createCompressorInputStream(compressionType.getName(), in);
     }
 
@@ -156,18 +235,78 @@ final class CommonsStreamFactory {
     }
 
     /**
-     * Uses the {@link CompressorStreamFactory} and the name of the given compressor to create a new
-     * {@link CompressorOutputStream} for the given destination {@link File}.
+     * Creates a new compressing stream writing to the given {@link OutputStream}, tuned by the options of the given
+     * compressor. Zstandard streams are created through zstd-jni directly, which compresses on native worker threads if
+     * the options request more than one thread. If the options request more than one thread and a parallel
+     * implementation exists for another compression type, the parallel stream is returned. Gzip, bzip2 and XZ streams
+     * are created with the level, block size and dictionary size of the options. Otherwise, the
+     * {@link CompressorStreamFactory} is used to create a {@link CompressorOutputStream}.
      *
      * @param compressor the invoking compressor
-     * @param destination the file to create the {@link CompressorOutputStream} for
-     * @return a new {@link CompressorOutputStream}
+     * @param out the stream to write the compressed data to
+     * @return a new compressing {@link OutputStream}
      * @throws IOException if an I/O error occurs
-     * @throws CompressorException if the compressor name is not known
+     * @throws CompressorException if the compressor name is not known, or the compression type can only be
+     *     decompressed
      */
-    static CompressorOutputStream createCompressorOutputStream(CommonsCompressor compressor, File destination)
+    static OutputStream createCompressorOutputStream(CommonsCompressor compressor, OutputStream out)
             throws IOException, CompressorException {
-        return createCompressorOutputStream(compressor.getCompressionType(), destination);
+        CompressionOptions options = compressor.getOptions();
+
+        switch (compressor.getCompressionType()) {
+            case BROTLI:
+                throw new CompressorException(
+                        "Brotli compression is not supported, Brotli files can only be decompressed");
+            case ZSTANDARD:
+                ArchiverDependencyChecker.checkZstd();
+                return ZstdCompressorStreams.createOutputStream(out, options);
+            case GZIP:
+                return createGzipCompressorOutputStream(out, options);
+            case BZIP2:
+                return createBZip2CompressorOutputStream(out, options);
+            case XZ:
+                ArchiverDependencyChecker.checkXZ();
+                return XZCompressorStreams.createOutputStream(out, options);
+            case LZ4_FRAMED:
+                if (options.isParallel()) {
+                    return new ParallelLZ4CompressorOutputStream(
+                            out, options.getThreads(ParallelLZ4CompressorOutputStream.MEMORY_PER_THREAD));
+                }
+                break;
+            default:
+                break;
+        }
+
+        return createCompressorOutputStream(compressor.getCompressionType().getName(), out);
+    }
+
+    private static OutputStream createGzipCompressorOutputStream(OutputStream out, CompressionOptions options)
+            throws IOException {
+        int level = options.getLevel(CompressionType.GZIP, Deflater.NO_COMPRESSION, Deflater.BEST_COMPRESSION);
+
+        if (options.isParallel()) {
+            int blockSize = options.getBlockSize() > 0
+                    ? options.getBlockSize()
+                    : ParallelGzipCompressorOutputStream.DEFAULT_BLOCK_SIZE;
+            return new ParallelGzipCompressorOutputStream(out, options.getThreads(), blockSize, level);
+        }
+
+        GzipParameters parameters = new GzipParameters();
+        parameters.setCompressionLevel(level);
+        return new GzipCompressorOutputStream(out, parameters);
+    }
+
+    private static OutputStream createBZip2CompressorOutputStream(OutputStream out, CompressionOptions options)
+            throws IOException {
+        int blockSize100k = options.getLevel(
+                CompressionType.BZIP2,
+                BZip2CompressorOutputStream.MIN_BLOCKSIZE,
+                BZip2CompressorOutputStream.MAX_BLOCKSIZE);
+
+        if (options.isParallel()) {
+            return new ParallelBZip2CompressorOutputStream(out, options.getThreads(), blockSize100k);
+        }
+        return new BZip2CompressorOutputStream(out, blockSize100k);
     }
 
     /** @see CompressorStreamFactory#createCompressorOutputStream(String, OutputStream) */
@@ -0,0 +1,371 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.util.OptionalInt;
+
+/**
+ * Tuning options for a {@link Compressor}. Instances are immutable and created with {@link #builder()}. <br>
+ * The defaults reproduce the behaviour of the underlying commons-compress streams, so passing {@link #DEFAULT} is the
+ * same as passing no options at all.
+ */
+public final class CompressionOptions {
+
+    /** Options that use the commons-compress defaults and a single thread. */
+    public static final CompressionOptions DEFAULT = builder().build();
+
+    /** Smallest window log accepted by {@link Builder#setLongDistanceMatching(int)}. */
+    public static final int MIN_WINDOW_LOG = 10;
+
+    /** Largest window log accepted by {@link Builder#setLongDistanceMatching(int)}. */
+    public static final int MAX_WINDOW_LOG = 31;
+
+    private final int threads;
+    private final long memoryBudget;
+    private final Integer level;
+    private final CompressionProfile profile;
+    private final int blockSize;
+    private final int dictionarySize;
+    private final int longDistanceWindowLog;
+    private final long memoryMapThreshold;
+
+    private CompressionOptions(Builder builder) {
+        this.threads = builder.threads;
+        this.memoryBudget = builder.memoryBudget;
+        this.level = builder.level;
+        this.profile = builder.profile;
+        this.blockSize = builder.blockSize;
+        this.dictionarySize = builder.dictionarySize;
+        this.longDistanceWindowLog = builder.longDistanceWindowLog;
+        this.memoryMapThreshold = builder.memoryMapThreshold;
+    }
+
+    /**
+     * Creates a new builder initialised with the default options.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the number of threads a single operation may use, see {@link Builder#setThreads(int)}. A value of 1
+     * means the single-threaded commons-compress streams and archivers are used.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns true if these options request compression on more than one thread.
+     *
+     * @return true if more than one thread is requested, false otherwise
+     */
+    public boolean isParallel() {
+        return threads > 1;
+    }
+
+    /**
+     * Returns the number of bytes of heap that parallel compression and decompression may use for coder state and
+     * in-flight blocks. The number of threads is reduced so that this budget is respected. Unless set explicitly, the
+     * budget is half of the maximum heap size.
+     *
+     * @return the memory budget in bytes
+     */
+    public long getMemoryBudget() {
+        return memoryBudget > 0 ? memoryBudget : Runtime.getRuntime().maxMemory() / 2;
+    }
+
+    /**
+     * Returns the compression level, if one was set. Its range depends on the compression type:
+     *
+     * <ul>
+     *   <li>gzip, and the entries of zip and jar archives: 0 to 9
+     *   <li>bzip2: 1 to 9, the block size in units of 100k
+     *   <li>XZ: the preset, 0 to 9
+     *   <li>Zstandard: negative levels for faster compression, up to 22 for better ratios
+     * </ul>
+     *
+     * If empty, the level of the {@link #getProfile() profile} is used.
+     *
+     * @return the compression level, or empty to use the level of the profile
+     */
+    public OptionalInt getLevel() {
+        return level != null ? OptionalInt.of(level) : OptionalInt.empty();
+    }
+
+    /**
+     * Returns the profile that determines the level of compression types for which no level was set explicitly.
+     *
+     * @return the compression profile, {@link CompressionProfile#BALANCED} by default
+     */
+    public CompressionProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Returns the size of the uncompressed blocks that parallel gzip and XZ streams compress independently, or 0 to
+     * use the default of the compression type. Larger blocks compress slightly better, smaller blocks keep more threads
+     * busy on small inputs.
+     *
+     * @return the block size in bytes, or 0 for the default block size
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Returns the size of the XZ dictionary, or 0 to use the dictionary size of the preset.
+     *
+     * @return the dictionary size in bytes, or 0 for the dictionary size of the preset
+     */
+    public int getDictionarySize() {
+        return dictionarySize;
+    }
+
+    /**
+     * Returns the base 2 logarithm of the window used for long distance matching, or 0 if long distance matching is
+     * disabled. Only Zstandard supports long distance matching, which finds repetitions far apart in large inputs.
+     *
+     * @return the window log, or 0 if long distance matching is disabled
+     */
+    public int getLongDistanceWindowLog() {
+        return longDistanceWindowLog;
+    }
+
+    /**
+     * Returns the size from which files added to an archive are read through memory mappings rather than a stream, or
+     * 0 if files are never memory-mapped.
+     *
+     * @return the memory map threshold in bytes, or 0 if memory mapping is disabled
+     */
+    public long getMemoryMapThreshold() {
+        return memoryMapThreshold;
+    }
+
+    /**
+     * Returns true if a file of the given size is to be read through memory mappings.
+     *
+     * @param size the size of the file in bytes
+     * @return true if memory mapping is enabled and the file is at least as large as the threshold
+     */
+    boolean isMemoryMapped(long size) {
+        return memoryMapThreshold > 0 && size >= memoryMapThreshold;
+    }
+
+    /**
+     * Returns the level to use with the given compression type: the level set explicitly, or the level of the profile.
+     *
+     * @param type the compression type
+     * @param minLevel the smallest level the compression type accepts
+     * @param maxLevel the largest level the compression type accepts
+     * @return the compression level
+     * @throws IllegalArgumentException if the level is out of the given range
+     */
+    int getLevel(CompressionType type, int minLevel, int maxLevel) {
+        int resolved = level != null ? level : profile.getLevel(type);
+        if (resolved < minLevel || resolved > maxLevel) {
+            throw new IllegalArgumentException(
+                    type + " level must be between " + minLevel + " and " + maxLevel + ", was " + resolved);
+        }
+        return resolved;
+    }
+
+    /**
+     * Returns the number of threads that fit into the memory budget, given the memory needed per thread. The result is
+     * at least 1 and at most {@link #getThreads()}.
+     *
+     * @param memoryPerThread the number of bytes a single thread needs
+     * @return the number of threads to use
+     */
+    int getThreads(long memoryPerThread) {
+        long affordable = getMemoryBudget() / Math.max(1, memoryPerThread);
+        return (int) Math.max(1, Math.min(threads, affordable));
+    }
+
+    /** Builder for {@link CompressionOptions}. */
+    public static final class Builder {
+
+        private int threads = 1;
+        private long memoryBudget;
+        private Integer level;
+        private CompressionProfile profile = CompressionProfile.BALANCED;
+        private int blockSize;
+        private int dictionarySize;
+        private int longDistanceWindowLog;
+        private long memoryMapThreshold;
+
+        private Builder() {}
+
+        /**
+         * Sets the number of threads a single operation may use. The value is used for:
+         *
+         * <ul>
+         *   <li>the compression threads of the formats with a parallel implementation, and the decompression threads
+         *       of bzip2 and XZ streams, as far as the memory budget allows;
+         *   <li>the workers extracting the entries of zip and jar files, each worker writing other files;
+         *   <li>the workers reading the source files ahead while an archive is created, and the threads deflating the
+         *       entries of zip and jar archives;
+         *   <li>the writer threads of {@code ExtractionPipeline}, which write the decoded entries of an archive
+         *       stream while the next entries are decoded.
+         * </ul>
+         *
+         * Formats and operations without a parallel implementation ignore this setting. <br>
+         * An archiver for a compressed archive, see
+         * {@link ArchiverFactory#createArchiver(ArchiveFormat, CompressionType, CompressionOptions)}, is an
+         * {@code ArchiverCompressorDecorator} that applies the same options to both the archiver and the compressor.
+         * As both run at once, e.g. the archive is decompressed while its entries are written, such an operation can
+         * use more than {@code threads} threads in total.
+         *
+         * @param threads the number of threads, at least 1
+         * @return this builder
+         * @throws IllegalArgumentException if threads is less than 1
+         */
+        public Builder setThreads(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("Threads must be at least 1, was " + threads);
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Sets the number of bytes of heap that parallel compression and decompression may use. This mostly matters
+         * for XZ, where each LZMA2 encoder needs tens to hundreds of megabytes.
+         *
+         * @param memoryBudget the memory budget in bytes
+         * @return this builder
+         * @throws IllegalArgumentException if the memory budget is not positive
+         */
+        public Builder setMemoryBudget(long memoryBudget) {
+            if (memoryBudget <= 0) {
+                throw new IllegalArgumentException("Memory budget must be positive, was " + memoryBudget);
+            }
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+
+        /**
+         * Sets the compression level, overriding the level of the profile. The level must be in the range the
+         * compression type accepts, see {@link CompressionOptions#getLevel()}. Formats without levels ignore this
+         * setting.
+         *
+         * @param level the compression level
+         * @return this builder
+         */
+        public Builder setLevel(int level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets the profile that determines the level of compression types for which no level is set explicitly.
+         *
+         * @param profile the compression profile
+         * @return this builder
+         * @throws IllegalArgumentException if profile is null
+         */
+        public Builder setProfile(CompressionProfile profile) {
+            if (profile == null) {
+                throw new IllegalArgumentException("Profile is null");
+            }
+            this.profile = profile;
+            return this;
+        }
+
+        /**
+         * Sets the size of the uncompressed blocks that parallel gzip and XZ streams compress independently. Other
+         * formats ignore this setting.
+         *
+         * @param blockSize the block size in bytes
+         * @return this builder
+         * @throws IllegalArgumentException if the block size is not positive
+         */
+        public Builder setBlockSize(int blockSize) {
+            if (blockSize <= 0) {
+                throw new IllegalArgumentException("Block size must be positive, was " + blockSize);
+            }
+            this.blockSize = blockSize;
+            return this;
+        }
+
+        /**
+         * Sets the size of the XZ dictionary, overriding the dictionary size of the preset. Larger dictionaries find
+         * repetitions further apart, at the cost of memory in both the encoder and the decoder. Other formats ignore
+         * this setting, Zstandard uses {@link #setLongDistanceMatching(int)} instead.
+         *
+         * @param dictionarySize the dictionary size in bytes
+         * @return this builder
+         * @throws IllegalArgumentException if the dictionary size is not positive
+         */
+        public Builder setDictionarySize(int dictionarySize) {
+            if (dictionarySize <= 0) {
+                throw new IllegalArgumentException("Dictionary size must be positive, was " + dictionarySize);
+            }
+            this.dictionarySize = dictionarySize;
+            return this;
+        }
+
+        /**
+         * Enables long distance matching with a window of {@code 2^windowLog} bytes. Windows larger than 128 MiB
+         * ({@code windowLog} 27) need as much memory for decompression, so they must be passed to the decompressor
+         * with the same options. Formats without long distance matching ignore this setting.
+         *
+         * @param windowLog the base 2 logarithm of the window size, between {@value #MIN_WINDOW_LOG} and
+         *     {@value #MAX_WINDOW_LOG}
+         * @return this builder
+         * @throws IllegalArgumentException if windowLog is out of range
+         */
+        public Builder setLongDistanceMatching(int windowLog) {
+            if (windowLog < MIN_WINDOW_LOG || windowLog > MAX_WINDOW_LOG) {
+                throw new IllegalArgumentException("Window log must be between " + MIN_WINDOW_LOG + " and "
+                        + MAX_WINDOW_LOG + ", was " + windowLog);
+            }
+            this.longDistanceWindowLog = windowLog;
+            return this;
+        }
+
+        /**
+         * Enables reading files of at least the given size through memory mappings when they are added to an archive.
+         * Mapping large files saves the {@code read} calls and the copy from the page cache into a stream buffer, which
+         * matters for files of many gigabytes. Smaller files are read through a stream, as setting up the mappings
+         * costs more than it saves for them. Only archives created on a single thread use this setting.
+         *
+         * @param memoryMapThreshold the size in bytes from which files are memory-mapped
+         * @return this builder
+         * @throws IllegalArgumentException if the threshold is not positive
+         */
+        public Builder setMemoryMapThreshold(long memoryMapThreshold) {
+            if (memoryMapThreshold <= 0) {
+                throw new IllegalArgumentException("Memory map threshold must be positive, was " + memoryMapThreshold);
+            }
+            this.memoryMapThreshold = memoryMapThreshold;
+            return this;
+        }
+
+        /**
+         * Creates the {@link CompressionOptions} from the values of this builder.
+         *
+         * @return new compression options
+         */
+        public CompressionOptions build() {
+            return new CompressionOptions(this);
+        }
+    }
+}
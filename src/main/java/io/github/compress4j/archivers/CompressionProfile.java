@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+/**
+ * Named trade-offs between compression speed and ratio. A profile is resolved to a level of each compression type, so
+ * the same {@link CompressionOptions} can be used for any of them. A level set explicitly with
+ * {@link CompressionOptions.Builder#setLevel(int)} takes precedence over the profile.
+ */
+public enum CompressionProfile {
+
+    /** Favours speed over ratio: gzip level 1, bzip2 100k blocks, XZ preset 0 and Zstandard level 1. */
+    FASTEST(1, 1, 0, 1),
+    /** The default levels of the compression types: gzip level 6, bzip2 900k blocks, XZ preset 6, Zstandard level 3. */
+    BALANCED(6, 9, 6, 3),
+    /** Favours ratio over speed: gzip level 9, bzip2 900k blocks, XZ preset 9 and Zstandard level 19. */
+    SMALLEST(9, 9, 9, 19);
+
+    private final int gzipLevel;
+    private final int bzip2Level;
+    private final int xzLevel;
+    private final int zstdLevel;
+
+    CompressionProfile(int gzipLevel, int bzip2Level, int xzLevel, int zstdLevel) {
+        this.gzipLevel = gzipLevel;
+        this.bzip2Level = bzip2Level;
+        this.xzLevel = xzLevel;
+        this.zstdLevel = zstdLevel;
+    }
+
+    /**
+     * Returns the level this profile stands for with the given compression type.
+     *
+     * @param type the compression type
+     * @return the level of the compression type
+     * @throws IllegalArgumentException if the compression type has no levels
+     */
+    int getLevel(CompressionType type) {
+        switch (type) {
+            case GZIP:
+                return gzipLevel;
+            case BZIP2:
+                return bzip2Level;
+            case XZ:
+                return xzLevel;
+            case ZSTANDARD:
+                return zstdLevel;
+            default:
+                throw new IllegalArgumentException("Compression type " + type + " has no levels");
+        }
+    }
+}
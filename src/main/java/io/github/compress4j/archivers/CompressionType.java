@@ -27,7 +27,15 @@ public enum CompressionType {
     /** Constant used to identify the XZ compression algorithm. */
     XZ(CompressorStreamFactory.XZ, ".xz"),
     /** Constant used to identify the PACK200 compression algorithm. */
-    PACK200(CompressorStreamFactory.PACK200, ".pack");
+    PACK200(CompressorStreamFactory.PACK200, ".pack"),
+    /** Constant used to identify the LZ4 frame format. */
+    LZ4_FRAMED(CompressorStreamFactory.LZ4_FRAMED, ".lz4"),
+    /** Constant used to identify the framed Snappy format. */
+    SNAPPY_FRAMED(CompressorStreamFactory.SNAPPY_FRAMED, ".sz"),
+    /** Constant used to identify the Brotli compression algorithm, which can only be decompressed. */
+    BROTLI(CompressorStreamFactory.BROTLI, ".br"),
+    /** Constant used to identify the Zstandard compression algorithm. */
+    ZSTANDARD(CompressorStreamFactory.ZSTANDARD, ".zst");
 
     /** The name by which the compression algorithm is identified */
     private final String name;
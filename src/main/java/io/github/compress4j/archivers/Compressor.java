@@ -18,6 +18,8 @@ package io.github.compress4j.archivers;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
 
 /** A compressor facades a specific compression library, allowing for simple compression and decompression of files. */
 public interface Compressor {
@@ -48,6 +50,69 @@ public interface Compressor {
      */
     void decompress(File source, File destination) throws IllegalArgumentException, IOException;
 
+    /**
+     * Compresses the given input file to the given destination directory or file. Behaves like
+     * {@link #compress(File, File)}.
+     *
+     * @param source the source file to compress
+     * @param destination the destination file
+     * @throws IllegalArgumentException if the source is not readable or the destination is not writable, or if a
+     *     path is not associated with the default file system
+     * @throws IOException when an I/O error occurs
+     */
+    default void compress(Path source, Path destination) throws IllegalArgumentException, IOException {
+        compress(IOUtils.toFile(source), IOUtils.toFile(destination));
+    }
+
+    /**
+     * Decompresses the given source file to the given destination directory or file. Behaves like
+     * {@link #decompress(File, File)}.
+     *
+     * @param source the compressed source file to decompress
+     * @param destination the destination file
+     * @throws IllegalArgumentException if the source is not readable or the destination is not writable, or if a
+     *     path is not associated with the default file system
+     * @throws IOException when an I/O error occurs
+     */
+    default void decompress(Path source, Path destination) throws IllegalArgumentException, IOException {
+        decompress(IOUtils.toFile(source), IOUtils.toFile(destination));
+    }
+
+    /**
+     * Compresses the given input file to the given destination directory or file on the given executor. Behaves like
+     * {@link #compress(File, File)}, but returns at once. Cancelling the returned future, or letting it time out, stops
+     * the compression before its next write and deletes the partially written destination, see {@link ArchiveFuture}.
+     *
+     * @param source the source file to compress
+     * @param destination the destination file
+     * @param executor the executor to compress on
+     * @return a future completed once the file is compressed, or exceptionally with the failure of the compression
+     */
+    default ArchiveFuture<Void> compressAsync(File source, File destination, Executor executor) {
+        return AsyncOperation.run(executor, () -> {
+            compress(source, destination);
+            return null;
+        });
+    }
+
+    /**
+     * Decompresses the given source file to the given destination directory or file on the given executor. Behaves
+     * like {@link #decompress(File, File)}, but returns at once. Cancelling the returned future, or letting it time
+     * out, stops the decompression before its next write and deletes the partially written destination, see
+     * {@link ArchiveFuture}.
+     *
+     * @param source the compressed source file to decompress
+     * @param destination the destination file
+     * @param executor the executor to decompress on
+     * @return a future completed once the file is decompressed, or exceptionally with the failure of the decompression
+     */
+    default ArchiveFuture<Void> decompressAsync(File source, File destination, Executor executor) {
+        return AsyncOperation.run(executor, () -> {
+            decompress(source, destination);
+            return null;
+        });
+    }
+
     /**
      * Accept a stream and wrap it in a decompressing stream suitable for the current compressor.
      *
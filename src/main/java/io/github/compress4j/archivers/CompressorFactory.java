@@ -33,13 +33,26 @@ public final class CompressorFactory {
      * @throws IllegalArgumentException if the given file is not a known compressed file type
      */
     public static Compressor createCompressor(File file) throws IllegalArgumentException {
+        return createCompressor(file, CompressionOptions.DEFAULT);
+    }
+
+    /**
+     * Probes the given {@link File} for its file type and creates a {@link Compressor} based on this file type that is
+     * tuned by the given {@link CompressionOptions}.
+     *
+     * @param file the file to check.
+     * @param options the options to tune the compression with
+     * @return a new Compressor instance
+     * @throws IllegalArgumentException if the given file is not a known compressed file type
+     */
+    public static Compressor createCompressor(File file, CompressionOptions options) throws IllegalArgumentException {
         FileType fileType = FileType.get(file);
 
         if (fileType == FileType.UNKNOWN) {
             throw new IllegalArgumentException("Unknown file extension " + file.getName());
         }
 
-        return createCompressor(fileType);
+        return createCompressor(fileType, options);
     }
 
     /**
@@ -50,12 +63,26 @@ public final class CompressorFactory {
      * @throws IllegalArgumentException if the given file type is not a known compression type
      */
     public static Compressor createCompressor(FileType fileType) throws IllegalArgumentException {
+        return createCompressor(fileType, CompressionOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a new {@link Compressor} for the given {@link FileType} that is tuned by the given
+     * {@link CompressionOptions}.
+     *
+     * @param fileType the file type to create the compressor for
+     * @param options the options to tune the compression with
+     * @return a new Compressor instance
+     * @throws IllegalArgumentException if the given file type is not a known compression type
+     */
+    public static Compressor createCompressor(FileType fileType, CompressionOptions options)
+            throws IllegalArgumentException {
         if (fileType == FileType.UNKNOWN) {
             throw new IllegalArgumentException("Unknown file type");
         }
 
         if (fileType.isCompressed()) {
-            return createCompressor(fileType.getCompressionType());
+            return createCompressor(fileType.getCompressionType(), options);
         } else {
             throw new IllegalArgumentException("Unknown compressed file type " + fileType);
         }
@@ -85,4 +112,16 @@ public final class CompressorFactory {
     public static Compressor createCompressor(CompressionType compression) {
         return new CommonsCompressor(compression);
     }
+
+    /**
+     * Creates a compressor from the given CompressionType that is tuned by the given {@link CompressionOptions}, e.g.
+     * to compress on multiple threads or with a different level.
+     *
+     * @param compression the type of the compression algorithm
+     * @param options the options to tune the compression with
+     * @return a new {@link Compressor} instance that uses the specified compression algorithm and options.
+     */
+    public static Compressor createCompressor(CompressionType compression, CompressionOptions options) {
+        return new CommonsCompressor(compression, options);
+    }
 }
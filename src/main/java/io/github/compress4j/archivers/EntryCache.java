@@ -0,0 +1,213 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A size bounded cache of the decompressed content of archive entries, for applications that read the same entries
+ * of the same archives over and over. Caching is opt-in: an archiver uses a cache once it is set with
+ * {@link ReadOptions.Builder#setEntryCache(EntryCache)}, and then serves
+ * {@link Archiver#readEntry(File, String)} from it. One cache can be shared by any number of archivers and threads.
+ * <br>
+ * Entries are keyed by the absolute path, size and modification time of the archive and the name of the entry, so
+ * content read from an archive that changed since is never served. The cache holds at most
+ * {@link #getMaximumSize()} bytes of content and evicts the least recently used entries beyond that. Entries larger
+ * than the maximum size are not cached. <br>
+ * Content is loaded without holding a lock, so concurrent first reads of the same entry may all load it.
+ */
+public final class EntryCache {
+
+    private final long maximumSize;
+    private final Map<Key, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a new, empty cache.
+     *
+     * @param maximumSize the maximum number of bytes of entry content to hold
+     * @throws IllegalArgumentException if the maximum size is not positive
+     */
+    public EntryCache(long maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive, was " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the content of the given entry from the cache, or loads and caches it if it is not cached.
+     *
+     * @param archive the archive file
+     * @param entryName the name of the entry
+     * @param loader the loader that reads the content of the entry from the archive
+     * @return a read-only view of the content, or null if the archive holds no such entry
+     * @throws IOException if the content can not be loaded
+     */
+    ByteBuffer get(File archive, String entryName, Loader loader) throws IOException {
+        Key key = new Key(archive, entryName);
+        synchronized (this) {
+            byte[] content = entries.get(key);
+            if (content != null) {
+                hitCount++;
+                return ByteBuffer.wrap(content).asReadOnlyBuffer();
+            }
+            missCount++;
+        }
+
+        byte[] content = loader.load();
+        if (content == null) {
+            return null;
+        }
+        put(key, content);
+        return ByteBuffer.wrap(content).asReadOnlyBuffer();
+    }
+
+    private synchronized void put(Key key, byte[] content) {
+        if (content.length > maximumSize) {
+            return;
+        }
+
+        byte[] previous = entries.put(key, content);
+        size += content.length - (previous != null ? previous.length : 0);
+
+        Iterator<byte[]> eldest = entries.values().iterator();
+        while (size > maximumSize) {
+            size -= eldest.next().length;
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+
+    /** Removes all entries from the cache. The statistics are kept. */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the maximum number of bytes of entry content the cache holds.
+     *
+     * @return the maximum size in bytes
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the number of bytes of entry content currently cached.
+     *
+     * @return the size of the cached content in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of entries currently cached.
+     *
+     * @return the number of cached entries
+     */
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of reads that were served from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of reads that had to load the entry from its archive.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of entries removed to keep the cache within its maximum size.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /** Loads the content of an entry that is not cached. */
+    @FunctionalInterface
+    interface Loader {
+
+        /**
+         * Reads the whole content of the entry from its archive.
+         *
+         * @return the content of the entry, or null if the archive holds no such entry
+         * @throws IOException if the archive can not be read
+         */
+        byte[] load() throws IOException;
+    }
+
+    /** Identifies an entry of one version of an archive. */
+    private static final class Key {
+
+        private final File archive;
+        private final long archiveLength;
+        private final long archiveLastModified;
+        private final String entryName;
+
+        Key(File archive, String entryName) {
+            this.archive = archive.getAbsoluteFile();
+            this.archiveLength = archive.length();
+            this.archiveLastModified = archive.lastModified();
+            this.entryName = entryName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return archiveLength == key.archiveLength
+                    && archiveLastModified == key.archiveLastModified
+                    && archive.equals(key.archive)
+                    && entryName.equals(key.entryName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(archive, archiveLength, archiveLastModified, entryName);
+        }
+    }
+}
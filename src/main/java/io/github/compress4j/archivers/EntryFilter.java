@@ -0,0 +1,182 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.util.regex.Pattern;
+
+/**
+ * Selects the entries of an archive to extract by their name, see
+ * {@link Archiver#extract(java.io.File, java.io.File, EntryFilter, java.nio.file.CopyOption...)}. Entry names use
+ * {@code /} as separator, and the names of directory entries usually end with it. <br>
+ * The filter is applied before any entry data is read, so archivers can skip the data of entries it rejects.
+ */
+@FunctionalInterface
+public interface EntryFilter {
+
+    /** Filter that accepts every entry. */
+    EntryFilter ALL = entryName -> true;
+
+    /**
+     * Returns true if the entry with the given name is to be extracted.
+     *
+     * @param entryName the name of the entry
+     * @return true if the entry is accepted, false if it is skipped
+     */
+    boolean accept(String entryName);
+
+    /**
+     * Returns a filter that accepts the entries accepted by both this filter and the given one.
+     *
+     * @param other the other filter
+     * @return the conjunction of both filters
+     */
+    default EntryFilter and(EntryFilter other) {
+        return entryName -> accept(entryName) && other.accept(entryName);
+    }
+
+    /**
+     * Returns a filter that accepts the entries accepted by this filter or the given one.
+     *
+     * @param other the other filter
+     * @return the disjunction of both filters
+     */
+    default EntryFilter or(EntryFilter other) {
+        return entryName -> accept(entryName) || other.accept(entryName);
+    }
+
+    /**
+     * Returns a filter that accepts the entries this filter rejects.
+     *
+     * @return the negation of this filter
+     */
+    default EntryFilter negate() {
+        return entryName -> !accept(entryName);
+    }
+
+    /**
+     * Returns a filter that accepts the entries whose name starts with the given prefix, e.g. {@code "logs/2024/"}.
+     *
+     * @param prefix the prefix of the accepted entry names
+     * @return a new prefix filter
+     */
+    static EntryFilter prefix(String prefix) {
+        return entryName -> entryName.startsWith(prefix);
+    }
+
+    /**
+     * Returns a filter that accepts the entries whose whole name matches the given glob pattern. The pattern supports:
+     *
+     * <ul>
+     *   <li>{@code *} for any number of characters within a path segment
+     *   <li>{@code **} for any number of characters across path segments, and {@code **}{@code /} for any number of
+     *       directories, including none
+     *   <li>{@code ?} for a single character other than {@code /}
+     *   <li>{@code [abc]}, {@code [a-z]} and {@code [!abc]} for a single character of, or not of, a set
+     *   <li>{@code {a,b}} for one of the comma separated alternatives
+     *   <li>{@code \} to match the following character literally
+     * </ul>
+     *
+     * E.g. {@code "**}{@code /*.log"} accepts every entry ending in {@code .log}, and {@code "logs/*.{log,txt}"} the
+     * log and text files directly within {@code logs}.
+     *
+     * @param pattern the glob pattern
+     * @return a new glob filter
+     * @throws IllegalArgumentException if the pattern is malformed
+     */
+    static EntryFilter glob(String pattern) {
+        Pattern regex = Pattern.compile(globToRegex(pattern));
+        return entryName -> regex.matcher(entryName).matches();
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() + 16);
+        boolean inGroup = false;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            switch (c) {
+                case '*':
+                    if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                        i++;
+                        if (i + 1 < glob.length() && glob.charAt(i + 1) == '/') {
+                            i++;
+                            regex.append("(?:.*/)?");
+                        } else {
+                            regex.append(".*");
+                        }
+                    } else {
+                        regex.append("[^/]*");
+                    }
+                    break;
+                case '?':
+                    regex.append("[^/]");
+                    break;
+                case '[':
+                    int end = glob.indexOf(']', i + 2);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("Unclosed character class in glob: " + glob);
+                    }
+                    regex.append('[');
+                    int start = i + 1;
+                    if (glob.charAt(start) == '!') {
+                        regex.append('^');
+                        start++;
+                    }
+                    for (int j = start; j < end; j++) {
+                        char member = glob.charAt(j);
+                        if (member == '\\' || member == '[' || member == '&' || member == '^') {
+                            regex.append('\\');
+                        }
+                        regex.append(member);
+                    }
+                    regex.append(']');
+                    i = end;
+                    break;
+                case '{':
+                    if (inGroup) {
+                        throw new IllegalArgumentException("Nested group in glob: " + glob);
+                    }
+                    inGroup = true;
+                    regex.append("(?:");
+                    break;
+                case '}':
+                    if (!inGroup) {
+                        throw new IllegalArgumentException("Unopened group in glob: " + glob);
+                    }
+                    inGroup = false;
+                    regex.append(')');
+                    break;
+                case ',':
+                    regex.append(inGroup ? "|" : ",");
+                    break;
+                case '\\':
+                    if (++i == glob.length()) {
+                        throw new IllegalArgumentException("Trailing escape in glob: " + glob);
+                    }
+                    regex.append(Pattern.quote(String.valueOf(glob.charAt(i))));
+                    break;
+                default:
+                    if ("().+|^$".indexOf(c) >= 0) {
+                        regex.append('\\');
+                    }
+                    regex.append(c);
+            }
+        }
+        if (inGroup) {
+            throw new IllegalArgumentException("Unclosed group in glob: " + glob);
+        }
+        return regex.toString();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import jakarta.annotation.Nonnull;
+import java.io.IOException;
+
+/**
+ * {@link ArchiveStream} that skips the entries of another stream up to the entry with a given name, and then returns
+ * that entry and all entries following it.
+ */
+class EntrySeekingArchiveStream extends ArchiveStream {
+
+    private final ArchiveStream stream;
+    private final String entryName;
+    private boolean found;
+
+    EntrySeekingArchiveStream(ArchiveStream stream, String entryName) {
+        this.stream = stream;
+        this.entryName = entryName;
+    }
+
+    @Override
+    protected ArchiveEntry createNextEntry() throws IOException {
+        ArchiveEntry next = stream.getNextEntry();
+        while (!found && next != null && !entryName.equals(next.getName())) {
+            next = stream.getNextEntry();
+        }
+        found = true;
+
+        return next;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return stream.read();
+    }
+
+    @Override
+    public int read(@Nonnull byte[] b) throws IOException {
+        return stream.read(b);
+    }
+
+    @Override
+    public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+        return stream.read(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+        super.close();
+        stream.close();
+    }
+}
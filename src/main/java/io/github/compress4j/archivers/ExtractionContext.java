@@ -0,0 +1,218 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.CopyOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+
+/**
+ * The destination of one extraction, shared by all entries of an archive. <br>
+ * The destination is canonicalized once, and the entry names are checked against it lexically: a name that normalizes
+ * to a path outside the destination is replaced by its {@link IOUtils#cleanEntryName(String) cleaned} form. The
+ * directories created for the entries are remembered, so each directory is created only once per extraction. This
+ * keeps the number of file system calls per entry low for archives with many small files. The permissions and
+ * modification times of the entries are collected in a {@link MetadataBatch}, and applied by {@link #applyMetadata()}
+ * once all entries are extracted. <br>
+ * As no symbolic links are extracted, the lexical check keeps the entries inside the destination as long as the
+ * destination does not contain symbolic links to elsewhere before the extraction. Instances may be used by multiple
+ * threads. <br>
+ * Within an {@link AsyncOperation}, the context checks for cancellation before each buffer of entry data, and records
+ * the files and directories it creates, so that they can be deleted if the extraction is cancelled.
+ */
+final class ExtractionContext {
+
+    /** The largest number of bytes transferred at once, so that cancellation is checked between transfers. */
+    private static final long MAX_TRANSFER_SIZE = 64L * 1024 * 1024;
+
+    private final File destination;
+    private final Path root;
+    private final Set<File> directories = ConcurrentHashMap.newKeySet();
+    private final MetadataBatch metadata = new MetadataBatch();
+    private final AsyncOperation operation = AsyncOperation.current();
+
+    /**
+     * Creates a new context for extracting into the given directory.
+     *
+     * @param destination the directory to extract to
+     * @throws IOException if the canonical path of the destination can not be determined
+     */
+    ExtractionContext(File destination) throws IOException {
+        this.destination = destination;
+        this.root = destination.getCanonicalFile().toPath();
+    }
+
+    /**
+     * Returns the file the entry with the given name is extracted to, which is always inside the destination.
+     *
+     * @param entryName the name of the entry
+     * @return the file to extract the entry to
+     */
+    File resolve(String entryName) {
+        Path target = root.resolve(entryName).normalize();
+        if (!target.startsWith(root)) {
+            target = root.resolve(IOUtils.cleanEntryName(entryName)).normalize();
+        }
+        return target.equals(root) ? destination : new File(destination, root.relativize(target).toString());
+    }
+
+    /**
+     * Creates the given directory and its parents, unless they were already created in this extraction.
+     *
+     * @param directory a directory inside the destination
+     */
+    void createDirectories(File directory) {
+        if (directory.equals(destination) || directories.contains(directory)) {
+            return;
+        }
+
+        if (operation.isAsync()) {
+            recordMissingDirectories(directory);
+        }
+        //noinspection ResultOfMethodCallIgnored
+        directory.mkdirs();
+
+        File parent = directory;
+        while (parent != null && !parent.equals(destination) && directories.add(parent)) {
+            parent = parent.getParentFile();
+        }
+    }
+
+    /**
+     * Copies all bytes of the given stream to the file of the given entry, or creates the directory of the entry. See
+     * {@link IOUtils#copy(InputStream, File, ArchiveEntry, CopyOption...)}.
+     *
+     * @param in the input stream to read from
+     * @param entry the entry to extract
+     * @param options options specifying how the copy should be done
+     * @return the created file or directory
+     * @param <A> ArchiveEntry to be used
+     * @throws IOException if an I/O error occurs when reading or writing
+     */
+    <A extends ArchiveEntry> File copy(InputStream in, A entry, CopyOption... options) throws IOException {
+        File file = resolve(entry.getName());
+
+        if (entry.isDirectory()) {
+            createDirectories(file);
+        } else {
+            createDirectories(file.getParentFile());
+            recordOutput(file, options);
+            Files.copy(operation.watch(in), file.toPath(), options);
+        }
+
+        metadata.add(entry, file);
+
+        return file;
+    }
+
+    /**
+     * Transfers a region of a file channel to the file of the given entry, or creates the directory of the entry. See
+     * {@link IOUtils#transfer(FileChannel, long, long, File, ArchiveEntry, CopyOption...)}.
+     *
+     * @param source the channel to read the entry data from
+     * @param position the position of the entry data in the channel
+     * @param size the number of bytes to transfer
+     * @param entry the entry to extract
+     * @param options options specifying how the copy should be done
+     * @return the created file or directory
+     * @param <A> ArchiveEntry to be used
+     * @throws IOException if an I/O error occurs when reading or writing
+     */
+    <A extends ArchiveEntry> File transfer(FileChannel source, long position, long size, A entry, CopyOption... options)
+            throws IOException {
+        File file = resolve(entry.getName());
+
+        if (entry.isDirectory()) {
+            createDirectories(file);
+        } else {
+            createDirectories(file.getParentFile());
+            Path target = file.toPath();
+            recordOutput(file, options);
+            if (isReplaceExisting(options)) {
+                Files.deleteIfExists(target);
+            }
+            try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                long transferred = 0;
+                while (transferred < size) {
+                    operation.checkCancelled();
+                    long n = source.transferTo(
+                            position + transferred, Math.min(size - transferred, MAX_TRANSFER_SIZE), out);
+                    if (n <= 0) {
+                        throw new EOFException("Unexpected end of archive in entry " + entry.getName());
+                    }
+                    transferred += n;
+                    operation.written(n);
+                }
+            }
+        }
+
+        metadata.add(entry, file);
+
+        return file;
+    }
+
+    /** Applies the permissions and modification times of all entries extracted so far. */
+    void applyMetadata() {
+        metadata.apply();
+    }
+
+    /** Records the directory and its parents that do not exist yet as outputs of the operation, topmost first. */
+    private void recordMissingDirectories(File directory) {
+        Deque<File> missing = new ArrayDeque<>();
+        File parent = directory;
+        while (parent != null && !parent.equals(destination) && !parent.exists()) {
+            missing.addFirst(parent);
+            parent = parent.getParentFile();
+        }
+        missing.forEach(operation::created);
+    }
+
+    /**
+     * Records the file of an entry as output of the operation, unless it already exists and is not to be replaced, in
+     * which case the extraction of the entry fails without touching it.
+     */
+    private void recordOutput(File file, CopyOption... options) {
+        if (operation.isAsync() && (isReplaceExisting(options) || !file.exists())) {
+            operation.created(file);
+        }
+    }
+
+    private static boolean isReplaceExisting(CopyOption... options) {
+        boolean replaceExisting = false;
+        for (CopyOption option : options) {
+            if (option == StandardCopyOption.REPLACE_EXISTING) {
+                replaceExisting = true;
+            } else if (option == null) {
+                throw new NullPointerException("options contains 'null'");
+            } else {
+                throw new UnsupportedOperationException(option + " not supported");
+            }
+        }
+        return replaceExisting;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.nio.file.CopyOption;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+
+/**
+ * Extracts the entries of an archive stream on two stages: the thread reading the archive decodes the data of each
+ * entry into a pooled buffer, and a bounded pool of writer threads writes the buffers to the extracted files. The
+ * decoder thus keeps decoding while files are created and written, which pays off for archives of many small files.
+ * <br>
+ * The data of an entry that does not fit into one buffer is written to its file by the reading thread itself, so the
+ * memory used is bounded by the pooled buffers. Directories are created by the reading thread before any entry inside
+ * them is handed to a writer, and an entry is only written once earlier writes to the same file have completed.
+ * Otherwise entries are written in any order. Writer threads are virtual threads where the runtime supports them, see
+ * {@link ThreadPools#newBlockingIoThreadPool(int, String)}. <br>
+ * The first failure of a writer is rethrown by the next call of {@link #extract(InputStream, ArchiveEntry,
+ * CopyOption...)} or by {@link #finish()}. Instances are used by a single reading thread.
+ */
+final class ExtractionPipeline implements Closeable {
+
+    /** The size of the pooled buffers, and thus the largest entry that is handed to a writer thread. */
+    static final int BUFFER_SIZE = 256 * 1024;
+
+    private final ExtractionContext context;
+    private final ExecutorService writers;
+    private final BlockingQueue<byte[]> buffers;
+    private final int bufferCount;
+    private final Map<File, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    /**
+     * Creates a new pipeline extracting into the given context, with as many writer threads as the options request
+     * and their memory budget allows.
+     *
+     * @param context the destination of the extraction
+     * @param options the options holding the number of threads and the memory budget
+     */
+    ExtractionPipeline(ExtractionContext context, CompressionOptions options) {
+        this(context, options.getThreads(2L * BUFFER_SIZE), BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new pipeline extracting into the given context. Two buffers are pooled per writer thread, so that the
+     * reading thread can fill buffers while all writers are busy.
+     *
+     * @param context the destination of the extraction
+     * @param writerThreads the number of writer threads
+     * @param bufferSize the size of the pooled buffers
+     */
+    ExtractionPipeline(ExtractionContext context, int writerThreads, int bufferSize) {
+        this.context = context;
+        this.writers = ThreadPools.newBlockingIoThreadPool(writerThreads, "extract");
+        this.bufferCount = 2 * writerThreads;
+        this.buffers = new ArrayBlockingQueue<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            buffers.add(new byte[bufferSize]);
+        }
+    }
+
+    /**
+     * Extracts the given entry, whose data is read from the given stream before this method returns. Directories and
+     * entries too large for a buffer are extracted at once, other entries are handed to a writer thread.
+     *
+     * @param in the stream to read the entry data from
+     * @param entry the entry to extract
+     * @param options options specifying how the copy should be done
+     * @param <A> ArchiveEntry to be used
+     * @throws IOException if reading the entry fails, or an earlier entry failed to be written
+     */
+    <A extends ArchiveEntry> void extract(InputStream in, A entry, CopyOption... options) throws IOException {
+        rethrowFailure();
+
+        File file = context.resolve(entry.getName());
+        if (entry.isDirectory()) {
+            context.copy(InputStream.nullInputStream(), entry, options);
+            return;
+        }
+        context.createDirectories(file.getParentFile());
+
+        byte[] buffer = takeBuffer();
+        int length;
+        try {
+            length = in.readNBytes(buffer, 0, buffer.length);
+            if (length == buffer.length) {
+                int next = in.read();
+                if (next != -1) {
+                    awaitPendingWrite(file);
+                    InputStream head = new ByteArrayInputStream(buffer, 0, length);
+                    // shielded, as a sequence closes each stream it has exhausted
+                    InputStream rest = new SequenceInputStream(
+                            new ByteArrayInputStream(new byte[] {(byte) next}), shieldClose(in));
+                    context.copy(new SequenceInputStream(head, rest), entry, options);
+                    buffers.add(buffer);
+                    return;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            buffers.add(buffer);
+            throw e;
+        }
+
+        awaitPendingWrite(file);
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        pending.put(file, written);
+        writers.execute(() -> {
+            try {
+                if (failure.get() == null) {
+                    context.copy(new ByteArrayInputStream(buffer, 0, length), entry, options);
+                }
+            } catch (IOException e) {
+                failure.compareAndSet(null, e);
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, new IOException(e));
+            } finally {
+                pending.remove(file, written);
+                written.complete(null);
+                buffers.add(buffer);
+            }
+        });
+    }
+
+    /**
+     * Waits until all entries handed to the writer threads are written.
+     *
+     * @throws IOException if an entry failed to be written, or the waiting thread was interrupted
+     */
+    void finish() throws IOException {
+        for (int i = 0; i < bufferCount; i++) {
+            takeBuffer();
+        }
+        buffers.clear();
+        rethrowFailure();
+    }
+
+    /**
+     * Stops the writer threads and waits until they have terminated, so that no file is written once this method
+     * returns. Entries not written yet by then are discarded.
+     */
+    @Override
+    public void close() {
+        writers.shutdownNow();
+        ThreadPools.awaitTermination(writers);
+    }
+
+    private byte[] takeBuffer() throws InterruptedIOException {
+        try {
+            return buffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a writer thread");
+        }
+    }
+
+    private void awaitPendingWrite(File file) throws IOException {
+        CompletableFuture<Void> previous = pending.get(file);
+        if (previous != null) {
+            ThreadPools.await(previous);
+        }
+    }
+
+    private static InputStream shieldClose(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public void close() {
+                // the archive stream stays open for the following entries
+            }
+        };
+    }
+
+    private void rethrowFailure() throws IOException {
+        IOException e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+    }
+}
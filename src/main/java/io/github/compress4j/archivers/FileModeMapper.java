@@ -21,9 +21,11 @@ import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.attribute.PosixFilePermission;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -139,11 +141,26 @@ abstract class FileModeMapper<E extends ArchiveEntry> {
                 0002, PosixFilePermission.OTHERS_WRITE,
                 0001, PosixFilePermission.OTHERS_EXECUTE);
 
+        /** The permissions of every combination of the nine permission bits, indexed by mode. */
+        private static final List<Set<PosixFilePermission>> PERMISSIONS = IntStream.rangeClosed(0, 0777)
+                .mapToObj(PosixFilePermissionsMapper::toPermissions)
+                .collect(Collectors.toUnmodifiableList());
+
+        /**
+         * Returns the posix file permissions of the given mode. Bits other than the nine permission bits are ignored.
+         *
+         * @param mode the unix file mode
+         * @return an unmodifiable set of the permissions of the mode
+         */
         public static Set<PosixFilePermission> map(int mode) {
+            return PERMISSIONS.get(mode & PosixPermissionMapper.UNIX_PERMISSION_MASK);
+        }
+
+        private static Set<PosixFilePermission> toPermissions(int mode) {
             return intToPosixFilePermission.entrySet().stream()
                     .filter(entry -> (mode & entry.getKey()) > 0)
                     .map(Map.Entry::getValue)
-                    .collect(Collectors.toSet());
+                    .collect(Collectors.toUnmodifiableSet());
         }
     }
 }
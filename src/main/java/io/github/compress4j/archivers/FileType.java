@@ -43,6 +43,9 @@ public final class FileType {
         add(".tbz2", TAR, CompressionType.BZIP2);
         add(".tar.xz", TAR, CompressionType.XZ);
         add(".txz", TAR, CompressionType.XZ);
+        add(".tar.zst", TAR, CompressionType.ZSTANDARD);
+        add(".tzst", TAR, CompressionType.ZSTANDARD);
+        add(".tar.lz4", TAR, CompressionType.LZ4_FRAMED);
         // archive formats
         add(".7z", SEVEN_Z);
         add(".a", AR);
@@ -59,6 +62,10 @@ public final class FileType {
         add(".gzip", CompressionType.GZIP);
         add(".gz", CompressionType.GZIP);
         add(".pack", CompressionType.PACK200);
+        add(".zst", CompressionType.ZSTANDARD);
+        add(".lz4", CompressionType.LZ4_FRAMED);
+        add(".sz", CompressionType.SNAPPY_FRAMED);
+        add(".br", CompressionType.BROTLI);
     }
 
     private final String suffix;
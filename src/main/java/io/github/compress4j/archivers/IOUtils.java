@@ -15,9 +15,11 @@
  */
 package io.github.compress4j.archivers;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -57,19 +59,42 @@ public final class IOUtils {
      */
     public static <A extends ArchiveEntry> File copy(InputStream in, File destination, A entry, CopyOption... options)
             throws IOException {
-        File file = createResourceInDestination(destination, entry.getName());
-
-        if (entry.isDirectory()) {
-            //noinspection ResultOfMethodCallIgnored
-            file.mkdirs();
-        } else {
-            //noinspection ResultOfMethodCallIgnored
-            file.getParentFile().mkdirs();
-            Files.copy(in, file.toPath(), options);
-        }
-
-        FileModeMapper.map(entry, file);
+        ExtractionContext context = new ExtractionContext(destination);
+        File file = context.copy(in, entry, options);
+        context.applyMetadata();
+        return file;
+    }
 
+    /**
+     * Transfers a region of a file channel to a file, without copying the bytes through the Java heap where the
+     * operating system supports it. This is used for archive formats that store entries uncompressed, where the entry
+     * data can be taken from the archive as is.
+     *
+     * <p>As with {@link #copy(InputStream, File, ArchiveEntry, CopyOption...)}, the transfer fails if the target file
+     * already exists or is a symbolic link, unless the {@code REPLACE_EXISTING} option is specified.
+     *
+     * @param source the channel to read the entry data from
+     * @param position the position of the entry data in the channel
+     * @param size the number of bytes to transfer
+     * @param destination the directory to copy the file to
+     * @param entry the path to the file
+     * @param options options specifying how the copy should be done
+     * @return the created file or directory
+     * @param <A> ArchiveEntry to be used
+     * @throws IOException if an I/O error occurs when reading or writing
+     * @throws EOFException if the channel ends before {@code size} bytes were transferred
+     * @throws FileAlreadyExistsException if the target file exists but cannot be replaced because the
+     *     {@code REPLACE_EXISTING} option is not specified <i>(optional specific exception)</i>
+     * @throws DirectoryNotEmptyException the {@code REPLACE_EXISTING} option is specified but the file cannot be
+     *     replaced because it is a non-empty directory <i>(optional specific exception)</i>
+     * @throws UnsupportedOperationException if {@code options} contains a copy option that is not supported
+     */
+    public static <A extends ArchiveEntry> File transfer(
+            FileChannel source, long position, long size, File destination, A entry, CopyOption... options)
+            throws IOException {
+        ExtractionContext context = new ExtractionContext(destination);
+        File file = context.transfer(source, position, size, entry, options);
+        context.applyMetadata();
         return file;
     }
 
@@ -87,6 +112,22 @@ public final class IOUtils {
         }
     }
 
+    /**
+     * Returns the {@link File} of the given path. Only paths of the default file system have one; paths of other file
+     * systems, such as a zip file system or an in-memory file system, are rejected.
+     *
+     * @param path the path to convert
+     * @return the file located by the given path
+     * @throws IllegalArgumentException if the path is not associated with the default file system
+     */
+    public static File toFile(Path path) throws IllegalArgumentException {
+        if (path.getFileSystem() != FileSystems.getDefault()) {
+            throw new IllegalArgumentException(
+                    "Only paths of the default file system are supported, got " + path.toUri());
+        }
+        return path.toFile();
+    }
+
     /**
      * Makes sure that the given {@link File} is either a writable directory, or that it does not exist and a directory
      * can be created at its path. <br>
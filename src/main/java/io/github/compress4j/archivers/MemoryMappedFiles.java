@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Reads files through memory mappings instead of {@code read} calls. The file is mapped in windows of
+ * {@value #WINDOW_SIZE} bytes, so files larger than the 2 GiB limit of a single {@link MappedByteBuffer} can be read,
+ * and the address space held by the mappings stays bounded.
+ */
+final class MemoryMappedFiles {
+
+    /** Size of the windows in which a file is mapped. */
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Size from which a region is checksummed through memory mappings. Mapping and unmapping a region costs more than
+     * reading a small region into a buffer, and every mapping is only released once its buffer is collected.
+     */
+    static final int MAP_THRESHOLD = 1024 * 1024;
+
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    /** Direct buffer of each thread for the regions below {@link #MAP_THRESHOLD}, reused across calls. */
+    private static final ThreadLocal<ByteBuffer> READ_BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(CHUNK_SIZE));
+
+    private MemoryMappedFiles() {}
+
+    /**
+     * Copies the content of the given file to the given stream, reading it through read-only memory mappings. The
+     * size of the file is taken once when it is opened, the file must not be truncated while it is copied.
+     *
+     * @param file the file to copy
+     * @param out the stream to copy the file to
+     * @return the number of bytes copied
+     * @throws IOException if an I/O error occurs
+     */
+    static long transferTo(File file, OutputStream out) throws IOException {
+        return transferTo(file, out, WINDOW_SIZE);
+    }
+
+    /**
+     * Copies the content of the given file to the given stream, mapping it in windows of the given size.
+     *
+     * @param file the file to copy
+     * @param out the stream to copy the file to
+     * @param windowSize the size of the windows in which the file is mapped
+     * @return the number of bytes copied
+     * @throws IOException if an I/O error occurs
+     */
+    static long transferTo(File file, OutputStream out, int windowSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            byte[] chunk = new byte[(int) Math.min(CHUNK_SIZE, size)];
+
+            for (long position = 0; position < size; position += windowSize) {
+                MappedByteBuffer window =
+                        channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, size - position));
+                while (window.hasRemaining()) {
+                    int length = Math.min(chunk.length, window.remaining());
+                    window.get(chunk, 0, length);
+                    out.write(chunk, 0, length);
+                }
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Computes the CRC-32 checksum of a region of the given channel. Regions of at least {@value #MAP_THRESHOLD} bytes
+     * are read through read-only memory mappings, smaller ones with positional reads into a direct buffer reused by the
+     * calling thread. Either way the bytes are never copied into the Java heap.
+     *
+     * @param channel the channel to read
+     * @param position the position of the region in the channel
+     * @param size the size of the region
+     * @return the CRC-32 checksum of the region
+     * @throws IOException if an I/O error occurs, or the region extends past the end of the channel
+     */
+    static long crc32(FileChannel channel, long position, long size) throws IOException {
+        CRC32 crc = new CRC32();
+        if (size < MAP_THRESHOLD) {
+            ByteBuffer buffer = READ_BUFFER.get();
+            for (long offset = 0; offset < size; ) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), size - offset));
+                int read = channel.read(buffer, position + offset);
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of file at position " + (position + offset));
+                }
+                crc.update(buffer.flip());
+                offset += read;
+            }
+            return crc.getValue();
+        }
+        for (long offset = 0; offset < size; offset += WINDOW_SIZE) {
+            long length = Math.min(WINDOW_SIZE, size - offset);
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position + offset, length));
+        }
+        return crc.getValue();
+    }
+}
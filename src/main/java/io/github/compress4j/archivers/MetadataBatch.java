@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import io.github.compress4j.archivers.FileModeMapper.PosixFilePermissionsMapper;
+import io.github.compress4j.archivers.FileModeMapper.PosixPermissionMapper;
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the permissions and modification times of extracted entries, and applies them once all data is written.
+ * <br>
+ * Files are updated in extraction order, then directories deepest-first: writing into a directory changes its
+ * modification time, and a directory that is made read-only must not be written into afterwards. Whether the file
+ * system supports posix permissions is determined once, and the permissions of a mode are looked up in the table of
+ * {@link PosixFilePermissionsMapper}. Entries may be added by multiple threads.
+ */
+final class MetadataBatch {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetadataBatch.class.getCanonicalName());
+
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+    private final Queue<Metadata> files = new ConcurrentLinkedQueue<>();
+    private final Queue<Metadata> directories = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Records the mode and modification time of the given entry, to be applied to the given file later.
+     *
+     * @param entry the extracted entry
+     * @param file the file or directory the entry was extracted to
+     */
+    void add(ArchiveEntry entry, File file) {
+        int mode = POSIX ? AttributeAccessor.getMode(entry) & PosixPermissionMapper.UNIX_PERMISSION_MASK : 0;
+        Metadata metadata = new Metadata(file.toPath(), mode, getLastModified(entry));
+        if (entry.isDirectory()) {
+            directories.add(metadata);
+        } else {
+            files.add(metadata);
+        }
+    }
+
+    /** Applies the recorded metadata, first to all files and then to the directories, deepest first. */
+    void apply() {
+        Metadata metadata;
+        while ((metadata = files.poll()) != null) {
+            metadata.apply();
+        }
+
+        List<Metadata> pending = new ArrayList<>(directories);
+        directories.clear();
+        pending.sort(Comparator.comparingInt((Metadata m) -> m.path.getNameCount()).reversed());
+        for (Metadata directory : pending) {
+            directory.apply();
+        }
+    }
+
+    private static long getLastModified(ArchiveEntry entry) {
+        try {
+            Date date = entry.getLastModifiedDate();
+            return date != null ? date.getTime() : -1;
+        } catch (UnsupportedOperationException e) {
+            // 7z entries without a modification time
+            return -1;
+        }
+    }
+
+    /** The metadata of a single extracted file or directory. */
+    private static final class Metadata {
+
+        private final Path path;
+        private final int mode;
+        private final long lastModified;
+
+        private Metadata(Path path, int mode, long lastModified) {
+            this.path = path;
+            this.mode = mode;
+            this.lastModified = lastModified;
+        }
+
+        private void apply() {
+            try {
+                if (lastModified >= 0) {
+                    Files.setLastModifiedTime(path, FileTime.fromMillis(lastModified));
+                }
+            } catch (Exception e) {
+                LOGGER.warn("Could not set modification time of {}", path.getFileName(), e);
+            }
+            try {
+                if (mode > 0) {
+                    Files.setPosixFilePermissions(path, PosixFilePermissionsMapper.map(mode));
+                }
+            } catch (Exception e) {
+                LOGGER.warn("Could not set file permissions of {}", path.getFileName(), e);
+            }
+        }
+    }
+}
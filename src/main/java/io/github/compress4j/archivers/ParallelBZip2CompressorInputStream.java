@@ -0,0 +1,349 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static io.github.compress4j.archivers.ParallelBZip2CompressorOutputStream.BLOCK_MAGIC;
+import static io.github.compress4j.archivers.ParallelBZip2CompressorOutputStream.END_OF_STREAM_MAGIC;
+import static io.github.compress4j.archivers.ParallelBZip2CompressorOutputStream.STREAM_HEADER_BITS;
+import static io.github.compress4j.archivers.ParallelBZip2CompressorOutputStream.combineCrc;
+
+import jakarta.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+/**
+ * BZip2 decompressor stream that decodes the blocks of a bzip2 stream concurrently, in the manner of lbzip2. <br>
+ * The reading thread scans the compressed bits for the 48-bit block magic and hands every block to a worker thread,
+ * which decodes it as a stream of its own with a {@link BZip2CompressorInputStream}. The decoded blocks are returned in
+ * stream order, and the combined stream CRC is verified at the end. <br>
+ * The block magic can also occur by chance inside compressed data. A block cut short by such a false match fails to
+ * decode and is retried together with the following piece. Like the sequential decoder of commons-compress, only the
+ * first stream of a file consisting of concatenated bzip2 streams is read.
+ */
+final class ParallelBZip2CompressorInputStream extends InputStream {
+
+    /** Heap needed by one decoder thread: the decoder tables plus the decoded blocks in flight. */
+    static final long MEMORY_PER_THREAD = 10L * 900_000;
+
+    private static final int MAGIC_BITS = 48;
+    private static final int CRC_BITS = 32;
+    private static final long MAGIC_MASK = (1L << MAGIC_BITS) - 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_FALSE_MATCHES = 2;
+
+    private final InputStream in;
+    private final ExecutorService executor;
+    private final Deque<Segment> pending = new ArrayDeque<>();
+    private final int maxPending;
+    private final int blockSize100k;
+    private final byte[] readBuffer = new byte[BUFFER_SIZE];
+
+    // scanner state
+    private int currentByte;
+    private int bitsLeftInByte;
+    private int readPosition;
+    private int readLimit;
+    private byte[] segmentBytes = new byte[BUFFER_SIZE];
+    private int segmentLength;
+    private long segmentFirstByte = STREAM_HEADER_BITS / 8;
+    private long segmentStart = -1;
+    private long bitPosition = STREAM_HEADER_BITS;
+    private long window;
+    private boolean scanned;
+
+    private int storedCrc;
+    private int combinedCrc;
+    private byte[] block = new byte[0];
+    private int position;
+    private boolean closed;
+
+    /**
+     * Creates a new parallel bzip2 decompressor stream and reads the stream header.
+     *
+     * @param in the bzip2 stream to decode
+     * @param threads the number of worker threads
+     * @throws IOException if the stream header can not be read or is not a bzip2 header
+     */
+    ParallelBZip2CompressorInputStream(InputStream in, int threads) throws IOException {
+        byte[] header = in.readNBytes(4);
+        if (header.length < 4 || header[0] != 'B' || header[1] != 'Z' || header[2] != 'h' || header[3] < '1'
+                || header[3] > '9') {
+            throw new IOException("Stream is not in the BZip2 format");
+        }
+        this.in = in;
+        this.blockSize100k = header[3] - '0';
+        this.executor = ThreadPools.newFixedThreadPool(threads, "bzip2");
+        this.maxPending = threads * 2;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        while (position == block.length) {
+            if (!nextDecodedBlock()) {
+                return -1;
+            }
+        }
+
+        int n = Math.min(len, block.length - position);
+        System.arraycopy(block, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return block.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            executor.shutdownNow();
+            in.close();
+        }
+    }
+
+    private boolean nextDecodedBlock() throws IOException {
+        fillPending();
+
+        Segment segment = pending.poll();
+        if (segment == null) {
+            if (storedCrc != combinedCrc) {
+                throw new IOException("BZip2 stream CRC error");
+            }
+            return false;
+        }
+
+        try {
+            block = ThreadPools.await(segment.result);
+        } catch (IOException e) {
+            block = decodeAfterFalseMatch(segment, e);
+        }
+        position = 0;
+        combinedCrc = combineCrc(combinedCrc, segment.crc());
+        return true;
+    }
+
+    /**
+     * Decodes a segment that failed to decode together with the segments following it, assuming that the segment was
+     * cut short by a false match of the block magic.
+     */
+    private byte[] decodeAfterFalseMatch(Segment segment, IOException failure) throws IOException {
+        Segment merged = segment;
+        for (int i = 0; i < MAX_FALSE_MATCHES; i++) {
+            if (merged.endOfStream) {
+                // the end-of-stream magic was a false match as well, keep scanning behind it
+                scanned = false;
+            }
+            try {
+                fillPending();
+            } catch (IOException e) {
+                failure.addSuppressed(e);
+                break;
+            }
+            Segment next = pending.poll();
+            if (next == null) {
+                break;
+            }
+            next.result.cancel(true);
+            merged = merged.append(next);
+            try {
+                return merged.decode();
+            } catch (IOException e) {
+                failure.addSuppressed(e);
+            }
+        }
+        throw failure;
+    }
+
+    private void fillPending() throws IOException {
+        while (!scanned && pending.size() < maxPending) {
+            Segment segment = scanSegment();
+            if (segment != null) {
+                segment.result = executor.submit(segment::decode);
+                pending.add(segment);
+            }
+        }
+    }
+
+    /**
+     * Reads the compressed stream up to the next block magic or end-of-stream marker, and returns the bits between the
+     * previous magic and this one. Returns null if the stream contains no blocks.
+     */
+    private Segment scanSegment() throws IOException {
+        while (true) {
+            shiftBit();
+            long magic = window & MAGIC_MASK;
+            long magicStart = bitPosition - MAGIC_BITS;
+
+            if (segmentStart < 0) {
+                if (magicStart < STREAM_HEADER_BITS) {
+                    continue;
+                }
+                if (magic == BLOCK_MAGIC) {
+                    segmentStart = magicStart;
+                    continue;
+                }
+                if (magic == END_OF_STREAM_MAGIC) {
+                    readStoredCrc();
+                    return null;
+                }
+                throw new IOException("Stream is not in the BZip2 format");
+            }
+
+            if ((magic == BLOCK_MAGIC || magic == END_OF_STREAM_MAGIC)
+                    && magicStart >= segmentStart + MAGIC_BITS + CRC_BITS) {
+                Segment segment = cutSegment(magicStart, magic == END_OF_STREAM_MAGIC);
+                if (segment.endOfStream) {
+                    readStoredCrc();
+                }
+                return segment;
+            }
+        }
+    }
+
+    /**
+     * Reads the stream CRC following the end-of-stream magic. Its bits pass through the scanning window, so that
+     * scanning can resume behind them if the magic turns out to be a false match.
+     */
+    private void readStoredCrc() throws IOException {
+        for (int i = 0; i < CRC_BITS; i++) {
+            shiftBit();
+        }
+        storedCrc = (int) window;
+        scanned = true;
+    }
+
+    private void shiftBit() throws IOException {
+        window = (window << 1) | nextBit();
+        bitPosition++;
+    }
+
+    private int nextBit() throws IOException {
+        if (bitsLeftInByte == 0) {
+            if (readPosition == readLimit) {
+                readLimit = Math.max(0, in.read(readBuffer));
+                readPosition = 0;
+                if (readLimit == 0) {
+                    throw new EOFException("Unexpected end of BZip2 stream");
+                }
+            }
+            currentByte = readBuffer[readPosition++];
+            if (segmentLength == segmentBytes.length) {
+                segmentBytes = Arrays.copyOf(segmentBytes, segmentLength * 2);
+            }
+            segmentBytes[segmentLength++] = (byte) currentByte;
+            bitsLeftInByte = 8;
+        }
+        return (currentByte >>> --bitsLeftInByte) & 1;
+    }
+
+    /**
+     * Returns the bits from the start of the current segment up to the given position, and starts the next segment
+     * there. The bytes holding the start of the next segment are kept.
+     */
+    private Segment cutSegment(long end, boolean endOfStream) {
+        int from = (int) ((segmentStart >>> 3) - segmentFirstByte);
+        int to = (int) (((end + 7) >>> 3) - segmentFirstByte);
+        byte[] bytes = Arrays.copyOfRange(segmentBytes, from, to);
+        Segment segment = new Segment(bytes, (int) (segmentStart & 7), end - segmentStart, blockSize100k, endOfStream);
+
+        int keep = (int) ((end >>> 3) - segmentFirstByte);
+        segmentLength -= keep;
+        System.arraycopy(segmentBytes, keep, segmentBytes, 0, segmentLength);
+        segmentFirstByte += keep;
+        segmentStart = end;
+        return segment;
+    }
+
+    /** The bits of one bzip2 block, from its block magic up to the next magic. */
+    private static final class Segment {
+
+        private final byte[] bytes;
+        private final int offset;
+        private final long length;
+        private final int blockSize100k;
+        /** Whether the segment is followed by the end-of-stream magic rather than a block magic. */
+        private final boolean endOfStream;
+
+        private Future<byte[]> result;
+
+        private Segment(byte[] bytes, int offset, long length, int blockSize100k, boolean endOfStream) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+            this.blockSize100k = blockSize100k;
+            this.endOfStream = endOfStream;
+        }
+
+        int crc() {
+            return (int) BitWriter.readBits(bytes, offset + (long) MAGIC_BITS, CRC_BITS);
+        }
+
+        /**
+         * Decodes the block by wrapping it into a bzip2 stream of its own. The stream CRC of a single block stream is
+         * the block CRC.
+         */
+        byte[] decode() throws IOException {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream((int) (length / 8) + 32);
+            BitWriter bits = new BitWriter(stream);
+            bits.writeBits(8, 'B');
+            bits.writeBits(8, 'Z');
+            bits.writeBits(8, 'h');
+            bits.writeBits(8, '0' + blockSize100k);
+            bits.writeBits(bytes, offset, length);
+            bits.writeBits(MAGIC_BITS, END_OF_STREAM_MAGIC);
+            bits.writeBits(CRC_BITS, crc());
+            bits.alignToByte();
+
+            try (InputStream decoder = new BZip2CompressorInputStream(new ByteArrayInputStream(stream.toByteArray()))) {
+                return decoder.readAllBytes();
+            }
+        }
+
+        Segment append(Segment next) throws IOException {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream((int) ((length + next.length) / 8) + 2);
+            BitWriter bits = new BitWriter(stream);
+            bits.writeBits(bytes, offset, length);
+            bits.writeBits(next.bytes, next.offset, next.length);
+            bits.alignToByte();
+            return new Segment(stream.toByteArray(), 0, length + next.length, blockSize100k, next.endOfStream);
+        }
+    }
+}
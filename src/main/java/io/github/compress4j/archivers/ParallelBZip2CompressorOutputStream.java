@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+
+/**
+ * BZip2 compressor stream that compresses blocks of its input in parallel, in the manner of lbzip2. <br>
+ * Every block is compressed by its own {@link BZip2CompressorOutputStream}. The block is small enough to always fit
+ * into a single bzip2 block, so the writer only has to strip the per-block stream header and end-of-stream marker,
+ * splice the bit-aligned blocks together and combine their CRCs. The output is a single bzip2 stream that any bzip2
+ * decoder can read.
+ */
+final class ParallelBZip2CompressorOutputStream extends ParallelCompressorOutputStream {
+
+    /** The 48-bit magic number that starts every bzip2 block. */
+    static final long BLOCK_MAGIC = 0x314159265359L;
+
+    /** The 48-bit magic number of the bzip2 end-of-stream marker. */
+    static final long END_OF_STREAM_MAGIC = 0x177245385090L;
+
+    /** Bit offset of the first block behind the stream header {@code BZh1} to {@code BZh9}. */
+    static final int STREAM_HEADER_BITS = 32;
+
+    private static final int MAGIC_BITS = 48;
+    private static final int CRC_BITS = 32;
+
+    private final int blockSize100k;
+
+    private BitWriter bits;
+    private int combinedCrc;
+
+    /**
+     * Creates a new parallel bzip2 stream with the maximum block size of 900k.
+     *
+     * @param out the stream to write the compressed data to
+     * @param threads the number of worker threads
+     */
+    ParallelBZip2CompressorOutputStream(OutputStream out, int threads) {
+        this(out, threads, BZip2CompressorOutputStream.MAX_BLOCKSIZE);
+    }
+
+    /**
+     * Creates a new parallel bzip2 stream.
+     *
+     * @param out the stream to write the compressed data to
+     * @param threads the number of worker threads
+     * @param blockSize100k the bzip2 block size in units of 100k, between 1 and 9
+     */
+    ParallelBZip2CompressorOutputStream(OutputStream out, int threads, int blockSize100k) {
+        super(out, threads, inputBlockSize(blockSize100k), "bzip2");
+        this.blockSize100k = blockSize100k;
+    }
+
+    /**
+     * Returns the number of input bytes that is guaranteed to fit into a single bzip2 block. The initial run-length
+     * encoding of bzip2 expands the input by at most a quarter, and the encoder reserves a few bytes of every block.
+     *
+     * @param blockSize100k the bzip2 block size in units of 100k
+     * @return the size of the uncompressed blocks
+     */
+    static int inputBlockSize(int blockSize100k) {
+        if (blockSize100k < BZip2CompressorOutputStream.MIN_BLOCKSIZE
+                || blockSize100k > BZip2CompressorOutputStream.MAX_BLOCKSIZE) {
+            throw new IllegalArgumentException("Block size must be between 1 and 9, was " + blockSize100k);
+        }
+        return (blockSize100k * 100_000 - 20) / 5 * 4;
+    }
+
+    @Override
+    protected Callable<byte[]> compressBlock(byte[] block, int length, boolean last) {
+        return () -> {
+            if (length == 0) {
+                return new byte[0];
+            }
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 4 + 64);
+            try (BZip2CompressorOutputStream bzip2 = new BZip2CompressorOutputStream(compressed, blockSize100k)) {
+                bzip2.write(block, 0, length);
+            }
+            return compressed.toByteArray();
+        };
+    }
+
+    @Override
+    protected void writeHeader(OutputStream out) throws IOException {
+        bits = new BitWriter(out);
+        bits.writeBits(8, 'B');
+        bits.writeBits(8, 'Z');
+        bits.writeBits(8, 'h');
+        bits.writeBits(8, '0' + blockSize100k);
+    }
+
+    /**
+     * Copies the single block of the given bzip2 stream to the output and adds its CRC to the combined CRC. The block
+     * ends where the end-of-stream marker starts, which is followed by the stream CRC and up to seven padding bits.
+     * With a single block, the stream CRC equals the block CRC, which pins down the position of the marker.
+     */
+    @Override
+    protected void writeBlock(OutputStream out, byte[] compressed) throws IOException {
+        if (compressed.length == 0) {
+            return;
+        }
+
+        int blockCrc = (int) BitWriter.readBits(compressed, STREAM_HEADER_BITS + MAGIC_BITS, CRC_BITS);
+        long totalBits = compressed.length * 8L;
+        long blockEnd = -1;
+        for (int padding = 0; padding < 8 && blockEnd < 0; padding++) {
+            long marker = totalBits - padding - CRC_BITS - MAGIC_BITS;
+            if (BitWriter.readBits(compressed, marker, MAGIC_BITS) == END_OF_STREAM_MAGIC
+                    && (int) BitWriter.readBits(compressed, marker + MAGIC_BITS, CRC_BITS) == blockCrc) {
+                blockEnd = marker;
+            }
+        }
+        if (blockEnd < 0 || BitWriter.readBits(compressed, STREAM_HEADER_BITS, MAGIC_BITS) != BLOCK_MAGIC) {
+            throw new IOException("Unexpected bzip2 stream produced by block encoder");
+        }
+
+        bits.writeBits(compressed, STREAM_HEADER_BITS, blockEnd - STREAM_HEADER_BITS);
+        combinedCrc = combineCrc(combinedCrc, blockCrc);
+    }
+
+    @Override
+    protected void writeTrailer(OutputStream out) throws IOException {
+        bits.writeBits(MAGIC_BITS, END_OF_STREAM_MAGIC);
+        bits.writeBits(CRC_BITS, combinedCrc);
+        bits.alignToByte();
+    }
+
+    /**
+     * Adds the CRC of the next block to the CRC of a bzip2 stream.
+     *
+     * @param combinedCrc the stream CRC of the preceding blocks
+     * @param blockCrc the CRC of the next block
+     * @return the stream CRC including the next block
+     */
+    static int combineCrc(int combinedCrc, int blockCrc) {
+        return Integer.rotateLeft(combinedCrc, 1) ^ blockCrc;
+    }
+}
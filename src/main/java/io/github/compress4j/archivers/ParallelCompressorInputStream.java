@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import jakarta.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Base class for decompressor streams that decode independent blocks of a compressed file on a pool of worker threads.
+ * <br>
+ * Subclasses hand out one decoding task per block in stream order through {@link #nextBlock()}. The tasks run
+ * concurrently, and their results are returned from this stream in that same order. The number of decoded blocks held
+ * in memory is bounded to twice the number of threads.
+ */
+abstract class ParallelCompressorInputStream extends InputStream {
+
+    private final ExecutorService executor;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    private final int maxPending;
+
+    private byte[] block = new byte[0];
+    private int position;
+    private boolean exhausted;
+    private boolean closed;
+
+    /**
+     * Creates a new parallel decompressor stream.
+     *
+     * @param threads the number of worker threads
+     * @param name the name used for the worker threads
+     */
+    protected ParallelCompressorInputStream(int threads, String name) {
+        this.executor = ThreadPools.newFixedThreadPool(threads, name);
+        this.maxPending = threads * 2;
+    }
+
+    /**
+     * Returns a task that decodes the next block of the stream, or null if there are no more blocks. Called on the
+     * reading thread, in stream order.
+     *
+     * @return a task returning the uncompressed bytes of the next block, or null at the end of the stream
+     * @throws IOException if an I/O error occurs while locating the next block
+     */
+    protected abstract Callable<byte[]> nextBlock() throws IOException;
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        while (position == block.length) {
+            if (!nextDecodedBlock()) {
+                return -1;
+            }
+        }
+
+        int n = Math.min(len, block.length - position);
+        System.arraycopy(block, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return block.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean nextDecodedBlock() throws IOException {
+        while (!exhausted && pending.size() < maxPending) {
+            Callable<byte[]> task = nextBlock();
+            if (task == null) {
+                exhausted = true;
+            } else {
+                pending.add(executor.submit(task));
+            }
+        }
+
+        if (pending.isEmpty()) {
+            return false;
+        }
+
+        block = ThreadPools.await(pending.remove());
+        position = 0;
+        return true;
+    }
+}
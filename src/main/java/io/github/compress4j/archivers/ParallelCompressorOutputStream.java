@@ -0,0 +1,245 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import jakarta.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Base class for compressor streams that split their input into fixed-size blocks and compress the blocks on a pool of
+ * worker threads. <br>
+ * Blocks are handed to {@link #compressBlock(byte[], int, boolean)} on the writing thread in input order, so that
+ * subclasses can keep sequential state such as checksums there, and the compressed results are written to the
+ * underlying stream in that same order. The number of blocks in flight is bounded to twice the number of threads.
+ * <br>
+ * Once a block fails to compress or to be written, the stream is broken: every further call fails, and
+ * {@link #finish()} neither compresses the remaining blocks nor writes the trailer, so that the output is not mistaken
+ * for a complete stream with a block missing.
+ */
+abstract class ParallelCompressorOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private final ExecutorService executor;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    private final int maxPending;
+    private final int blockSize;
+
+    private byte[] block;
+    private int blockLength;
+    private boolean headerWritten;
+    private boolean finished;
+    private boolean closed;
+    private IOException failure;
+
+    /**
+     * Creates a new parallel compressor stream.
+     *
+     * @param out the stream to write the compressed data to
+     * @param threads the number of worker threads
+     * @param blockSize the size of the uncompressed blocks
+     * @param name the name used for the worker threads
+     */
+    protected ParallelCompressorOutputStream(OutputStream out, int threads, int blockSize, String name) {
+        this.out = out;
+        this.executor = ThreadPools.newFixedThreadPool(threads, name);
+        this.maxPending = threads * 2;
+        this.blockSize = blockSize;
+        this.block = new byte[blockSize];
+    }
+
+    /**
+     * Prepares the compression of the given block. Called on the writing thread, in input order. The returned task is
+     * run on a worker thread and must return the compressed bytes of the block.
+     *
+     * @param block the uncompressed data, owned by the task from now on
+     * @param length the number of valid bytes in the block
+     * @param last true if this is the last block of the stream, in which case the block may be empty
+     * @return a task compressing the block
+     */
+    protected abstract Callable<byte[]> compressBlock(byte[] block, int length, boolean last);
+
+    /**
+     * Writes the stream header. Called once before the first compressed block is written.
+     *
+     * @param out the underlying stream
+     * @throws IOException if an I/O error occurs
+     */
+    protected void writeHeader(OutputStream out) throws IOException {
+        // no header by default
+    }
+
+    /**
+     * Writes a compressed block. Subclasses can override this if blocks can not simply be concatenated.
+     *
+     * @param out the underlying stream
+     * @param compressed the compressed bytes of the block
+     * @throws IOException if an I/O error occurs
+     */
+    protected void writeBlock(OutputStream out, byte[] compressed) throws IOException {
+        out.write(compressed);
+    }
+
+    /**
+     * Writes the stream trailer. Called once after the last compressed block is written.
+     *
+     * @param out the underlying stream
+     * @throws IOException if an I/O error occurs
+     */
+    protected void writeTrailer(OutputStream out) throws IOException {
+        // no trailer by default
+    }
+
+    /**
+     * Writes the lower four bytes of the given value in little-endian order, as used by gzip and XZ headers.
+     *
+     * @param out the stream to write to
+     * @param value the value to write
+     * @throws IOException if an I/O error occurs
+     */
+    protected static void writeInt(OutputStream out, long value) throws IOException {
+        out.write((int) (value & 0xff));
+        out.write((int) ((value >> 8) & 0xff));
+        out.write((int) ((value >> 16) & 0xff));
+        out.write((int) ((value >> 24) & 0xff));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(@Nonnull byte[] b, int off, int len) throws IOException {
+        assertOpen();
+
+        while (len > 0) {
+            int n = Math.min(len, blockSize - blockLength);
+            System.arraycopy(b, off, block, blockLength, n);
+            blockLength += n;
+            off += n;
+            len -= n;
+
+            if (blockLength == blockSize) {
+                submit(false);
+            }
+        }
+    }
+
+    /**
+     * Compresses the buffered data as a block of its own and writes all pending blocks to the underlying stream.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        assertOpen();
+
+        if (blockLength > 0) {
+            submit(false);
+        }
+        while (!pending.isEmpty()) {
+            writeNext();
+        }
+        out.flush();
+    }
+
+    /**
+     * Compresses the remaining data and writes the trailer, without closing the underlying stream. If a block failed
+     * before, the remaining blocks are discarded and the failure is rethrown instead.
+     *
+     * @throws IOException if an I/O error occurs, or a block failed before
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+
+        try {
+            assertOpen();
+            submit(true);
+            while (!pending.isEmpty()) {
+                writeNext();
+            }
+            writeHeaderOnce();
+            writeTrailer(out);
+        } finally {
+            finished = true;
+            for (Future<byte[]> future : pending) {
+                future.cancel(true);
+            }
+            pending.clear();
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            finish();
+        } finally {
+            closed = true;
+            out.close();
+        }
+    }
+
+    private void submit(boolean last) throws IOException {
+        pending.add(executor.submit(compressBlock(block, blockLength, last)));
+        block = last ? null : new byte[blockSize];
+        blockLength = 0;
+
+        while (pending.size() > maxPending) {
+            writeNext();
+        }
+    }
+
+    private void writeNext() throws IOException {
+        try {
+            byte[] compressed = ThreadPools.await(pending.remove());
+
+            writeHeaderOnce();
+            writeBlock(out, compressed);
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+    }
+
+    private void writeHeaderOnce() throws IOException {
+        if (!headerWritten) {
+            writeHeader(out);
+            headerWritten = true;
+        }
+    }
+
+    private void assertOpen() throws IOException {
+        if (closed || finished) {
+            throw new IOException("Stream closed");
+        }
+        if (failure != null) {
+            // a new exception, as try-with-resources can not add the failure to itself as suppressed
+            throw new IOException("A previous block failed, the compressed stream is incomplete", failure);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip compressor stream that deflates blocks of its input in parallel, in the manner of pigz. <br>
+ * Each block is deflated independently with the last 32 KiB of the preceding input as preset dictionary, and all but
+ * the last block are terminated with a sync flush, so the concatenated blocks form a single deflate stream. The output
+ * is a standard single-member gzip file that any gzip decoder can read.
+ */
+final class ParallelGzipCompressorOutputStream extends ParallelCompressorOutputStream {
+
+    /** Default size of the uncompressed blocks, matching pigz. */
+    static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final int level;
+    private final CRC32 crc = new CRC32();
+
+    private byte[] dictionary = new byte[0];
+    private long size;
+
+    /**
+     * Creates a new parallel gzip stream with the default block size and compression level.
+     *
+     * @param out the stream to write the compressed data to
+     * @param threads the number of worker threads
+     */
+    ParallelGzipCompressorOutputStream(OutputStream out, int threads) {
+        this(out, threads, DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates a new parallel gzip stream.
+     *
+     * @param out the stream to write the compressed data to
+     * @param threads the number of worker threads
+     * @param blockSize the size of the uncompressed blocks
+     * @param level the deflate compression level
+     */
+    ParallelGzipCompressorOutputStream(OutputStream out, int threads, int blockSize, int level) {
+        super(out, threads, blockSize, "gzip");
+        this.level = level;
+    }
+
+    @Override
+    protected Callable<byte[]> compressBlock(byte[] block, int length, boolean last) {
+        crc.update(block, 0, length);
+        size += length;
+
+        byte[] blockDictionary = dictionary;
+        dictionary = nextDictionary(blockDictionary, block, length);
+
+        return () -> deflate(block, length, blockDictionary, last);
+    }
+
+    @Override
+    protected void writeHeader(OutputStream out) throws IOException {
+        int extraFlags = 0;
+        if (level == Deflater.BEST_COMPRESSION) {
+            extraFlags = 2;
+        } else if (level == Deflater.BEST_SPEED) {
+            extraFlags = 4;
+        }
+
+        // magic, deflate, no flags, no modification time, extra flags, unknown OS
+        out.write(new byte[] {(byte) 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, (byte) extraFlags, (byte) 0xff});
+    }
+
+    @Override
+    protected void writeTrailer(OutputStream out) throws IOException {
+        writeInt(out, crc.getValue());
+        writeInt(out, size);
+    }
+
+    private byte[] deflate(byte[] block, int length, byte[] blockDictionary, boolean last) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (blockDictionary.length > 0) {
+                deflater.setDictionary(blockDictionary);
+            }
+            deflater.setInput(block, 0, length);
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                int n;
+                do {
+                    n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    compressed.write(buffer, 0, n);
+                } while (n == buffer.length);
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Returns the last {@value #DICTIONARY_SIZE} bytes of the given dictionary followed by the given block.
+     *
+     * @param dictionary the previous dictionary
+     * @param block the next block of input
+     * @param length the number of valid bytes in the block
+     * @return the dictionary for the block following the given one
+     */
+    private static byte[] nextDictionary(byte[] dictionary, byte[] block, int length) {
+        if (length >= DICTIONARY_SIZE) {
+            byte[] next = new byte[DICTIONARY_SIZE];
+            System.arraycopy(block, length - DICTIONARY_SIZE, next, 0, DICTIONARY_SIZE);
+            return next;
+        }
+
+        int keep = Math.min(dictionary.length, DICTIONARY_SIZE - length);
+        byte[] next = new byte[keep + length];
+        System.arraycopy(dictionary, dictionary.length - keep, next, 0, keep);
+        System.arraycopy(block, 0, next, keep, length);
+        return next;
+    }
+}
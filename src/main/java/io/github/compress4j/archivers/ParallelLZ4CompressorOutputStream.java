@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import org.apache.commons.codec.digest.XXHash32;
+import org.apache.commons.compress.compressors.lz4.BlockLZ4CompressorOutputStream;
+
+/**
+ * LZ4 compressor stream that compresses blocks of its input in parallel. <br>
+ * The output is a single LZ4 frame with independent blocks of at most 4 MiB, as written by
+ * {@link org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream} with its default parameters:
+ * every block is compressed by its own {@link BlockLZ4CompressorOutputStream}, and blocks that would grow are stored
+ * uncompressed. The frame ends with a checksum of the content, so any LZ4 decoder can read and verify it.
+ */
+final class ParallelLZ4CompressorOutputStream extends ParallelCompressorOutputStream {
+
+    /** Size of the uncompressed blocks, the largest block size of the LZ4 frame format. */
+    static final int BLOCK_SIZE = 4 * 1024 * 1024;
+
+    /** Heap needed per thread for the uncompressed and compressed blocks in flight. */
+    static final long MEMORY_PER_THREAD = 4L * BLOCK_SIZE;
+
+    private static final int MAGIC = 0x184D2204;
+    /** Version 1, independent blocks, content checksum. */
+    private static final int FLAGS = 0x40 | 0x20 | 0x04;
+    /** Maximum block size of 4 MiB. */
+    private static final int BLOCK_DESCRIPTOR = 7 << 4;
+    private static final int UNCOMPRESSED_FLAG = 0x80000000;
+
+    private final XXHash32 contentHash = new XXHash32();
+
+    /**
+     * Creates a new parallel LZ4 stream.
+     *
+     * @param out the stream to write the compressed data to
+     * @param threads the number of worker threads
+     */
+    ParallelLZ4CompressorOutputStream(OutputStream out, int threads) {
+        super(out, threads, BLOCK_SIZE, "lz4");
+    }
+
+    /** Returns a task producing the block with its size prefix, so the blocks can simply be concatenated. */
+    @Override
+    protected Callable<byte[]> compressBlock(byte[] block, int length, boolean last) {
+        contentHash.update(block, 0, length);
+
+        return () -> {
+            if (length == 0) {
+                return new byte[0];
+            }
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+            writeInt(compressed, 0);
+            try (BlockLZ4CompressorOutputStream lz4 = new BlockLZ4CompressorOutputStream(compressed)) {
+                lz4.write(block, 0, length);
+            }
+
+            int compressedLength = compressed.size() - 4;
+            if (compressedLength > length) {
+                ByteArrayOutputStream stored = new ByteArrayOutputStream(length + 4);
+                writeInt(stored, UNCOMPRESSED_FLAG | length);
+                stored.write(block, 0, length);
+                return stored.toByteArray();
+            }
+
+            byte[] result = compressed.toByteArray();
+            result[0] = (byte) compressedLength;
+            result[1] = (byte) (compressedLength >> 8);
+            result[2] = (byte) (compressedLength >> 16);
+            result[3] = (byte) (compressedLength >> 24);
+            return result;
+        };
+    }
+
+    @Override
+    protected void writeHeader(OutputStream out) throws IOException {
+        byte[] descriptor = {FLAGS, BLOCK_DESCRIPTOR};
+        XXHash32 headerHash = new XXHash32();
+        headerHash.update(descriptor, 0, descriptor.length);
+
+        writeInt(out, MAGIC);
+        out.write(descriptor);
+        out.write((int) (headerHash.getValue() >> 8) & 0xff);
+    }
+
+    @Override
+    protected void writeTrailer(OutputStream out) throws IOException {
+        writeInt(out, 0);
+        writeInt(out, contentHash.getValue());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.tukaani.xz.SeekableFileInputStream;
+import org.tukaani.xz.SeekableXZInputStream;
+
+/**
+ * XZ decompressor stream that decodes the blocks of a multi-block XZ file concurrently. <br>
+ * The block boundaries are taken from the XZ index at the end of the file. Each worker thread decodes whole blocks
+ * through its own {@link SeekableXZInputStream}, and the decoded blocks are returned in file order.
+ */
+final class ParallelXZCompressorInputStream extends ParallelCompressorInputStream {
+
+    /** Blocks larger than this are not decoded into memory, the file is decoded sequentially instead. */
+    private static final long MAX_BLOCK_SIZE = Integer.MAX_VALUE - 8L;
+
+    private final File file;
+    private final long[] blockSizes;
+    private final BlockingQueue<SeekableXZInputStream> decoders = new LinkedBlockingQueue<>();
+
+    private int nextBlock;
+    private volatile boolean closing;
+
+    private ParallelXZCompressorInputStream(File file, SeekableXZInputStream decoder, long[] blockSizes, int threads) {
+        super(threads, "xz");
+        this.file = file;
+        this.blockSizes = blockSizes;
+        this.decoders.add(decoder);
+    }
+
+    /**
+     * Opens the given XZ file for parallel decoding. Returns null if the file can not benefit from it, because it
+     * consists of a single block, a block is too large to be held in memory, or the memory budget only allows for one
+     * thread.
+     *
+     * @param file the XZ file to decode
+     * @param options the options holding the number of threads and the memory budget
+     * @return a new parallel decompressor stream, or null if the file should be decoded sequentially
+     * @throws IOException if the XZ index can not be read
+     */
+    static ParallelXZCompressorInputStream open(File file, CompressionOptions options) throws IOException {
+        SeekableXZInputStream decoder = new SeekableXZInputStream(new SeekableFileInputStream(file));
+
+        long[] blockSizes = new long[decoder.getBlockCount()];
+        long largest = 0;
+        for (int i = 0; i < blockSizes.length; i++) {
+            blockSizes[i] = decoder.getBlockSize(i);
+            largest = Math.max(largest, blockSizes[i]);
+        }
+
+        // decoded blocks in flight plus the decoder dictionary, which does not exceed the block size in practice
+        int threads = options.getThreads(3 * largest);
+        if (blockSizes.length < 2 || largest > MAX_BLOCK_SIZE || threads < 2) {
+            decoder.close();
+            return null;
+        }
+
+        return new ParallelXZCompressorInputStream(file, decoder, blockSizes, threads);
+    }
+
+    @Override
+    protected Callable<byte[]> nextBlock() {
+        if (nextBlock == blockSizes.length) {
+            return null;
+        }
+
+        int blockNumber = nextBlock++;
+        int size = (int) blockSizes[blockNumber];
+
+        return () -> {
+            SeekableXZInputStream decoder = acquireDecoder();
+            try {
+                decoder.seekToBlock(blockNumber);
+                byte[] block = new byte[size];
+                if (decoder.readNBytes(block, 0, size) != size) {
+                    throw new EOFException("Unexpected end of XZ block " + blockNumber + " in " + file);
+                }
+                return block;
+            } finally {
+                releaseDecoder(decoder);
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        closing = true;
+        super.close();
+        closeDecoders();
+    }
+
+    private SeekableXZInputStream acquireDecoder() throws IOException {
+        SeekableXZInputStream decoder = decoders.poll();
+        return decoder != null ? decoder : new SeekableXZInputStream(new SeekableFileInputStream(file));
+    }
+
+    private void releaseDecoder(SeekableXZInputStream decoder) throws IOException {
+        decoders.add(decoder);
+        if (closing) {
+            closeDecoders();
+        }
+    }
+
+    private void closeDecoders() throws IOException {
+        SeekableXZInputStream decoder;
+        while ((decoder = decoders.poll()) != null) {
+            decoder.close();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.zip.CRC32;
+import org.tukaani.xz.BasicArrayCache;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZ;
+import org.tukaani.xz.XZOutputStream;
+
+/**
+ * XZ compressor stream that encodes blocks of its input in parallel, in the manner of {@code xz -T}. <br>
+ * Every block is encoded independently by its own LZMA2 encoder, so the output is a single XZ stream containing
+ * multiple blocks and one index. Such files can be decoded by any XZ decoder, and their blocks can be decoded
+ * concurrently by {@link ParallelXZCompressorInputStream}.
+ */
+final class ParallelXZCompressorOutputStream extends ParallelCompressorOutputStream {
+
+    private static final byte[] HEADER_MAGIC = {(byte) 0xfd, '7', 'z', 'X', 'Z', 0};
+    private static final byte[] FOOTER_MAGIC = {'Y', 'Z'};
+    private static final int STREAM_HEADER_SIZE = 12;
+    private static final int STREAM_FOOTER_SIZE = 12;
+    private static final int CHECK_TYPE = XZ.CHECK_CRC64;
+
+    private final LZMA2Options options;
+    private final List<long[]> records = new ArrayList<>();
+
+    /**
+     * Creates a new parallel XZ stream.
+     *
+     * @param out the stream to write the compressed data to
+     * @param options the LZMA2 options used by every block encoder
+     * @param threads the number of worker threads
+     * @param blockSize the size of the uncompressed blocks
+     */
+    ParallelXZCompressorOutputStream(OutputStream out, LZMA2Options options, int threads, int blockSize) {
+        super(out, threads, blockSize, "xz");
+        this.options = options;
+    }
+
+    /**
+     * Creates a new parallel XZ stream with the preset, dictionary size and block size of the given options. Unless
+     * set, the block size is three times the dictionary size, and the number of threads is reduced to what fits into
+     * the memory budget of the options.
+     *
+     * @param out the stream to write the compressed data to
+     * @param options the options holding the preset, number of threads and memory budget
+     * @return a new parallel XZ stream
+     * @throws IOException if the LZMA2 options are not supported
+     */
+    static ParallelXZCompressorOutputStream create(OutputStream out, CompressionOptions options) throws IOException {
+        LZMA2Options lzma2Options = XZCompressorStreams.lzma2Options(options);
+        int blockSize = options.getBlockSize() > 0 ? options.getBlockSize() : defaultBlockSize(lzma2Options);
+        int threads = options.getThreads(memoryPerThread(lzma2Options, blockSize));
+
+        return new ParallelXZCompressorOutputStream(out, lzma2Options, threads, blockSize);
+    }
+
+    /**
+     * Returns the default block size for the given options, which is three times the dictionary size like
+     * {@code xz -T} uses.
+     *
+     * @param options the LZMA2 options
+     * @return the block size in bytes
+     */
+    static int defaultBlockSize(LZMA2Options options) {
+        return (int) Math.min(Integer.MAX_VALUE - 8L, 3L * options.getDictSize());
+    }
+
+    /**
+     * Returns the heap needed by one encoder thread: the LZMA2 encoder itself plus the blocks it has in flight.
+     *
+     * @param options the LZMA2 options
+     * @param blockSize the size of the uncompressed blocks
+     * @return the number of bytes needed per thread
+     */
+    static long memoryPerThread(LZMA2Options options, int blockSize) {
+        return options.getEncoderMemoryUsage() * 1024L + 3L * blockSize;
+    }
+
+    @Override
+    protected Callable<byte[]> compressBlock(byte[] block, int length, boolean last) {
+        LZMA2Options blockOptions = (LZMA2Options) options.clone();
+
+        return () -> {
+            if (length == 0) {
+                return new byte[0];
+            }
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 1024);
+            try (XZOutputStream xz =
+                    new XZOutputStream(compressed, blockOptions, CHECK_TYPE, BasicArrayCache.getInstance())) {
+                xz.write(block, 0, length);
+            }
+            return compressed.toByteArray();
+        };
+    }
+
+    @Override
+    protected void writeHeader(OutputStream out) throws IOException {
+        out.write(HEADER_MAGIC);
+        writeStreamFlagsWithCrc(out);
+    }
+
+    /**
+     * Copies the single block of the given XZ stream to the output and remembers its index record. The stream header,
+     * index and footer produced by the block encoder are dropped, as the blocks share one header and index.
+     */
+    @Override
+    protected void writeBlock(OutputStream out, byte[] compressed) throws IOException {
+        if (compressed.length == 0) {
+            return;
+        }
+
+        int footer = compressed.length - STREAM_FOOTER_SIZE;
+        int indexSize = (readInt(compressed, footer + 4) + 1) * 4;
+        int index = footer - indexSize;
+
+        int[] position = {index + 1};
+        long recordCount = readVarint(compressed, position);
+        if (recordCount != 1 || compressed[index] != 0) {
+            throw new IOException("Unexpected XZ index produced by block encoder");
+        }
+        long unpaddedSize = readVarint(compressed, position);
+        long uncompressedSize = readVarint(compressed, position);
+
+        out.write(compressed, STREAM_HEADER_SIZE, index - STREAM_HEADER_SIZE);
+        records.add(new long[] {unpaddedSize, uncompressedSize});
+    }
+
+    @Override
+    protected void writeTrailer(OutputStream out) throws IOException {
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        index.write(0);
+        writeVarint(index, records.size());
+        for (long[] record : records) {
+            writeVarint(index, record[0]);
+            writeVarint(index, record[1]);
+        }
+        while (index.size() % 4 != 0) {
+            index.write(0);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(index.toByteArray());
+        writeInt(index, crc.getValue());
+        index.writeTo(out);
+
+        ByteArrayOutputStream footer = new ByteArrayOutputStream(STREAM_FOOTER_SIZE);
+        writeInt(footer, index.size() / 4 - 1);
+        footer.write(0);
+        footer.write(CHECK_TYPE);
+        crc.reset();
+        crc.update(footer.toByteArray());
+        writeInt(out, crc.getValue());
+        footer.writeTo(out);
+        out.write(FOOTER_MAGIC);
+    }
+
+    private static void writeStreamFlagsWithCrc(OutputStream out) throws IOException {
+        byte[] flags = {0, CHECK_TYPE};
+        CRC32 crc = new CRC32();
+        crc.update(flags);
+        out.write(flags);
+        writeInt(out, crc.getValue());
+    }
+
+    private static int readInt(byte[] b, int off) {
+        return (b[off] & 0xff) | (b[off + 1] & 0xff) << 8 | (b[off + 2] & 0xff) << 16 | (b[off + 3] & 0xff) << 24;
+    }
+
+    private static long readVarint(byte[] b, int[] position) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 63; shift += 7) {
+            int next = b[position[0]++] & 0xff;
+            value |= (long) (next & 0x7f) << shift;
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid variable-length integer in XZ index");
+    }
+
+    private static void writeVarint(OutputStream out, long value) throws IOException {
+        while (value >= 0x80) {
+            out.write((int) (value | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import org.apache.commons.compress.archivers.zip.JarMarker;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+
+/**
+ * Zip archive stream that deflates the files added through {@link #addArchiveEntry(ZipArchiveEntry, File)} on a pool
+ * of worker threads. <br>
+ * Zip entries are compressed independently of each other, so every worker deflates a whole file into a scatter buffer
+ * that spills to a temporary file once it grows beyond {@value #SPILL_THRESHOLD} bytes. The compressed entries are
+ * written as raw entries in the order they were added, so the resulting archive is the same as the one written
+ * sequentially. Entries added through {@link #putArchiveEntry(ZipArchiveEntry)} are written after all pending entries.
+ */
+final class ParallelZipArchiveOutputStream extends ZipArchiveOutputStream {
+
+    /** Size of the compressed data of an entry that is kept in memory, larger entries are spilled to disk. */
+    static final int SPILL_THRESHOLD = 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExecutorService executor;
+    private final Deque<Future<CompressedEntry>> pending = new ArrayDeque<>();
+    private final int maxPending;
+    private final boolean jar;
+    private final int level;
+
+    private boolean jarMarkerAdded;
+
+    /**
+     * Creates a new parallel zip stream that deflates with the default level.
+     *
+     * @param out the stream to write the archive to
+     * @param threads the number of worker threads
+     * @param jar true to mark the archive as a jar file, like {@code JarArchiveOutputStream} does
+     */
+    ParallelZipArchiveOutputStream(OutputStream out, int threads, boolean jar) {
+        this(out, threads, jar, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates a new parallel zip stream.
+     *
+     * @param out the stream to write the archive to
+     * @param threads the number of worker threads
+     * @param jar true to mark the archive as a jar file, like {@code JarArchiveOutputStream} does
+     * @param level the deflate compression level
+     */
+    ParallelZipArchiveOutputStream(OutputStream out, int threads, boolean jar, int level) {
+        super(out);
+        this.executor = ThreadPools.newFixedThreadPool(threads, "zip");
+        this.maxPending = threads * 2;
+        this.jar = jar;
+        this.level = level;
+    }
+
+    /**
+     * Adds the given file to the archive. Regular files are deflated on a worker thread, and the entry is written once
+     * all entries added before it are written.
+     *
+     * @param entry the entry created for the file
+     * @param file the file to add
+     * @throws IOException if an I/O error occurs while writing an earlier entry
+     */
+    void addArchiveEntry(ZipArchiveEntry entry, File file) throws IOException {
+        while (pending.size() >= maxPending) {
+            writeNext();
+        }
+
+        if (entry.isDirectory()) {
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(0);
+            entry.setCompressedSize(0);
+            entry.setCrc(0);
+            pending.add(CompletableFuture.completedFuture(new CompressedEntry(entry, null)));
+        } else {
+            pending.add(executor.submit(() -> deflate(entry, file, level)));
+        }
+    }
+
+    @Override
+    public void putArchiveEntry(ZipArchiveEntry entry) throws IOException {
+        writePending();
+        addJarMarker(entry);
+        super.putArchiveEntry(entry);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writePending();
+        executor.shutdown();
+        super.finish();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            discardPending();
+        }
+    }
+
+    private void writePending() throws IOException {
+        while (!pending.isEmpty()) {
+            writeNext();
+        }
+    }
+
+    private void writeNext() throws IOException {
+        CompressedEntry compressed;
+        try {
+            compressed = ThreadPools.await(pending.remove());
+        } catch (IOException e) {
+            discardPending();
+            throw e;
+        }
+
+        try (InputStream data = compressed.open()) {
+            addJarMarker(compressed.entry);
+            addRawArchiveEntry(compressed.entry, data);
+        } finally {
+            compressed.delete();
+        }
+    }
+
+    private void addJarMarker(ZipArchiveEntry entry) {
+        if (jar && !jarMarkerAdded) {
+            entry.addAsFirstExtraField(JarMarker.getInstance());
+            jarMarkerAdded = true;
+        }
+    }
+
+    /** Waits for the entries still being compressed and deletes their temporary files. */
+    private void discardPending() {
+        executor.shutdown();
+        Future<CompressedEntry> future;
+        while ((future = pending.poll()) != null) {
+            try {
+                ThreadPools.await(future).delete();
+            } catch (IOException e) {
+                // the entry is discarded anyway
+            }
+        }
+    }
+
+    private static CompressedEntry deflate(ZipArchiveEntry entry, File file, int level) throws IOException {
+        DeferredFileOutputStream buffer = DeferredFileOutputStream.builder()
+                .setThreshold(SPILL_THRESHOLD)
+                .setPrefix("compress4j-zip")
+                .setSuffix(".tmp")
+                .get();
+        CRC32 crc = new CRC32();
+        Deflater deflater = new Deflater(level, true);
+        long size;
+
+        try (InputStream in = new CheckedInputStream(new FileInputStream(file), crc);
+                DeflaterOutputStream out = new DeflaterOutputStream(buffer, deflater, BUFFER_SIZE)) {
+            size = in.transferTo(out);
+        } catch (IOException e) {
+            new CompressedEntry(entry, buffer).delete();
+            throw e;
+        } finally {
+            deflater.end();
+        }
+
+        entry.setMethod(ZipEntry.DEFLATED);
+        entry.setSize(size);
+        entry.setCompressedSize(buffer.getByteCount());
+        entry.setCrc(crc.getValue());
+        return new CompressedEntry(entry, buffer);
+    }
+
+    /** A zip entry with its compressed data, held in memory or in a temporary file. */
+    private static final class CompressedEntry {
+
+        private final ZipArchiveEntry entry;
+        private final DeferredFileOutputStream data;
+
+        private CompressedEntry(ZipArchiveEntry entry, DeferredFileOutputStream data) {
+            this.entry = entry;
+            this.data = data;
+        }
+
+        InputStream open() throws IOException {
+            return data != null ? data.toInputStream() : InputStream.nullInputStream();
+        }
+
+        void delete() throws IOException {
+            if (data != null && !data.isInMemory()) {
+                Files.deleteIfExists(data.getFile().toPath());
+            }
+        }
+    }
+}
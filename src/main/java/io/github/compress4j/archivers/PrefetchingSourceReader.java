@@ -0,0 +1,254 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
+
+/**
+ * Walks the source files of a new archive and reads them ahead on a pool of worker threads, so that the thread writing
+ * the archive does not wait for directory listings, file attributes and file opens. <br>
+ * The subdirectories of a directory are listed by the workers as soon as the walk enters that directory, and the
+ * upcoming files are opened and read into pooled buffers of {@value #BUFFER_SIZE} bytes. The files are handed out by
+ * {@link #next()} in the same depth-first order in which {@link CommonsArchiver} writes them sequentially. At most four
+ * files per thread are read ahead, larger files are read from disk by the writing thread beyond their first buffer.
+ *
+ * @param <E> the type of the archive entries
+ */
+final class PrefetchingSourceReader<E extends ArchiveEntry> implements Closeable {
+
+    /** Size of the pooled buffers holding the start of every file read ahead. */
+    static final int BUFFER_SIZE = 256 * 1024;
+
+    private static final int FILES_AHEAD_PER_THREAD = 4;
+
+    private final ArchiveOutputStream<E> archive;
+    private final ExecutorService executor;
+    private final Deque<Iterator<Node>> walk = new ArrayDeque<>();
+    private final Deque<Future<PrefetchedFile<E>>> ahead = new ArrayDeque<>();
+    private final BlockingQueue<byte[]> buffers = new LinkedBlockingQueue<>();
+    private final int maxAhead;
+
+    private PrefetchedFile<E> current;
+
+    /**
+     * Creates a new reader and starts walking the given sources.
+     *
+     * @param archive the archive the entries are created for
+     * @param sources the files and directories to walk, each relative to its parent directory
+     * @param threads the number of worker threads
+     */
+    PrefetchingSourceReader(ArchiveOutputStream<E> archive, File[] sources, int threads) {
+        this.archive = archive;
+        this.executor = ThreadPools.newFixedThreadPool(threads, "prefetch");
+        this.maxAhead = threads * FILES_AHEAD_PER_THREAD;
+
+        List<Node> roots = new ArrayList<>(sources.length);
+        for (File source : sources) {
+            roots.add(new Node(source.getParentFile(), source, source.isDirectory()));
+        }
+        enter(roots);
+    }
+
+    /**
+     * Returns the next file or directory of the walk, with the archive entry already created. The file returned
+     * before is released, so its content must have been transferred.
+     *
+     * @return the next file, or null if all sources were walked
+     * @throws IOException if a directory can not be listed or a file can not be read
+     */
+    PrefetchedFile<E> next() throws IOException {
+        release();
+        fillAhead();
+
+        if (ahead.isEmpty()) {
+            return null;
+        }
+        current = ThreadPools.await(ahead.remove());
+        return current;
+    }
+
+    /** Waits for the files still being read ahead and closes them. */
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        release();
+        Future<PrefetchedFile<E>> future;
+        while ((future = ahead.poll()) != null) {
+            try {
+                ThreadPools.await(future).content.close();
+            } catch (IOException e) {
+                // the file is discarded anyway
+            }
+        }
+    }
+
+    private void release() throws IOException {
+        if (current != null) {
+            current.content.close();
+            if (current.buffer != null) {
+                buffers.add(current.buffer);
+            }
+            current = null;
+        }
+    }
+
+    private void fillAhead() throws IOException {
+        while (ahead.size() < maxAhead) {
+            Node node = nextNode();
+            if (node == null) {
+                return;
+            }
+            ahead.add(executor.submit(() -> prefetch(node)));
+        }
+    }
+
+    /** Advances the depth-first walk, waiting for the listing of a directory if it is not complete yet. */
+    private Node nextNode() throws IOException {
+        while (!walk.isEmpty()) {
+            Iterator<Node> siblings = walk.peek();
+            if (!siblings.hasNext()) {
+                walk.pop();
+                continue;
+            }
+
+            Node node = siblings.next();
+            if (node.directory) {
+                enter(ThreadPools.await(node.children));
+            }
+            return node;
+        }
+        return null;
+    }
+
+    private void enter(List<Node> nodes) {
+        for (Node node : nodes) {
+            if (node.directory) {
+                node.children = executor.submit(node::listChildren);
+            }
+        }
+        walk.push(nodes.iterator());
+    }
+
+    private PrefetchedFile<E> prefetch(Node node) throws IOException {
+        E entry = archive.createArchiveEntry(node.file, node.entryName);
+        if (entry.isDirectory()) {
+            return new PrefetchedFile<>(entry, InputStream.nullInputStream(), null);
+        }
+
+        byte[] buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = new byte[BUFFER_SIZE];
+        }
+
+        InputStream file = new FileInputStream(node.file);
+        try {
+            int length = file.readNBytes(buffer, 0, buffer.length);
+            InputStream start = new ByteArrayInputStream(buffer, 0, length);
+            if (length < buffer.length) {
+                file.close();
+                return new PrefetchedFile<>(entry, start, buffer);
+            }
+            return new PrefetchedFile<>(entry, new SequenceInputStream(start, file), buffer);
+        } catch (IOException e) {
+            file.close();
+            buffers.add(buffer);
+            throw e;
+        }
+    }
+
+    /** A file of the walk. The children of directories are listed on a worker thread. */
+    private static final class Node {
+
+        private final File parent;
+        private final File file;
+        private final String entryName;
+        private final boolean directory;
+
+        private Future<List<Node>> children;
+
+        private Node(File parent, File file, boolean directory) {
+            this.parent = parent;
+            this.file = file;
+            this.entryName = CommonsArchiver.getRelativePath(parent, file);
+            this.directory = directory;
+        }
+
+        private List<Node> listChildren() {
+            File[] files = Objects.requireNonNull(file.listFiles());
+            if (files.length == 0) {
+                return Collections.emptyList();
+            }
+
+            List<Node> nodes = new ArrayList<>(files.length);
+            for (File child : files) {
+                nodes.add(new Node(parent, child, child.isDirectory()));
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * A file read ahead for the archive, with its archive entry and its content.
+     *
+     * @param <E> the type of the archive entry
+     */
+    static final class PrefetchedFile<E extends ArchiveEntry> {
+
+        private final E entry;
+        private final InputStream content;
+        private final byte[] buffer;
+
+        private PrefetchedFile(E entry, InputStream content, byte[] buffer) {
+            this.entry = entry;
+            this.content = content;
+            this.buffer = buffer;
+        }
+
+        E getEntry() {
+            return entry;
+        }
+
+        /**
+         * Copies the content of the file to the given stream. Directories have no content.
+         *
+         * @param out the stream to copy the content to
+         * @throws IOException if an I/O error occurs
+         */
+        void transferTo(OutputStream out) throws IOException {
+            content.transferTo(out);
+        }
+    }
+}
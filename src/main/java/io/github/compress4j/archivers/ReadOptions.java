@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+/**
+ * Options for reading archives, kept by an archiver across calls. Instances are immutable and created with
+ * {@link #builder()}. <br>
+ * Unlike {@link CompressionOptions}, which tune how data is compressed and decompressed, these options hold state
+ * shared between reads: a cache of entry content and a pool of open archive files. Both are disabled by default, so
+ * passing {@link #DEFAULT} is the same as passing no options at all.
+ */
+public final class ReadOptions {
+
+    /** Options that neither cache entries nor pool archive files. */
+    public static final ReadOptions DEFAULT = builder().build();
+
+    private final EntryCache entryCache;
+    private final ArchiveHandlePool handlePool;
+
+    private ReadOptions(Builder builder) {
+        this.entryCache = builder.entryCache;
+        this.handlePool = builder.handlePool;
+    }
+
+    /**
+     * Creates a new builder initialised with the default options.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the cache that {@link Archiver#readEntry(java.io.File, String)} serves entry content from, or null if
+     * entry content is not cached.
+     *
+     * @return the entry cache, or null if caching is disabled
+     */
+    public EntryCache getEntryCache() {
+        return entryCache;
+    }
+
+    /**
+     * Returns the pool that zip, jar and 7z files are opened from for reading, or null if they are opened on every
+     * read.
+     *
+     * @return the handle pool, or null if pooling is disabled
+     */
+    public ArchiveHandlePool getHandlePool() {
+        return handlePool;
+    }
+
+    /** Builder for {@link ReadOptions}. */
+    public static final class Builder {
+
+        private EntryCache entryCache;
+        private ArchiveHandlePool handlePool;
+
+        private Builder() {}
+
+        /**
+         * Enables caching the content of the entries read with {@link Archiver#readEntry(java.io.File, String)} in the
+         * given cache. The cache may be shared with the options of other archivers. Archivers of compressed tar files
+         * ignore this setting.
+         *
+         * @param entryCache the cache to serve entry content from
+         * @return this builder
+         * @throws IllegalArgumentException if the cache is null
+         */
+        public Builder setEntryCache(EntryCache entryCache) {
+            if (entryCache == null) {
+                throw new IllegalArgumentException("Entry cache is null");
+            }
+            this.entryCache = entryCache;
+            return this;
+        }
+
+        /**
+         * Enables keeping zip, jar and 7z files open in the given pool, so that repeated reads of the same archive
+         * do not parse its central directory or header again. The pool may be shared with the options of other
+         * archivers. Other formats ignore this setting.
+         *
+         * @param handlePool the pool to open archives from
+         * @return this builder
+         * @throws IllegalArgumentException if the pool is null
+         */
+        public Builder setHandlePool(ArchiveHandlePool handlePool) {
+            if (handlePool == null) {
+                throw new IllegalArgumentException("Handle pool is null");
+            }
+            this.handlePool = handlePool;
+            return this;
+        }
+
+        /**
+         * Creates the {@link ReadOptions} from the values of this builder.
+         *
+         * @return new read options
+         */
+        public ReadOptions build() {
+            return new ReadOptions(this);
+        }
+    }
+}
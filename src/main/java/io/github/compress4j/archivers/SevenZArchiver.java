@@ -20,6 +20,10 @@ import io.github.compress4j.utils.ExcludeFromJacocoGeneratedReport;
 import jakarta.annotation.Nonnull;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.CopyOption;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
 import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
@@ -30,7 +34,12 @@ import org.apache.commons.compress.archivers.sevenz.SevenZOutputFile;
  * Archiver to handle 7z archives. commons-compress does not handle 7z over ArchiveStreams, so we need this custom
  * implementation. <br>
  * Basically this could disperse by adapting the CommonsStreamFactory, but this seemed more convenient as we also have
- * both Input and Output stream wrappers capsuled here.
+ * both Input and Output stream wrappers capsuled here. <br>
+ * A 7z file compresses its entries in folders, each decoded as a whole. {@link SevenZFile} decodes a folder only once
+ * data of one of its entries is read, so extracting with an {@link EntryFilter} never decompresses the folders that
+ * hold no accepted entry, and stops after the last accepted entry. <br>
+ * Listing and reading single entries open the archive from the {@link ArchiveHandlePool} of the read options, if
+ * they have one. Streams and extraction read the archive once from start to end, and always open it on their own.
  */
 class SevenZArchiver extends CommonsArchiver<SevenZArchiveEntry> {
 
@@ -38,6 +47,82 @@ class SevenZArchiver extends CommonsArchiver<SevenZArchiveEntry> {
         super(ArchiveFormat.SEVEN_Z);
     }
 
+    SevenZArchiver(CompressionOptions options, ReadOptions readOptions) {
+        super(ArchiveFormat.SEVEN_Z, options, readOptions);
+    }
+
+    @Override
+    public void extract(File archive, File destination, EntryFilter filter, CopyOption... options)
+            throws IOException {
+        assertExtractSource(archive);
+
+        IOUtils.requireDirectory(destination);
+
+        ArchiverDependencyChecker.checkLZMA();
+        ExtractionContext context = new ExtractionContext(destination);
+        try (SevenZInputStream input = new SevenZInputStream(SevenZFile.builder().setFile(archive).get())) {
+            int remaining = 0;
+            for (SevenZArchiveEntry entry : input.file.getEntries()) {
+                if (filter.accept(entry.getName())) {
+                    remaining++;
+                }
+            }
+
+            SevenZArchiveEntry entry;
+            while (remaining > 0 && (entry = input.getNextEntry()) != null) {
+                if (filter.accept(entry.getName())) {
+                    context.copy(input, entry, options);
+                    remaining--;
+                }
+            }
+        }
+        context.applyMetadata();
+    }
+
+    /** Lists the entries from the header of the archive, without decoding any folder. */
+    @Override
+    public List<ArchiveEntryInfo> list(File archive) throws IOException {
+        assertExtractSource(archive);
+
+        try (ArchiveHandlePool.Lease<SevenZFile> lease = openSevenZFile(archive)) {
+            List<ArchiveEntryInfo> entries = new ArrayList<>();
+            for (SevenZArchiveEntry entry : lease.get().getEntries()) {
+                entries.add(ArchiveEntryInfo.of(entry));
+            }
+            return entries;
+        }
+    }
+
+    /** Reads the entry through the header of the archive. Only the folder holding the entry is decoded. */
+    @Override
+    byte[] loadEntry(File archive, String entryName) throws IOException {
+        try (ArchiveHandlePool.Lease<SevenZFile> lease = openSevenZFile(archive)) {
+            SevenZFile sevenZFile = lease.get();
+            for (SevenZArchiveEntry entry : sevenZFile.getEntries()) {
+                if (entry.getName().equals(entryName)) {
+                    try (InputStream in = sevenZFile.getInputStream(entry)) {
+                        return in.readAllBytes();
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Opens the given 7z file for random access to its entries, from the handle pool of the read options if they have
+     * one.
+     * A 7z file decodes through state of its own, so every lease gets a handle no other thread uses meanwhile.
+     */
+    private ArchiveHandlePool.Lease<SevenZFile> openSevenZFile(File archive) throws IOException {
+        ArchiverDependencyChecker.checkLZMA();
+        ArchiveHandlePool pool = getReadOptions().getHandlePool();
+        if (pool == null) {
+            return ArchiveHandlePool.Lease.of(SevenZFile.builder().setFile(archive).get());
+        }
+        return pool.acquire(archive, false, file -> SevenZFile.builder().setFile(file).get());
+    }
+
     @Override
     protected ArchiveOutputStream<SevenZArchiveEntry> createArchiveOutputStream(File archive) throws IOException {
         ArchiverDependencyChecker.checkLZMA();
@@ -75,10 +160,14 @@ class SevenZArchiver extends CommonsArchiver<SevenZArchiveEntry> {
         }
     }
 
-    /** Wraps a SevenZOutputFile to make it usable as an ArchiveOutputStream. */
+    /**
+     * Wraps a SevenZOutputFile to make it usable as an ArchiveOutputStream. Writes check for cancellation of the
+     * {@link AsyncOperation} of the thread that created the stream.
+     */
     static class SevenZOutputStream extends ArchiveOutputStream<SevenZArchiveEntry> {
 
         private final SevenZOutputFile file;
+        private final AsyncOperation operation = AsyncOperation.current();
 
         public SevenZOutputStream(SevenZOutputFile file) {
             this.file = file;
@@ -113,19 +202,25 @@ class SevenZArchiver extends CommonsArchiver<SevenZArchiveEntry> {
         @ExcludeFromJacocoGeneratedReport
         @Override
         public void write(int b) throws IOException {
+            operation.checkCancelled();
             file.write(b);
+            operation.written(1);
         }
 
         @ExcludeFromJacocoGeneratedReport
         @Override
         public void write(@SuppressWarnings("NullableProblems") byte[] b) throws IOException {
+            operation.checkCancelled();
             file.write(b);
+            operation.written(b.length);
         }
 
         @SuppressWarnings("NullableProblems")
         @Override
         public void write(byte[] b, int off, int len) throws IOException {
+            operation.checkCancelled();
             file.write(b, off, len);
+            operation.written(len);
         }
 
         @Override
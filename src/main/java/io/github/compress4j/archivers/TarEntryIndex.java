@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.commons.compress.archivers.tar.TarConstants;
+
+/**
+ * Index of the entries of a compressed tar file, which maps the name of every entry to the offset of its first header
+ * in the uncompressed tar data. {@link Archiver#stream(File, String)} uses it to start reading at an entry without
+ * decompressing the archive from its start. <br>
+ * An index records the size and modification time of the archive it was built for, and must not be used once they
+ * change. Instances are immutable and can be shared between threads.
+ */
+abstract class TarEntryIndex {
+
+    private final File archive;
+    private final long archiveLength;
+    private final long archiveLastModified;
+    private final Map<String, Long> entries;
+
+    /**
+     * Creates a new index.
+     *
+     * @param archive the archive the index was built for
+     * @param archiveLength the size of the archive when the index was built
+     * @param archiveLastModified the modification time of the archive when the index was built
+     * @param entries the offset of the first header of every entry by entry name
+     */
+    TarEntryIndex(File archive, long archiveLength, long archiveLastModified, Map<String, Long> entries) {
+        this.archive = archive.getAbsoluteFile();
+        this.archiveLength = archiveLength;
+        this.archiveLastModified = archiveLastModified;
+        this.entries = entries;
+    }
+
+    /**
+     * Opens the uncompressed tar data of the given archive at the first header of the given entry. If the archive
+     * holds several entries of that name, the first one is used.
+     *
+     * @param archive the archive this index was built for
+     * @param entryName the name of the entry
+     * @return a stream of the tar data starting at the entry, or null if there is no such entry
+     * @throws IOException if the archive or the index can not be read
+     */
+    abstract InputStream open(File archive, String entryName) throws IOException;
+
+    /**
+     * Returns true if this index was built for the given archive, and the archive has not changed since.
+     *
+     * @param archive the compressed tar file
+     * @return true if this index can be used for the archive
+     */
+    boolean isValidFor(File archive) {
+        return this.archive.equals(archive.getAbsoluteFile())
+                && archiveLength == archive.length()
+                && archiveLastModified == archive.lastModified();
+    }
+
+    /**
+     * Returns the offset of the first header of the given entry in the uncompressed tar data.
+     *
+     * @param entryName the name of the entry
+     * @return the offset of the entry, or null if there is no such entry
+     */
+    Long getEntryOffset(String entryName) {
+        return entries.get(entryName);
+    }
+
+    /**
+     * Returns the offset of the tar record following the given offset, or the offset itself if a record starts there.
+     *
+     * @param offset an offset in the uncompressed tar data
+     * @return the offset rounded up to a multiple of the record size
+     */
+    static long nextRecord(long offset) {
+        long recordSize = TarConstants.DEFAULT_RCDSIZE;
+        return (offset + recordSize - 1) / recordSize * recordSize;
+    }
+
+    /**
+     * Writes the given entry offsets to an index file.
+     *
+     * @param out the index file
+     * @param entries the offsets of the entries by entry name
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeEntries(DataOutput out, Map<String, Long> entries) throws IOException {
+        out.writeInt(entries.size());
+        for (Map.Entry<String, Long> entry : entries.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    /**
+     * Reads entry offsets written by {@link #writeEntries(DataOutput, Map)}.
+     *
+     * @param in the index file
+     * @return the offsets of the entries by entry name
+     * @throws IOException if an I/O error occurs
+     */
+    static Map<String, Long> readEntries(DataInput in) throws IOException {
+        int count = in.readInt();
+        Map<String, Long> entries = new HashMap<>(count * 4 / 3 + 1);
+        for (int i = 0; i < count; i++) {
+            entries.putIfAbsent(in.readUTF(), in.readLong());
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.CopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarFile;
+
+/**
+ * Archiver that overwrites the extraction of uncompressed tar files. The entry data of a tar file is stored as is, so
+ * instead of streaming it through a {@link org.apache.commons.compress.archivers.tar.TarArchiveInputStream}, the data
+ * of each file entry is transferred from the archive to the extracted file with
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}. On most platforms the bytes then
+ * never enter the Java heap. <br>
+ * Sparse entries, whose data has to be expanded, are still extracted through a stream. {@link TarFile} reads only the
+ * headers of the archive, so entries rejected by an {@link EntryFilter} cost no more than reading their header, and
+ * {@link #list(File)} seeks from header to header without reading any entry data.
+ */
+class TarFileArchiver extends CommonsArchiver<TarArchiveEntry> {
+
+    TarFileArchiver(CompressionOptions options, ReadOptions readOptions) {
+        super(ArchiveFormat.TAR, options, readOptions);
+    }
+
+    @Override
+    public void extract(File archive, File destination, EntryFilter filter, CopyOption... options)
+            throws IOException {
+        assertExtractSource(archive);
+
+        IOUtils.requireDirectory(destination);
+
+        ExtractionContext context = new ExtractionContext(destination);
+        try (TarFile tarFile = new TarFile(archive);
+                FileChannel channel = FileChannel.open(archive.toPath(), StandardOpenOption.READ)) {
+            for (TarArchiveEntry entry : tarFile.getEntries()) {
+                if (!filter.accept(entry.getName())) {
+                    continue;
+                }
+                if (entry.isSparse()) {
+                    try (InputStream in = tarFile.getInputStream(entry)) {
+                        context.copy(in, entry, options);
+                    }
+                } else {
+                    context.transfer(channel, entry.getDataOffset(), entry.getSize(), entry, options);
+                }
+            }
+        }
+        context.applyMetadata();
+    }
+
+    @Override
+    public List<ArchiveEntryInfo> list(File archive) throws IOException {
+        assertExtractSource(archive);
+
+        try (TarFile tarFile = new TarFile(archive)) {
+            List<ArchiveEntryInfo> entries = new ArrayList<>();
+            for (TarArchiveEntry entry : tarFile.getEntries()) {
+                entries.add(ArchiveEntryInfo.of(entry));
+            }
+            return entries;
+        }
+    }
+}
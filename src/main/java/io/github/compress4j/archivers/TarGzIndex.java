@@ -0,0 +1,374 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import io.github.compress4j.archivers.CheckpointInflaterInputStream.Checkpoint;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+
+/**
+ * Index of a gzip compressed tar file that allows reading an entry without decompressing everything before it. <br>
+ * The index records a checkpoint of the gzip decoder about every {@link #DEFAULT_SPACING} bytes of the tar file, and
+ * the offset of every entry in the tar file. To read an entry, decoding resumes at the last checkpoint before the
+ * entry, so at most one spacing worth of data is decoded and skipped. <br>
+ * The index is stored next to the archive in a file with the {@value #FILE_EXTENSION} extension, see
+ * {@link #build(File)}. It records the size and modification time of the archive and is ignored once the archive
+ * changes. Archivers created for tar.gz by {@link ArchiverFactory} use the index in
+ * {@link Archiver#stream(File, String)} whenever it is present.
+ */
+public final class TarGzIndex extends TarEntryIndex {
+
+    /** The default number of uncompressed bytes between two checkpoints. */
+    public static final long DEFAULT_SPACING = 1024 * 1024;
+
+    /** The extension appended to the name of the archive to name its index file. */
+    public static final String FILE_EXTENSION = ".index";
+
+    private static final int MAGIC = 0x43344a49;
+    private static final int VERSION = 1;
+    private static final int TRAILER_SIZE = 12;
+
+    private final long[] offsets;
+    private final int[] bits;
+    private final long[] bytesDecoded;
+    private final long[] windowPositions;
+    private final int[] windowLengths;
+
+    private TarGzIndex(
+            File archive,
+            long archiveLength,
+            long archiveLastModified,
+            long[] offsets,
+            int[] bits,
+            long[] bytesDecoded,
+            long[] windowPositions,
+            int[] windowLengths,
+            Map<String, Long> entries) {
+        super(archive, archiveLength, archiveLastModified, entries);
+        this.offsets = offsets;
+        this.bits = bits;
+        this.bytesDecoded = bytesDecoded;
+        this.windowPositions = windowPositions;
+        this.windowLengths = windowLengths;
+    }
+
+    /**
+     * Builds the index of the given tar.gz file with checkpoints every {@link #DEFAULT_SPACING} bytes, and stores it in
+     * the file returned by {@link #getIndexFile(File)}.
+     *
+     * @param archive the tar.gz file to index
+     * @return the index file
+     * @throws IOException if the archive can not be read or the index can not be written
+     */
+    public static File build(File archive) throws IOException {
+        return build(archive, DEFAULT_SPACING);
+    }
+
+    /**
+     * Builds the index of the given tar.gz file with checkpoints every {@code spacing} bytes, and stores it in the file
+     * returned by {@link #getIndexFile(File)}. The whole archive is decompressed once. Every checkpoint takes up to 32
+     * KiB of compressed window data in the index, so smaller spacings trade index size for faster access.
+     *
+     * @param archive the tar.gz file to index
+     * @param spacing the number of uncompressed bytes between two checkpoints
+     * @return the index file
+     * @throws IllegalArgumentException if the spacing is not positive
+     * @throws IOException if the archive can not be read or the index can not be written
+     */
+    public static File build(File archive, long spacing) throws IOException {
+        if (spacing <= 0) {
+            throw new IllegalArgumentException("Spacing must be positive, was " + spacing);
+        }
+
+        File indexFile = getIndexFile(archive);
+        File temporary = File.createTempFile(indexFile.getName(), ".tmp", indexFile.getAbsoluteFile().getParentFile());
+        try {
+            writeIndex(archive, temporary, spacing);
+            Files.move(temporary.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary.toPath());
+        }
+        return indexFile;
+    }
+
+    /**
+     * Returns the file that holds the index of the given archive.
+     *
+     * @param archive the tar.gz file
+     * @return the index file, which may not exist
+     */
+    public static File getIndexFile(File archive) {
+        return new File(archive.getPath() + FILE_EXTENSION);
+    }
+
+    /**
+     * Reads the index of the given archive, skipping the windows of the checkpoints, which are read when needed.
+     *
+     * @param archive the tar.gz file
+     * @return the index, or null if there is no index file or it was built for a different version of the archive
+     * @throws IOException if the index file can not be read
+     */
+    static TarGzIndex read(File archive) throws IOException {
+        File indexFile = getIndexFile(archive);
+        if (!indexFile.isFile()) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+            readFully(channel, trailer, channel.size() - TRAILER_SIZE);
+            long tablePosition = trailer.getLong(0);
+            if (trailer.getInt(8) != MAGIC) {
+                throw new IOException("Not a tar.gz index: " + indexFile);
+            }
+
+            DataInputStream table = new DataInputStream(
+                    new BufferedInputStream(Channels.newInputStream(channel.position(tablePosition))));
+            long length = table.readLong();
+            long lastModified = table.readLong();
+            if (length != archive.length() || lastModified != archive.lastModified()) {
+                return null;
+            }
+
+            int checkpoints = table.readInt();
+            long[] offsets = new long[checkpoints];
+            int[] bits = new int[checkpoints];
+            long[] bytesDecoded = new long[checkpoints];
+            long[] windowPositions = new long[checkpoints];
+            int[] windowLengths = new int[checkpoints];
+            for (int i = 0; i < checkpoints; i++) {
+                offsets[i] = table.readLong();
+                bits[i] = table.readByte();
+                bytesDecoded[i] = table.readLong();
+                windowPositions[i] = table.readLong();
+                windowLengths[i] = table.readInt();
+            }
+
+            return new TarGzIndex(
+                    archive,
+                    length,
+                    lastModified,
+                    offsets,
+                    bits,
+                    bytesDecoded,
+                    windowPositions,
+                    windowLengths,
+                    readEntries(table));
+        }
+    }
+
+    @Override
+    InputStream open(File archive, String entryName) throws IOException {
+        Long entryOffset = getEntryOffset(entryName);
+        if (entryOffset == null) {
+            return null;
+        }
+
+        int checkpoint = floorCheckpoint(entryOffset);
+        CheckpointInflaterInputStream stream;
+        if (checkpoint < 0) {
+            stream = new CheckpointInflaterInputStream(Files.newInputStream(archive.toPath()));
+        } else {
+            Checkpoint resumeAt = new Checkpoint(
+                    offsets[checkpoint], bits[checkpoint], bytesDecoded[checkpoint], readWindow(archive, checkpoint));
+            FileChannel channel = FileChannel.open(archive.toPath(), StandardOpenOption.READ);
+            try {
+                stream = new CheckpointInflaterInputStream(
+                        Channels.newInputStream(channel.position(resumeAt.getOffset())), resumeAt);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        try {
+            long toSkip = entryOffset - stream.getBytesDecoded();
+            if (stream.skip(toSkip) != toSkip) {
+                throw new EOFException("Unexpected end of " + archive + " before entry " + entryName);
+            }
+        } catch (IOException | RuntimeException e) {
+            stream.close();
+            throw e;
+        }
+        return stream;
+    }
+
+    private int floorCheckpoint(long entryOffset) {
+        int low = 0;
+        int high = bytesDecoded.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (bytesDecoded[middle] <= entryOffset) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    private byte[] readWindow(File archive, int checkpoint) throws IOException {
+        ByteBuffer compressed = ByteBuffer.allocate(windowLengths[checkpoint]);
+        try (FileChannel channel = FileChannel.open(getIndexFile(archive).toPath(), StandardOpenOption.READ)) {
+            readFully(channel, compressed, windowPositions[checkpoint]);
+        }
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed.array());
+            byte[] window =
+                    new byte[(int) Math.min(bytesDecoded[checkpoint], CheckpointInflaterInputStream.WINDOW_SIZE)];
+            int length = 0;
+            while (length < window.length && !inflater.finished()) {
+                int n = inflater.inflate(window, length, window.length - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != window.length) {
+                throw new EOFException("Truncated window of checkpoint " + checkpoint + " in index of " + archive);
+            }
+            return window;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt index of " + archive, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Writes the index file: a header, the deflated windows of all checkpoints in the order they are recorded, the
+     * table of checkpoints and entries, and a trailer pointing to the table.
+     */
+    private static void writeIndex(File archive, File indexFile, long spacing) throws IOException {
+        List<long[]> checkpoints = new ArrayList<>();
+        Map<String, Long> entries = new LinkedHashMap<>();
+        long length = archive.length();
+        long lastModified = archive.lastModified();
+
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(indexFile.toPath()));
+                CheckpointInflaterInputStream gzip =
+                        new CheckpointInflaterInputStream(Files.newInputStream(archive.toPath()))) {
+            DataOutputStream out = new DataOutputStream(file);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            long[] position = {8};
+
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            try {
+                gzip.recordCheckpoints(spacing, checkpoint -> {
+                    byte[] window = deflate(deflater, checkpoint.getWindow());
+                    out.write(window);
+                    checkpoints.add(new long[] {
+                        checkpoint.getOffset(),
+                        checkpoint.getBits(),
+                        checkpoint.getBytesDecoded(),
+                        position[0],
+                        window.length
+                    });
+                    position[0] += window.length;
+                });
+                scanEntries(gzip, entries);
+            } finally {
+                deflater.end();
+            }
+
+            long tablePosition = position[0];
+            out.writeLong(length);
+            out.writeLong(lastModified);
+            out.writeInt(checkpoints.size());
+            for (long[] checkpoint : checkpoints) {
+                out.writeLong(checkpoint[0]);
+                out.writeByte((int) checkpoint[1]);
+                out.writeLong(checkpoint[2]);
+                out.writeLong(checkpoint[3]);
+                out.writeInt((int) checkpoint[4]);
+            }
+            writeEntries(out, entries);
+            out.writeLong(tablePosition);
+            out.writeInt(MAGIC);
+            out.flush();
+        }
+    }
+
+    /**
+     * Reads the tar data of the given stream to its end and collects the offset of the first header of every entry in
+     * the tar data. The offsets are derived from the number of bytes the tar stream consumed, as it
+     * reads headers and data in whole records without reading ahead.
+     */
+    private static void scanEntries(CheckpointInflaterInputStream gzip, Map<String, Long> entries) throws IOException {
+        TarArchiveInputStream tar = new TarArchiveInputStream(gzip);
+        byte[] scratch = new byte[64 * 1024];
+        long headerOffset = 0;
+        TarArchiveEntry entry;
+        while ((entry = tar.getNextEntry()) != null) {
+            entries.putIfAbsent(entry.getName(), headerOffset);
+            while (tar.read(scratch) != -1) {
+                // skip the entry data
+            }
+            headerOffset = nextRecord(gzip.getBytesDecoded());
+        }
+        // decode the rest of the archive to verify the checksum of the last member
+        while (gzip.read(scratch) != -1) {
+            // skip the end of archive records
+        }
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] window) {
+        deflater.reset();
+        deflater.setInput(window);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(window.length / 2 + 64);
+        byte[] buffer = new byte[8 * 1024];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        return compressed.toByteArray();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                throw new EOFException("Unexpected end of index file");
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import io.github.compress4j.utils.ArchiverDependencyChecker;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.tukaani.xz.SeekableFileInputStream;
+import org.tukaani.xz.SeekableXZInputStream;
+
+/**
+ * Index of an XZ compressed tar file that allows reading an entry without decompressing everything before it. <br>
+ * XZ files carry an index of their blocks, through which {@link SeekableXZInputStream} seeks to any uncompressed
+ * offset by decoding only from the start of the block containing it. This index adds the offset of every tar entry, so
+ * reading an entry decodes at most one block worth of data before it. Files written on several threads, see
+ * {@link CompressionOptions.Builder#setThreads(int)}, or by {@code xz -T}, consist of many blocks; files made of a
+ * single block gain nothing. <br>
+ * Building the index reads the tar headers and seeks over the entry data, so only the blocks holding headers are
+ * decoded. Archivers created for tar.xz by {@link ArchiverFactory} build the index in memory on the first call of
+ * {@link Archiver#stream(File, String)} for an archive, unless it was stored next to the archive in a file with the
+ * {@value #FILE_EXTENSION} extension by {@link #build(File)}. Every stream opened through the index decodes on its own,
+ * so different threads can read disjoint entries of the same archive concurrently.
+ */
+public final class TarXzIndex extends TarEntryIndex {
+
+    /** The extension appended to the name of the archive to name its index file. */
+    public static final String FILE_EXTENSION = ".index";
+
+    private static final int MAGIC = 0x43344a58;
+    private static final int VERSION = 1;
+
+    private TarXzIndex(File archive, long archiveLength, long archiveLastModified, Map<String, Long> entries) {
+        super(archive, archiveLength, archiveLastModified, entries);
+    }
+
+    /**
+     * Builds the index of the given tar.xz file and stores it in the file returned by {@link #getIndexFile(File)}.
+     *
+     * @param archive the tar.xz file to index
+     * @return the index file
+     * @throws IOException if the archive can not be read or the index can not be written
+     */
+    public static File build(File archive) throws IOException {
+        ArchiverDependencyChecker.checkXZ();
+        long length = archive.length();
+        long lastModified = archive.lastModified();
+        Map<String, Long> entries = scanEntries(archive);
+
+        File indexFile = getIndexFile(archive);
+        File temporary = File.createTempFile(indexFile.getName(), ".tmp", indexFile.getAbsoluteFile().getParentFile());
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary.toPath())))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(length);
+                out.writeLong(lastModified);
+                writeEntries(out, entries);
+            }
+            Files.move(temporary.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary.toPath());
+        }
+        return indexFile;
+    }
+
+    /**
+     * Returns the file that holds the index of the given archive.
+     *
+     * @param archive the tar.xz file
+     * @return the index file, which may not exist
+     */
+    public static File getIndexFile(File archive) {
+        return new File(archive.getPath() + FILE_EXTENSION);
+    }
+
+    /**
+     * Reads the index of the given archive from its index file, or builds it if there is no index file for the current
+     * version of the archive.
+     *
+     * @param archive the tar.xz file
+     * @return the index
+     * @throws IOException if the archive or the index file can not be read
+     */
+    static TarXzIndex load(File archive) throws IOException {
+        ArchiverDependencyChecker.checkXZ();
+
+        long length = archive.length();
+        long lastModified = archive.lastModified();
+
+        File indexFile = getIndexFile(archive);
+        if (indexFile.isFile()) {
+            try (DataInputStream in =
+                    new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile.toPath())))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException("Not a tar.xz index: " + indexFile);
+                }
+                if (in.readLong() == length && in.readLong() == lastModified) {
+                    return new TarXzIndex(archive, length, lastModified, readEntries(in));
+                }
+            }
+        }
+        return new TarXzIndex(archive, length, lastModified, scanEntries(archive));
+    }
+
+    @Override
+    InputStream open(File archive, String entryName) throws IOException {
+        Long entryOffset = getEntryOffset(entryName);
+        if (entryOffset == null) {
+            return null;
+        }
+
+        SeekableXZInputStream xz = new SeekableXZInputStream(new SeekableFileInputStream(archive));
+        try {
+            xz.seek(entryOffset);
+        } catch (IOException | RuntimeException e) {
+            xz.close();
+            throw e;
+        }
+        return xz;
+    }
+
+    /**
+     * Collects the offset of the first header of every entry. After each header, the stream seeks to the end of the
+     * entry data rather than reading it. Sparse entries are read instead, as their data in the archive is not
+     * described by the entry size alone.
+     */
+    private static Map<String, Long> scanEntries(File archive) throws IOException {
+        Map<String, Long> entries = new LinkedHashMap<>();
+
+        try (SeekableXZInputStream xz = new SeekableXZInputStream(new SeekableFileInputStream(archive))) {
+            byte[] scratch = new byte[64 * 1024];
+            long headerOffset = 0;
+            while (headerOffset < xz.length()) {
+                xz.seek(headerOffset);
+                // not closed, as that would close the XZ stream
+                TarArchiveInputStream tar = new TarArchiveInputStream(xz);
+                TarArchiveEntry entry = tar.getNextEntry();
+                if (entry == null) {
+                    break;
+                }
+                entries.putIfAbsent(entry.getName(), headerOffset);
+
+                if (entry.isSparse()) {
+                    while (tar.read(scratch) != -1) {
+                        // skip the entry data
+                    }
+                    headerOffset = nextRecord(xz.position());
+                } else {
+                    headerOffset = nextRecord(xz.position() + entry.getSize());
+                }
+            }
+        }
+        return entries;
+    }
+}
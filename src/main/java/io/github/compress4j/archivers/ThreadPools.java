@@ -0,0 +1,158 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Creates the worker pools used by the parallel compressors and archivers. */
+final class ThreadPools {
+
+    private ThreadPools() {}
+
+    /**
+     * Creates a fixed-size pool of daemon threads named {@code compress4j-<name>-<n>}. Daemon threads ensure that a
+     * stream which is never closed does not keep the JVM alive.
+     *
+     * @param threads the number of threads
+     * @param name the name used for the threads
+     * @return a new executor service
+     */
+    static ExecutorService newFixedThreadPool(int threads, String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "compress4j-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a fixed-size pool of threads named {@code compress4j-<name>-<n>} for tasks that mostly wait for the file
+     * system. On Java 21 and later the threads are virtual threads, which do not occupy a platform thread while
+     * blocked in I/O, otherwise they are daemon platform threads as created by {@link #newFixedThreadPool(int,
+     * String)}.
+     *
+     * @param threads the number of threads
+     * @param name the name used for the threads
+     * @return a new executor service
+     */
+    static ExecutorService newBlockingIoThreadPool(int threads, String name) {
+        ThreadFactory factory = newVirtualThreadFactory("compress4j-" + name + "-");
+        return factory != null ? Executors.newFixedThreadPool(threads, factory) : newFixedThreadPool(threads, name);
+    }
+
+    /**
+     * Returns a factory of virtual threads named with the given prefix and a counter, or null if the runtime has no
+     * virtual threads. The Java 21 API is called reflectively, as the library is compiled for Java 11.
+     */
+    private static ThreadFactory newVirtualThreadFactory(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // before Java 21, or virtual threads are a disabled preview feature
+            return null;
+        }
+    }
+
+    /**
+     * Creates a scheduled executor of a single daemon thread named {@code compress4j-<name>-<n>}, for periodic
+     * housekeeping.
+     *
+     * @param name the name used for the thread
+     * @return a new scheduled executor service
+     */
+    static ScheduledExecutorService newSingleThreadScheduledExecutor(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "compress4j-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Shuts the given executor down without interrupting its running tasks: the given tasks that have not started yet
+     * are cancelled, and the running ones are waited for. Used for workers that read through a file channel shared by
+     * all of them, which an interrupt of any worker would close.
+     *
+     * @param executor the executor to shut down
+     * @param tasks the tasks submitted to the executor
+     */
+    static void shutdownAndAwait(ExecutorService executor, List<? extends Future<?>> tasks) {
+        for (Future<?> task : tasks) {
+            task.cancel(false);
+        }
+        executor.shutdown();
+        awaitTermination(executor);
+    }
+
+    /**
+     * Waits until the given executor, which has been shut down, has terminated. An interrupt of the waiting thread does
+     * not end the wait, as the tasks still running may write files that the caller deletes after a failure. The
+     * interrupt status is restored once the executor has terminated.
+     *
+     * @param executor the executor to wait for
+     */
+    static void awaitTermination(ExecutorService executor) {
+        boolean interrupted = false;
+        while (!executor.isTerminated()) {
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for the given task to complete and returns its result. Failures of the task are rethrown as
+     * {@link IOException}s, and interruption of the waiting thread as {@link InterruptedIOException}.
+     *
+     * @param future the task to wait for
+     * @return the result of the task
+     * @param <T> the result type
+     * @throws IOException if the task failed or the waiting thread was interrupted
+     */
+    static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a worker thread");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+}
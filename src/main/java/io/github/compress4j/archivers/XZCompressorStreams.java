@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZOutputStream;
+
+/**
+ * Creates XZ streams through XZ for Java directly, as the commons-compress stream only accepts a preset but no
+ * dictionary size. Kept apart from {@link CommonsStreamFactory} so that XZ for Java is only loaded when XZ is used.
+ */
+final class XZCompressorStreams {
+
+    private XZCompressorStreams() {}
+
+    /**
+     * Creates a new XZ compressor stream with the preset and dictionary size of the given options. If the options
+     * request more than one thread, a {@link ParallelXZCompressorOutputStream} is returned.
+     *
+     * @param out the stream to write the compressed data to
+     * @param options the options holding the preset, dictionary size and number of threads
+     * @return a new XZ compressor stream
+     * @throws IOException if the LZMA2 options are not supported
+     * @throws IllegalArgumentException if the preset is out of range
+     */
+    static OutputStream createOutputStream(OutputStream out, CompressionOptions options) throws IOException {
+        if (options.isParallel()) {
+            return ParallelXZCompressorOutputStream.create(out, options);
+        }
+        return new XZOutputStream(out, lzma2Options(options));
+    }
+
+    /**
+     * Returns the LZMA2 options for the preset and dictionary size of the given options.
+     *
+     * @param options the compression options
+     * @return the LZMA2 options
+     * @throws IOException if the dictionary size is not supported
+     * @throws IllegalArgumentException if the preset is out of range
+     */
+    static LZMA2Options lzma2Options(CompressionOptions options) throws IOException {
+        LZMA2Options lzma2Options = new LZMA2Options(
+                options.getLevel(CompressionType.XZ, LZMA2Options.PRESET_MIN, LZMA2Options.PRESET_MAX));
+        if (options.getDictionarySize() > 0) {
+            lzma2Options.setDictSize(options.getDictionarySize());
+        }
+        return lzma2Options;
+    }
+}
@@ -18,41 +18,250 @@ package io.github.compress4j.archivers;
 import static org.apache.commons.io.IOUtils.closeQuietly;
 
 import jakarta.annotation.Nonnull;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.CopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.EntryStreamOffsets;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipFile;
 
 /**
  * Archiver that overwrites the extraction of Zip archives. It provides a wrapper for ZipFile as an ArchiveInputStream
- * to retrieve file attributes properly.
+ * to retrieve file attributes properly. <br>
+ * Entries stored without compression are copied from the archive to the extracted file by the operating system, after
+ * their CRC is checked, so their data never passes through the Java heap. <br>
+ * If the options request more than one thread, archive files are extracted in parallel: the entries of a zip file can
+ * be read independently, so each file entry is inflated and written by a worker thread of its own. <br>
+ * The entries are listed from the central directory, so entries rejected by an {@link EntryFilter} are never opened.
+ * <br>
+ * If the read options have an {@link ArchiveHandlePool}, zip files are opened from the pool, and their central
+ * directory is parsed once for all reads of the archive.
  */
 class ZipFileArchiver extends CommonsArchiver<ZipArchiveEntry> {
 
-    ZipFileArchiver() {
-        super(ArchiveFormat.ZIP);
+    ZipFileArchiver(ArchiveFormat archiveFormat, CompressionOptions options, ReadOptions readOptions) {
+        super(archiveFormat, options, readOptions);
+    }
+
+    @Override
+    public void extract(File archive, File destination, EntryFilter filter, CopyOption... options)
+            throws IOException {
+        assertExtractSource(archive);
+
+        IOUtils.requireDirectory(destination);
+
+        ExtractionContext context = new ExtractionContext(destination);
+        try (ArchiveHandlePool.Lease<ZipFile> lease = openZipFile(archive, getReadOptions());
+                FileChannel channel = FileChannel.open(archive.toPath(), StandardOpenOption.READ)) {
+            try {
+                extractEntries(lease.get(), channel, filter, context, options);
+            } catch (IOException | RuntimeException e) {
+                lease.evict();
+                throw e;
+            }
+        }
+        context.applyMetadata();
+    }
+
+    private void extractEntries(
+            ZipFile zipFile, FileChannel channel, EntryFilter filter, ExtractionContext context, CopyOption... options)
+            throws IOException {
+        List<ZipArchiveEntry> entries = new ArrayList<>();
+        for (ZipArchiveEntry entry : Collections.list(zipFile.getEntriesInPhysicalOrder())) {
+            if (filter.accept(entry.getName())) {
+                entries.add(entry);
+            }
+        }
+
+        if (getOptions().isParallel()) {
+            extractInParallel(zipFile, channel, entries, context, options);
+        } else {
+            for (ZipArchiveEntry entry : entries) {
+                extractEntry(zipFile, channel, entry, context, options);
+            }
+        }
+    }
+
+    /**
+     * Lists the entries from the central directory. Unless the archive is pooled, the local file headers are not read,
+     * so listing reads only the end of the archive, however many entries it holds.
+     */
+    @Override
+    public List<ArchiveEntryInfo> list(File archive) throws IOException {
+        assertExtractSource(archive);
+
+        ReadOptions options = getReadOptions();
+        try (ArchiveHandlePool.Lease<ZipFile> lease = options.getHandlePool() != null
+                ? openZipFile(archive, options)
+                : ArchiveHandlePool.Lease.of(
+                        ZipFile.builder().setFile(archive).setIgnoreLocalFileHeader(true).get())) {
+            List<ArchiveEntryInfo> entries = new ArrayList<>();
+            for (ZipArchiveEntry entry : Collections.list(lease.get().getEntries())) {
+                entries.add(ArchiveEntryInfo.of(entry));
+            }
+            return entries;
+        }
+    }
+
+    /** Reads the entry through the central directory, without reading the entries before it. */
+    @Override
+    byte[] loadEntry(File archive, String entryName) throws IOException {
+        try (ArchiveHandlePool.Lease<ZipFile> lease = openZipFile(archive, getReadOptions())) {
+            ZipFile zipFile = lease.get();
+            ZipArchiveEntry entry = zipFile.getEntry(entryName);
+            if (entry == null) {
+                return null;
+            }
+            try (InputStream in = zipFile.getInputStream(entry)) {
+                return in.readAllBytes();
+            }
+        }
+    }
+
+    /**
+     * Opens the given zip or jar file, from the handle pool of the given read options if they have one. A pooled zip
+     * file is shared by all threads reading the archive, which is safe as its local file headers are resolved when it
+     * is opened, and its entries are read with positional reads.
+     *
+     * @param archive the zip or jar file to open
+     * @param options the read options holding the handle pool, if any
+     * @return the lease of the open zip file, which closes or releases it
+     * @throws IOException if the archive can not be opened
+     */
+    static ArchiveHandlePool.Lease<ZipFile> openZipFile(File archive, ReadOptions options) throws IOException {
+        ArchiveHandlePool pool = options.getHandlePool();
+        if (pool == null) {
+            return ArchiveHandlePool.Lease.of(ZipFile.builder().setFile(archive).get());
+        }
+        return pool.acquire(archive, true, file -> ZipFile.builder().setFile(file).get());
     }
 
     @Override
     protected ArchiveInputStream<ZipArchiveEntry> createArchiveInputStream(File archive) throws IOException {
-        return new ZipFileArchiveInputStream(ZipFile.builder().setFile(archive).get());
+        ArchiveHandlePool.Lease<ZipFile> lease = openZipFile(archive, getReadOptions());
+        return new ZipFileArchiveInputStream(lease.get(), lease);
+    }
+
+    /**
+     * Creates the directories of the given entries up front, then extracts the file entries on a pool of worker
+     * threads. Entries resolving to the same file are extracted one after another by the same worker, in archive
+     * order, so duplicate entries behave as in a sequential extraction. The workers share the channels of the zip
+     * file, which may be pooled, and the channel of the archive. An interrupt of one worker would close them for all,
+     * so when an entry fails, the entries not started yet are cancelled and the running ones are waited for instead.
+     */
+    private void extractInParallel(
+            ZipFile zipFile,
+            FileChannel channel,
+            List<ZipArchiveEntry> entries,
+            ExtractionContext context,
+            CopyOption... options)
+            throws IOException {
+        Map<File, List<ZipArchiveEntry>> files = new LinkedHashMap<>();
+        for (ZipArchiveEntry entry : entries) {
+            if (entry.isDirectory()) {
+                context.copy(InputStream.nullInputStream(), entry, options);
+            } else {
+                File file = context.resolve(entry.getName());
+                context.createDirectories(file.getParentFile());
+                files.computeIfAbsent(file, f -> new ArrayList<>(1)).add(entry);
+            }
+        }
+
+        ExecutorService executor = ThreadPools.newFixedThreadPool(getOptions().getThreads(), "unzip");
+        List<Future<File>> extracted = new ArrayList<>(files.size());
+        try {
+            for (List<ZipArchiveEntry> sameFile : files.values()) {
+                extracted.add(executor.submit(() -> {
+                    File file = null;
+                    for (ZipArchiveEntry entry : sameFile) {
+                        file = extractEntry(zipFile, channel, entry, context, options);
+                    }
+                    return file;
+                }));
+            }
+            for (Future<File> file : extracted) {
+                ThreadPools.await(file);
+            }
+        } finally {
+            ThreadPools.shutdownAndAwait(executor, extracted);
+        }
+    }
+
+    /**
+     * Extracts a single entry of the given zip file. The data of stored entries is transferred from the archive to the
+     * extracted file with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, and its
+     * CRC is verified against the central directory. All other entries are read through
+     * {@link ZipFile#getInputStream(ZipArchiveEntry)}.
+     */
+    private static File extractEntry(
+            ZipFile zipFile,
+            FileChannel channel,
+            ZipArchiveEntry entry,
+            ExtractionContext context,
+            CopyOption... options)
+            throws IOException {
+        if (!isTransferable(entry)) {
+            try (InputStream in = zipFile.getInputStream(entry)) {
+                return context.copy(in, entry, options);
+            }
+        }
+
+        long offset = entry.getDataOffset();
+        long size = entry.getSize();
+        if (MemoryMappedFiles.crc32(channel, offset, size) != entry.getCrc()) {
+            throw new ZipException("Bad CRC checksum for entry " + entry.getName());
+        }
+        return context.transfer(channel, offset, size, entry, options);
+    }
+
+    /** Returns true if the data of the given entry is stored as is, at a known offset in the archive. */
+    private static boolean isTransferable(ZipArchiveEntry entry) {
+        return !entry.isDirectory()
+                && entry.getMethod() == ZipEntry.STORED
+                && !entry.getGeneralPurposeBit().usesEncryption()
+                && entry.getDataOffset() != EntryStreamOffsets.OFFSET_UNKNOWN
+                && entry.getSize() == entry.getCompressedSize();
     }
 
     /** Wraps a ZipFile to make it usable as an ArchiveInputStream. */
     static class ZipFileArchiveInputStream extends ArchiveInputStream<ZipArchiveEntry> {
 
         private final ZipFile file;
+        private final Closeable closer;
 
         private Enumeration<ZipArchiveEntry> entries;
         private ZipArchiveEntry currentEntry;
         private InputStream currentEntryStream;
 
         public ZipFileArchiveInputStream(ZipFile file) {
+            this(file, file);
+        }
+
+        /**
+         * Wraps the given zip file, which is released through the given closer rather than closed.
+         *
+         * @param file the zip file to read
+         * @param closer closed instead of the zip file once this stream is closed
+         */
+        ZipFileArchiveInputStream(ZipFile file, Closeable closer) {
             this.file = file;
+            this.closer = closer;
         }
 
         @Override
@@ -108,7 +317,7 @@ class ZipFileArchiver extends CommonsArchiver<ZipArchiveEntry> {
 
         private void closeFile() {
             try {
-                file.close();
+                closer.close();
             } catch (IOException e) {
                 // close quietly
             }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Creates Zstandard streams through zstd-jni directly, as the commons-compress streams do not expose worker threads
+ * and long distance matching.
+ */
+final class ZstdCompressorStreams {
+
+    /** Largest window the decoder accepts by default, larger windows must be enabled explicitly. */
+    private static final int DEFAULT_MAX_WINDOW_LOG = 27;
+
+    private ZstdCompressorStreams() {}
+
+    /**
+     * Creates a new Zstandard compressor stream. The options set the compression level and long distance matching, and
+     * if they request more than one thread, the input is compressed by that many native worker threads. The frames
+     * carry a content checksum, like the {@code zstd} command line tool writes by default.
+     *
+     * @param out the stream to write the compressed data to
+     * @param options the options holding the level, number of threads and long distance matching window
+     * @return a new Zstandard compressor stream
+     * @throws IOException if the options are rejected by the native encoder
+     * @throws IllegalArgumentException if the level is out of the range supported by Zstandard
+     */
+    static OutputStream createOutputStream(OutputStream out, CompressionOptions options) throws IOException {
+        int level = options.getLevel(CompressionType.ZSTANDARD, Zstd.minCompressionLevel(), Zstd.maxCompressionLevel());
+
+        ZstdOutputStream zstd = new ZstdOutputStream(out);
+        try {
+            zstd.setChecksum(true);
+            zstd.setLevel(level);
+            if (options.isParallel()) {
+                zstd.setWorkers(options.getThreads());
+            }
+            if (options.getLongDistanceWindowLog() > 0) {
+                zstd.setLong(options.getLongDistanceWindowLog());
+            }
+        } catch (IOException e) {
+            zstd.close();
+            throw e;
+        }
+        return zstd;
+    }
+
+    /**
+     * Creates a new Zstandard decompressor stream. If the options enable long distance matching with a window larger
+     * than the decoder accepts by default, the decoder is allowed to use that window.
+     *
+     * @param in the compressed stream
+     * @param options the options holding the long distance matching window
+     * @return a new Zstandard decompressor stream
+     * @throws IOException if the decoder can not be created
+     */
+    static InputStream createInputStream(InputStream in, CompressionOptions options) throws IOException {
+        ZstdInputStream zstd = new ZstdInputStream(in);
+        if (options.getLongDistanceWindowLog() > DEFAULT_MAX_WINDOW_LOG) {
+            zstd.setLongMax(options.getLongDistanceWindowLog());
+        }
+        return zstd;
+    }
+}
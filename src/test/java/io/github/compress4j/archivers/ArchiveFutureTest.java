@@ -0,0 +1,192 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ArchiveFutureTest {
+
+    @TempDir
+    File tempDir;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void extractAsync_completes_reportsBytesWritten() throws Exception {
+        Archiver archiver = ArchiverFactory.createArchiver(ArchiveFormat.TAR, CompressionType.GZIP);
+        File archive = archiver.create("archive", tempDir, createSource(5, 1000));
+        File destination = createDirectory("destination");
+
+        ArchiveFuture<Void> future = archiver.extractAsync(archive, destination, executor);
+
+        future.get();
+        assertThat(new File(destination, "sub/file4.txt")).hasSize(1000);
+        assertThat(future.getBytesWritten()).isEqualTo(5000);
+    }
+
+    @Test
+    void extractAsync_cancelled_deletesExtractedFiles() throws Exception {
+        Archiver archiver = ArchiverFactory.createArchiver(ArchiveFormat.TAR);
+        File archive = archiver.create("archive", tempDir, createSource(5, 1000));
+        File destination = createDirectory("destination");
+        Files.write(new File(destination, "existing.txt").toPath(), new byte[] {1});
+        List<String> accepted = new ArrayList<>();
+        AtomicReference<ArchiveFuture<Void>> future = new AtomicReference<>();
+
+        synchronized (future) {
+            future.set(archiver.extractAsync(archive, destination, entryName -> {
+                synchronized (future) {
+                    if (accepted.size() == 3) {
+                        future.get().cancel(true);
+                    }
+                }
+                accepted.add(entryName);
+                return true;
+            }, executor));
+        }
+
+        assertThrows(CancellationException.class, () -> future.get().get());
+        awaitExecutor();
+        assertThat(accepted).hasSize(4);
+        assertThat(destination.list()).containsExactly("existing.txt");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"archive.zip", "archive.tar.gz"})
+    void extractAsync_cancelledWhileExtractingInParallel_deletesExtractedFiles(String archiveName) throws Exception {
+        Archiver archiver = ArchiverFactory.createArchiver(
+                new File(archiveName), CompressionOptions.builder().setThreads(4).build());
+        File archive = archiver.create(archiveName, tempDir, createSource(500, 16 * 1024));
+        File destination = createDirectory("destination");
+        Files.write(new File(destination, "existing.txt").toPath(), new byte[] {1});
+
+        ArchiveFuture<Void> future = archiver.extractAsync(archive, destination, executor);
+        while (future.getBytesWritten() == 0 && !future.isDone()) {
+            Thread.onSpinWait();
+        }
+
+        assertThat(future.cancel(true)).isTrue();
+        awaitExecutor();
+        assertThat(destination.list()).containsExactly("existing.txt");
+    }
+
+    @Test
+    void extractAsync_failing_keepsExistingFile() throws Exception {
+        Archiver archiver = ArchiverFactory.createArchiver(ArchiveFormat.ZIP);
+        File archive = archiver.create("archive", tempDir, createSource(1, 10));
+        File destination = createDirectory("destination");
+        File existing = new File(destination, "sub/file0.txt");
+        Files.createDirectories(existing.getParentFile().toPath());
+        Files.write(existing.toPath(), "existing".getBytes(StandardCharsets.UTF_8));
+
+        ArchiveFuture<Void> future = archiver.extractAsync(archive, destination, executor);
+
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertThat(e.getCause()).isInstanceOf(IOException.class);
+        assertThat(existing).hasContent("existing");
+    }
+
+    @Test
+    void compressAsync_timedOut_deletesDestination() throws Exception {
+        Compressor compressor = CompressorFactory.createCompressor(CompressionType.BZIP2);
+        File source = new File(createSource(1, 8 * 1024 * 1024), "sub/file0.txt");
+        File destination = new File(tempDir, "file.bz2");
+
+        ArchiveFuture<Void> future = compressor.compressAsync(source, destination, executor);
+        future.orTimeout(1, TimeUnit.MILLISECONDS);
+
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertThat(e.getCause()).isInstanceOf(TimeoutException.class);
+        awaitExecutor();
+        assertThat(destination).doesNotExist();
+    }
+
+    @Test
+    void createAsync_timedOut_deletesArchive() throws Exception {
+        Archiver archiver = ArchiverFactory.createArchiver(ArchiveFormat.ZIP);
+        File source = createSource(4, 1024 * 1024);
+
+        ArchiveFuture<File> future = archiver.createAsync("archive", tempDir, executor, source);
+        future.orTimeout(1, TimeUnit.MILLISECONDS);
+
+        assertThrows(ExecutionException.class, future::get);
+        awaitExecutor();
+        assertThat(new File(tempDir, "archive.zip")).doesNotExist();
+    }
+
+    @Test
+    void createAsync_rejectedByExecutor_failsFuture() throws IOException {
+        Archiver archiver = ArchiverFactory.createArchiver(ArchiveFormat.ZIP);
+        File source = createSource(1, 10);
+        executor.shutdown();
+
+        ArchiveFuture<File> future = archiver.createAsync("archive", tempDir, executor, source);
+
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertThat(e.getCause()).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    private File createSource(int files, int size) throws IOException {
+        File source = createDirectory("source");
+        Random random = new Random(1);
+        for (int i = 0; i < files; i++) {
+            byte[] content = new byte[size];
+            for (int j = 0; j < size; j++) {
+                content[j] = (byte) ('a' + random.nextInt(26));
+            }
+            File file = new File(source, "sub/file" + i + ".txt");
+            Files.createDirectories(file.getParentFile().toPath());
+            Files.write(file.toPath(), content);
+        }
+        return source;
+    }
+
+    private File createDirectory(String name) throws IOException {
+        return Files.createDirectories(new File(tempDir, name).toPath()).toFile();
+    }
+
+    private void awaitExecutor() throws InterruptedException {
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ArchiveHandlePoolTest {
+
+    @TempDir
+    File tempDir;
+
+    private final ArchiveHandlePool pool = new ArchiveHandlePool();
+
+    @AfterEach
+    void closePool() {
+        pool.close();
+    }
+
+    @Test
+    void readEntry_withPool_opensZipFileOnce() throws IOException {
+        Archiver archiver = ArchiverFactory.createArchiver(
+                ArchiveFormat.ZIP,
+                CompressionOptions.DEFAULT,
+                ReadOptions.builder().setHandlePool(pool).build());
+        File archive = createZip(archiver, 3);
+
+        for (int i = 0; i < 3; i++) {
+            ByteBuffer content = archiver.readEntry(archive, "file" + i + ".txt");
+            assertThat(StandardCharsets.UTF_8.decode(content).toString()).isEqualTo("content " + i);
+        }
+        assertThat(archiver.list(archive)).hasSize(3);
+
+        assertThat(pool.getOpenCount()).isEqualTo(1);
+        assertThat(pool.getHandleCount()).isEqualTo(1);
+    }
+
+    @Test
+    void readEntry_concurrently_sharesZipFile() throws Exception {
+        Archiver archiver = ArchiverFactory.createArchiver(
+                ArchiveFormat.ZIP,
+                CompressionOptions.DEFAULT,
+                ReadOptions.builder().setHandlePool(pool).build());
+        File archive = createZip(archiver, 50);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ByteBuffer>> reads = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String name = "file" + i % 50 + ".txt";
+                reads.add(executor.submit(() -> archiver.readEntry(archive, name)));
+            }
+
+            for (int i = 0; i < reads.size(); i++) {
+                assertThat(StandardCharsets.UTF_8.decode(reads.get(i).get()).toString())
+                        .isEqualTo("content " + i % 50);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(pool.getHandleCount()).isEqualTo(1);
+    }
+
+    @Test
+    void extract_failingInParallel_evictsPooledZipFile() throws IOException {
+        Archiver archiver = ArchiverFactory.createArchiver(
+                ArchiveFormat.ZIP,
+                CompressionOptions.builder().setThreads(4).build(),
+                ReadOptions.builder().setHandlePool(pool).build());
+        File archive = createZip(archiver, 50);
+        File destination = new File(tempDir, "destination");
+        Files.createDirectories(destination.toPath());
+        Files.write(new File(destination, "file25.txt").toPath(), new byte[] {1});
+
+        assertThrows(FileAlreadyExistsException.class, () -> archiver.extract(archive, destination));
+
+        ByteBuffer content = archiver.readEntry(archive, "file49.txt");
+        assertThat(StandardCharsets.UTF_8.decode(content).toString()).isEqualTo("content 49");
+        assertThat(pool.getOpenCount()).isEqualTo(2);
+        assertThat(pool.getHandleCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evict_closesHandleOnceReleased() throws IOException {
+        File archive = createFile("archive.zip");
+        List<Handle> opened = new ArrayList<>();
+        ArchiveHandlePool.Lease<Handle> first = pool.acquire(archive, true, file -> open(opened));
+        ArchiveHandlePool.Lease<Handle> second = pool.acquire(archive, true, file -> open(opened));
+
+        first.evict();
+        first.close();
+        assertThat(opened.get(0).closed).isFalse();
+        second.close();
+        assertThat(opened.get(0).closed).isTrue();
+
+        pool.acquire(archive, true, file -> open(opened)).close();
+        assertThat(opened).hasSize(2);
+        assertThat(pool.getHandleCount()).isEqualTo(1);
+    }
+
+    @Test
+    void acquire_exclusive_opensHandlePerConcurrentLease() throws IOException {
+        File archive = createFile("archive.7z");
+        List<Handle> opened = new ArrayList<>();
+
+        ArchiveHandlePool.Lease<Handle> first = pool.acquire(archive, false, file -> open(opened));
+        ArchiveHandlePool.Lease<Handle> second = pool.acquire(archive, false, file -> open(opened));
+        assertThat(second.get()).isNotSameAs(first.get());
+        first.close();
+        second.close();
+        ArchiveHandlePool.Lease<Handle> third = pool.acquire(archive, false, file -> open(opened));
+        third.close();
+
+        assertThat(opened).hasSize(2).contains(third.get());
+        assertThat(pool.getHandleCount()).isEqualTo(2);
+        assertThat(opened).noneMatch(handle -> handle.closed);
+    }
+
+    @Test
+    void acquire_afterArchiveChanged_opensAgain() throws IOException {
+        File archive = createFile("archive.zip");
+        List<Handle> opened = new ArrayList<>();
+
+        pool.acquire(archive, true, file -> open(opened)).close();
+        assertThat(archive.setLastModified(archive.lastModified() - 10_000)).isTrue();
+        pool.acquire(archive, true, file -> open(opened)).close();
+
+        assertThat(opened).hasSize(2);
+        assertThat(pool.getOpenCount()).isEqualTo(2);
+    }
+
+    @Test
+    void idleHandles_areClosedAfterTimeout() throws Exception {
+        File archive = createFile("archive.zip");
+        List<Handle> opened = new ArrayList<>();
+        try (ArchiveHandlePool shortPool = new ArchiveHandlePool(Duration.ofMillis(20))) {
+            shortPool.acquire(archive, true, file -> open(opened)).close();
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (shortPool.getHandleCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertThat(shortPool.getHandleCount()).isZero();
+            assertThat(opened.get(0).closed).isTrue();
+        }
+    }
+
+    @Test
+    void close_closesIdleHandlesAndLeasedHandlesOnRelease() throws IOException {
+        File archive = createFile("archive.zip");
+        List<Handle> opened = new ArrayList<>();
+        pool.acquire(archive, false, file -> open(opened)).close();
+        ArchiveHandlePool.Lease<Handle> leased = pool.acquire(archive, true, file -> open(opened));
+
+        pool.close();
+
+        assertThat(opened.get(0).closed).isTrue();
+        assertThat(opened.get(1).closed).isFalse();
+        leased.close();
+        assertThat(opened.get(1).closed).isTrue();
+        assertThrows(IllegalStateException.class, () -> pool.acquire(archive, true, file -> open(opened)));
+    }
+
+    @Test
+    void constructor_nonPositiveIdleTimeout_fails() {
+        assertThrows(IllegalArgumentException.class, () -> new ArchiveHandlePool(Duration.ZERO));
+    }
+
+    private File createZip(Archiver archiver, int files) throws IOException {
+        File source = new File(tempDir, "source");
+        Files.createDirectories(source.toPath());
+        for (int i = 0; i < files; i++) {
+            byte[] content = ("content " + i).getBytes(StandardCharsets.UTF_8);
+            Files.write(new File(source, "file" + i + ".txt").toPath(), content);
+        }
+        return archiver.create("archive", tempDir, source);
+    }
+
+    private File createFile(String name) throws IOException {
+        File file = new File(tempDir, name);
+        Files.write(file.toPath(), name.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static Handle open(List<Handle> opened) {
+        Handle handle = new Handle();
+        opened.add(handle);
+        return handle;
+    }
+
+    private static final class Handle implements Closeable {
+
+        private volatile boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -16,8 +16,10 @@
 package io.github.compress4j.archivers;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import org.junit.jupiter.api.Test;
 
 class ArchiverTarGzTest extends AbstractArchiverTest {
@@ -36,4 +38,20 @@ class ArchiverTarGzTest extends AbstractArchiverTest {
     void getFilenameExtension_tar_gz_returnsCorrectFilenameExtension() {
         assertThat(getArchiver().getFilenameExtension()).isEqualTo(".tar.gz");
     }
+
+    @Test
+    void create_doesNotLeaveIntermediateFilesInDestination() throws Exception {
+        File createdArchive = getArchiver().create("archive", archiveCreateTmpDir, ARCHIVE_DIR);
+
+        assertThat(archiveCreateTmpDir.listFiles()).containsExactly(createdArchive);
+    }
+
+    @Test
+    void create_withNonExistingSource_removesPartialArchive() {
+        Archiver archiver = getArchiver();
+
+        assertThrows(
+                FileNotFoundException.class, () -> archiver.create("archive", archiveCreateTmpDir, NON_EXISTING_FILE));
+        assertThat(archiveCreateTmpDir.listFiles()).isEmpty();
+    }
 }
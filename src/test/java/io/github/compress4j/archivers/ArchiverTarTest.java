@@ -16,8 +16,13 @@
 package io.github.compress4j.archivers;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import org.junit.jupiter.api.Test;
 
 class ArchiverTarTest extends AbstractArchiverTest {
@@ -36,4 +41,38 @@ class ArchiverTarTest extends AbstractArchiverTest {
     void getFilenameExtension_tar_returnsCorrectFilenameExtension() {
         assertThat(getArchiver().getFilenameExtension()).isEqualTo(".tar");
     }
+
+    @Test
+    void createArchiver_tar_transfersEntriesFromFile() {
+        assertThat(getArchiver()).isInstanceOf(TarFileArchiver.class);
+    }
+
+    @Test
+    void list_readsModeFromTarHeaders() throws IOException {
+        ArchiveEntryInfo entry = getArchiver().list(getArchive()).stream()
+                .filter(info -> info.getName().equals("permissions/executable_file.txt"))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(entry.getMode() & 0777).isEqualTo(0755);
+        assertThat(entry.getCompressedSize()).isEqualTo(ArchiveEntryInfo.UNKNOWN);
+        assertThat(entry.getMethod()).isNull();
+    }
+
+    @Test
+    void extract_existingFiles_withoutOptions_fails() throws IOException {
+        getArchiver().extract(getArchive(), archiveExtractTmpDir);
+
+        assertThrows(FileAlreadyExistsException.class, () -> getArchiver().extract(getArchive(), archiveExtractTmpDir));
+    }
+
+    @Test
+    void extract_existingFiles_withReplaceExisting_replacesFiles() throws IOException {
+        File file = new File(archiveExtractTmpDir, "file.txt");
+        Files.writeString(file.toPath(), "old content that is longer than the new content of the file");
+
+        getArchiver().extract(getArchive(), archiveExtractTmpDir, StandardCopyOption.REPLACE_EXISTING);
+
+        assertExtractionWasSuccessful();
+    }
 }
@@ -16,9 +16,15 @@
 package io.github.compress4j.archivers;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.junit.jupiter.api.Test;
 
 class ArchiverZipTest extends AbstractArchiverTest {
@@ -100,6 +106,34 @@ class ArchiverZipTest extends AbstractArchiverTest {
         assertZipTraversal();
     }
 
+    @Test
+    void extract_storedEntryWithBadCrc_fails() throws Exception {
+        byte[] zip = Files.readAllBytes(getArchive().toPath());
+        try (ZipFile zipFile = ZipFile.builder().setFile(getArchive()).get()) {
+            ZipArchiveEntry entry = zipFile.getEntry("permissions/readonly_file.txt");
+            assertThat(entry.getMethod()).isEqualTo(ZipEntry.STORED);
+            zip[(int) entry.getDataOffset()] ^= 1;
+        }
+        File archive = new File(archiveTmpDir, "corrupt.zip");
+        Files.write(archive.toPath(), zip);
+
+        assertThrows(ZipException.class, () -> getArchiver().extract(archive, archiveExtractTmpDir));
+    }
+
+    @Test
+    void list_readsCompressionAttributesFromCentralDirectory() throws IOException {
+        ArchiveEntryInfo entry = getArchiver().list(getArchive()).stream()
+                .filter(info -> info.getName().equals("folder/folder_file.txt"))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(entry.getSize()).isEqualTo(31);
+        assertThat(entry.getCompressedSize()).isEqualTo(27);
+        assertThat(entry.getMethod()).isEqualTo("DEFLATED");
+        assertThat(entry.getCrc()).isEqualTo(204030767L);
+        assertThat(entry.getMode() & 0777).isEqualTo(0664);
+    }
+
     private void archiveExtractorHelper(final String fileName) throws IOException {
         File archive = new File(RESOURCES_DIR, fileName);
         try (ArchiveStream stream = getArchiver().stream(archive)) {
@@ -18,11 +18,13 @@ package io.github.compress4j.archivers;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
+import java.io.IOException;
 import java.util.stream.Stream;
 import org.apache.commons.compress.archivers.ar.ArArchiveEntry;
 import org.apache.commons.compress.archivers.arj.ArjArchiveEntry;
 import org.apache.commons.compress.archivers.cpio.CpioArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -48,4 +50,27 @@ class AttributeAccessorTest {
 
         assertThat(accessor).isNotNull().isOfAnyClassIn(clazz);
     }
+
+    private static Stream<Arguments> entryModes() {
+        TarArchiveEntry tar = new TarArchiveEntry("file.txt");
+        tar.setMode(0100640);
+        ZipArchiveEntry zip = new ZipArchiveEntry("file.txt");
+        zip.setUnixMode(0100750);
+        CpioArchiveEntry cpio = new CpioArchiveEntry("file.txt");
+        cpio.setMode(0100644);
+        return Stream.of(
+                Arguments.of(tar, 0100640),
+                Arguments.of(zip, 0100750),
+                Arguments.of(cpio, 0100644),
+                Arguments.of(mock(TestArchiveEntry.class), 0));
+    }
+
+    @ParameterizedTest
+    @MethodSource("entryModes")
+    void getMode_matchesAccessorMode(org.apache.commons.compress.archivers.ArchiveEntry entry, int mode)
+            throws IOException {
+        assertThat(AttributeAccessor.getMode(entry))
+                .isEqualTo(mode)
+                .isEqualTo(AttributeAccessor.create(entry).getMode());
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.compress4j.archivers.CheckpointInflaterInputStream.Checkpoint;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CheckpointInflaterInputStreamTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 100, 100_000, 1_000_000})
+    void read_decodesGzipData(int size) throws IOException {
+        byte[] data = data(size);
+
+        assertThat(decode(new CheckpointInflaterInputStream(new ByteArrayInputStream(gzip(data)))))
+                .isEqualTo(data);
+    }
+
+    @Test
+    void read_randomData_decodesStoredBlocks() throws IOException {
+        byte[] data = new byte[200_000];
+        new Random(1).nextBytes(data);
+
+        assertThat(decode(new CheckpointInflaterInputStream(new ByteArrayInputStream(gzip(data)))))
+                .isEqualTo(data);
+    }
+
+    @Test
+    void read_skewedData_decodesCodesLongerThanLookupTable() throws IOException {
+        // byte values of geometrically falling frequency get Huffman codes of up to 15 bits
+        Random random = new Random(1);
+        byte[] data = new byte[500_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) Math.min(Integer.numberOfTrailingZeros(random.nextInt() | 1 << 24), 255);
+        }
+
+        assertThat(decode(new CheckpointInflaterInputStream(new ByteArrayInputStream(gzip(data)))))
+                .isEqualTo(data);
+    }
+
+    @Test
+    void read_concatenatedMembers_decodesAllMembers() throws IOException {
+        ByteArrayOutputStream members = new ByteArrayOutputStream();
+        members.write(gzip("hello ".getBytes()));
+        members.write(gzip("world".getBytes()));
+
+        assertThat(decode(new CheckpointInflaterInputStream(new ByteArrayInputStream(members.toByteArray()))))
+                .isEqualTo("hello world".getBytes());
+    }
+
+    @Test
+    void read_corruptChecksum_fails() throws IOException {
+        byte[] compressed = gzip(data(1_000));
+        compressed[compressed.length - 8] ^= 1;
+
+        CheckpointInflaterInputStream stream = new CheckpointInflaterInputStream(new ByteArrayInputStream(compressed));
+        assertThrows(ZipException.class, () -> decode(stream));
+    }
+
+    @Test
+    void resume_atEveryCheckpoint_decodesRemainingData() throws IOException {
+        byte[] data = data(1_000_000);
+        byte[] compressed = gzip(data);
+        List<Checkpoint> checkpoints = new ArrayList<>();
+
+        try (CheckpointInflaterInputStream stream =
+                new CheckpointInflaterInputStream(new ByteArrayInputStream(compressed))) {
+            stream.recordCheckpoints(50_000, checkpoints::add);
+            decode(stream);
+        }
+
+        assertThat(checkpoints).hasSizeGreaterThan(1);
+        for (Checkpoint checkpoint : checkpoints) {
+            InputStream in = new ByteArrayInputStream(compressed);
+            assertThat(in.skip(checkpoint.getOffset())).isEqualTo(checkpoint.getOffset());
+            byte[] remaining = decode(new CheckpointInflaterInputStream(in, checkpoint));
+
+            assertThat(remaining)
+                    .isEqualTo(Arrays.copyOfRange(data, (int) checkpoint.getBytesDecoded(), data.length));
+        }
+    }
+
+    private static byte[] data(int size) {
+        Random random = new Random(size);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < size) {
+            text.append("entry ").append(random.nextInt(10_000)).append(' ');
+        }
+        return Arrays.copyOf(text.toString().getBytes(), size);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(data);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] decode(InputStream stream) throws IOException {
+        try (InputStream in = stream) {
+            return in.readAllBytes();
+        }
+    }
+}
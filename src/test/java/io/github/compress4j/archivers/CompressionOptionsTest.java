@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class CompressionOptionsTest {
+
+    @Test
+    void default_usesSingleThread() {
+        assertThat(CompressionOptions.DEFAULT.getThreads()).isEqualTo(1);
+        assertThat(CompressionOptions.DEFAULT.isParallel()).isFalse();
+    }
+
+    @Test
+    void setThreads_lessThanOne_fails() {
+        CompressionOptions.Builder builder = CompressionOptions.builder();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.setThreads(0));
+    }
+
+    @Test
+    void setMemoryBudget_notPositive_fails() {
+        CompressionOptions.Builder builder = CompressionOptions.builder();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.setMemoryBudget(0));
+    }
+
+    @Test
+    void default_usesDefaultLevelWithoutLongDistanceMatching() {
+        assertThat(CompressionOptions.DEFAULT.getLevel()).isEmpty();
+        assertThat(CompressionOptions.DEFAULT.getLongDistanceWindowLog()).isZero();
+    }
+
+    @Test
+    void setLevel_isReturned() {
+        assertThat(CompressionOptions.builder().setLevel(-5).build().getLevel()).hasValue(-5);
+    }
+
+    @Test
+    void getLevel_withoutLevel_usesProfile() {
+        CompressionOptions options = CompressionOptions.builder().setProfile(CompressionProfile.FASTEST).build();
+
+        assertThat(CompressionOptions.DEFAULT.getProfile()).isEqualTo(CompressionProfile.BALANCED);
+        assertThat(CompressionOptions.DEFAULT.getLevel(CompressionType.GZIP, 0, 9)).isEqualTo(6);
+        assertThat(options.getLevel(CompressionType.GZIP, 0, 9)).isEqualTo(1);
+        assertThat(options.getLevel(CompressionType.BZIP2, 1, 9)).isEqualTo(1);
+        assertThat(options.getLevel(CompressionType.XZ, 0, 9)).isZero();
+    }
+
+    @Test
+    void getLevel_withLevel_overridesProfile() {
+        CompressionOptions options = CompressionOptions.builder()
+                .setProfile(CompressionProfile.SMALLEST)
+                .setLevel(4)
+                .build();
+
+        assertThat(options.getLevel(CompressionType.GZIP, 0, 9)).isEqualTo(4);
+    }
+
+    @Test
+    void getLevel_outOfRange_fails() {
+        CompressionOptions options = CompressionOptions.builder().setLevel(10).build();
+
+        var exception =
+                assertThrows(IllegalArgumentException.class, () -> options.getLevel(CompressionType.GZIP, 0, 9));
+        assertThat(exception).hasMessage("GZIP level must be between 0 and 9, was 10");
+    }
+
+    @Test
+    void getLevel_typeWithoutLevels_fails() {
+        CompressionOptions options = CompressionOptions.DEFAULT;
+
+        assertThrows(IllegalArgumentException.class, () -> options.getLevel(CompressionType.PACK200, 0, 9));
+    }
+
+    @Test
+    void setProfile_null_fails() {
+        CompressionOptions.Builder builder = CompressionOptions.builder();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.setProfile(null));
+    }
+
+    @Test
+    void setBlockSizeAndDictionarySize_notPositive_fails() {
+        CompressionOptions.Builder builder = CompressionOptions.builder();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.setBlockSize(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.setDictionarySize(-1));
+        assertThat(CompressionOptions.DEFAULT.getBlockSize()).isZero();
+        assertThat(CompressionOptions.DEFAULT.getDictionarySize()).isZero();
+    }
+
+    @Test
+    void setLongDistanceMatching_outOfRange_fails() {
+        CompressionOptions.Builder builder = CompressionOptions.builder();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.setLongDistanceMatching(9));
+        assertThrows(IllegalArgumentException.class, () -> builder.setLongDistanceMatching(32));
+        assertThat(builder.setLongDistanceMatching(27).build().getLongDistanceWindowLog()).isEqualTo(27);
+    }
+
+    @Test
+    void getThreads_isLimitedByMemoryBudget() {
+        CompressionOptions options = CompressionOptions.builder().setThreads(8).setMemoryBudget(300).build();
+
+        assertThat(options.getThreads(100)).isEqualTo(3);
+        assertThat(options.getThreads(1)).isEqualTo(8);
+        assertThat(options.getThreads(1000)).isEqualTo(1);
+    }
+
+    @Test
+    void memoryMapThreshold_isDisabledByDefault() {
+        CompressionOptions options = CompressionOptions.builder().setMemoryMapThreshold(1024).build();
+
+        assertThat(CompressionOptions.DEFAULT.getMemoryMapThreshold()).isZero();
+        assertThat(CompressionOptions.DEFAULT.isMemoryMapped(Long.MAX_VALUE)).isFalse();
+        assertThat(options.getMemoryMapThreshold()).isEqualTo(1024);
+        assertThat(options.isMemoryMapped(1023)).isFalse();
+        assertThat(options.isMemoryMapped(1024)).isTrue();
+    }
+
+    @Test
+    void setMemoryMapThreshold_notPositive_fails() {
+        CompressionOptions.Builder builder = CompressionOptions.builder();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.setMemoryMapThreshold(0));
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import java.io.File;
+
+@SuppressWarnings("java:S2187")
+public class CompressorLz4Test extends AbstractCompressorTest {
+
+    @Override
+    protected File getCompressedFile() {
+        return new File(RESOURCES_DIR, "compress.txt.lz4");
+    }
+
+    @Override
+    protected CompressionType getCompressionType() {
+        return CompressionType.LZ4_FRAMED;
+    }
+
+    @Override
+    protected Compressor getCompressor() {
+        return new CommonsCompressor(getCompressionType());
+    }
+}
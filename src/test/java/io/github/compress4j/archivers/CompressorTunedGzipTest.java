@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@SuppressWarnings("java:S2187")
+public class CompressorTunedGzipTest extends AbstractCompressorTest {
+
+    @Override
+    protected File getCompressedFile() {
+        return new File(RESOURCES_DIR, "compress.txt.gz");
+    }
+
+    @Override
+    protected CompressionType getCompressionType() {
+        return CompressionType.GZIP;
+    }
+
+    @Override
+    protected Compressor getCompressor() {
+        return CompressorFactory.createCompressor(
+                getCompressionType(), CompressionOptions.builder().setProfile(CompressionProfile.SMALLEST).build());
+    }
+
+    private static int compressedSize(CompressionType type, CompressionOptions options) throws IOException {
+        Random random = new Random(42);
+        byte[] data = new byte[500_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + (int) Math.abs(random.nextGaussian() * 4));
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = new CommonsCompressor(type, options).compressingStream(compressed)) {
+            out.write(data);
+        }
+        return compressed.size();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4})
+    void compress_withLowerLevel_isLarger(int threads) throws IOException {
+        CompressionOptions.Builder builder = CompressionOptions.builder().setThreads(threads);
+
+        int fastest = compressedSize(getCompressionType(), builder.setLevel(1).build());
+        int stored = compressedSize(getCompressionType(), builder.setLevel(0).build());
+        int smallest = compressedSize(getCompressionType(), builder.setLevel(9).build());
+
+        assertThat(stored).isGreaterThan(fastest);
+        assertThat(fastest).isGreaterThan(smallest);
+    }
+}
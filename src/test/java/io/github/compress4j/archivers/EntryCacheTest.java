@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EntryCacheTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void get_secondRead_isServedFromCache() throws IOException {
+        EntryCache cache = new EntryCache(1024);
+        File archive = createFile("archive.zip");
+        AtomicInteger loads = new AtomicInteger();
+
+        ByteBuffer first = cache.get(archive, "a.txt", () -> load(loads, "content"));
+        ByteBuffer second = cache.get(archive, "a.txt", () -> load(loads, "other"));
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(second).isEqualTo(first);
+        assertThat(second.isReadOnly()).isTrue();
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getSize()).isEqualTo(7);
+        assertThat(cache.getEntryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void get_beyondMaximumSize_evictsLeastRecentlyUsed() throws IOException {
+        EntryCache cache = new EntryCache(10);
+        File archive = createFile("archive.zip");
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(archive, "a.txt", () -> load(loads, "aaaa"));
+        cache.get(archive, "b.txt", () -> load(loads, "bbbb"));
+        cache.get(archive, "a.txt", () -> load(loads, "aaaa"));
+        cache.get(archive, "c.txt", () -> load(loads, "cccc"));
+        cache.get(archive, "a.txt", () -> load(loads, "aaaa"));
+        cache.get(archive, "b.txt", () -> load(loads, "bbbb"));
+
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(cache.getEvictionCount()).isEqualTo(2);
+        assertThat(cache.getSize()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void get_entryLargerThanMaximumSize_isNotCached() throws IOException {
+        EntryCache cache = new EntryCache(4);
+        File archive = createFile("archive.zip");
+
+        ByteBuffer content = cache.get(archive, "a.txt", () -> "too large".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(content.remaining()).isEqualTo(9);
+        assertThat(cache.getEntryCount()).isZero();
+    }
+
+    @Test
+    void get_missingEntry_returnsNullAndIsNotCached() throws IOException {
+        EntryCache cache = new EntryCache(1024);
+
+        assertThat(cache.get(createFile("archive.zip"), "missing.txt", () -> null)).isNull();
+        assertThat(cache.getEntryCount()).isZero();
+    }
+
+    @Test
+    void get_afterArchiveChanged_loadsAgain() throws IOException {
+        EntryCache cache = new EntryCache(1024);
+        File archive = createFile("archive.zip");
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(archive, "a.txt", () -> load(loads, "old"));
+        assertThat(archive.setLastModified(archive.lastModified() - 10_000)).isTrue();
+        ByteBuffer content = cache.get(archive, "a.txt", () -> load(loads, "new"));
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(StandardCharsets.UTF_8.decode(content).toString()).isEqualTo("new");
+    }
+
+    @Test
+    void readEntry_withEntryCache_readsArchiveOnce() throws IOException {
+        EntryCache cache = new EntryCache(1024);
+        Archiver archiver = ArchiverFactory.createArchiver(
+                ArchiveFormat.ZIP,
+                CompressionOptions.DEFAULT,
+                ReadOptions.builder().setEntryCache(cache).build());
+        File archive = new File(AbstractResourceTest.RESOURCES_DIR, "archive.zip");
+
+        ByteBuffer first = archiver.readEntry(archive, "folder/folder_file.txt");
+        ByteBuffer second = archiver.readEntry(archive, "folder/folder_file.txt");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateAll_removesAllEntries() throws IOException {
+        EntryCache cache = new EntryCache(1024);
+        cache.get(createFile("archive.zip"), "a.txt", () -> "a".getBytes(StandardCharsets.UTF_8));
+
+        cache.invalidateAll();
+
+        assertThat(cache.getEntryCount()).isZero();
+        assertThat(cache.getSize()).isZero();
+    }
+
+    @Test
+    void create_withNonPositiveMaximumSize_fails() {
+        assertThrows(IllegalArgumentException.class, () -> new EntryCache(0));
+    }
+
+    private File createFile(String name) throws IOException {
+        File file = new File(tempDir, name);
+        Files.write(file.toPath(), new byte[] {1, 2, 3});
+        return file;
+    }
+
+    private static byte[] load(AtomicInteger loads, String content) {
+        loads.incrementAndGet();
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class EntryFilterTest {
+
+    private static Stream<Arguments> globs() {
+        return Stream.of(
+                Arguments.of("*.txt", "file.txt", true),
+                Arguments.of("*.txt", "folder/file.txt", false),
+                Arguments.of("**/*.txt", "file.txt", true),
+                Arguments.of("**/*.txt", "folder/subfolder/file.txt", true),
+                Arguments.of("folder/**", "folder/subfolder/file.txt", true),
+                Arguments.of("folder/**", "other/file.txt", false),
+                Arguments.of("file?.txt", "file1.txt", true),
+                Arguments.of("file?.txt", "file/.txt", false),
+                Arguments.of("file[0-9].txt", "file7.txt", true),
+                Arguments.of("file[!0-9].txt", "file7.txt", false),
+                Arguments.of("*.{log,txt}", "file.log", true),
+                Arguments.of("*.{log,txt}", "file.csv", false),
+                Arguments.of("file(1).txt", "file(1).txt", true),
+                Arguments.of("file.txt", "fileatxt", false),
+                Arguments.of("\\*.txt", "*.txt", true),
+                Arguments.of("\\*.txt", "file.txt", false));
+    }
+
+    @ParameterizedTest
+    @MethodSource("globs")
+    void glob_matchesWholeEntryName(String glob, String entryName, boolean expected) {
+        assertThat(EntryFilter.glob(glob).accept(entryName)).isEqualTo(expected);
+    }
+
+    @Test
+    void glob_malformed_fails() {
+        assertThrows(IllegalArgumentException.class, () -> EntryFilter.glob("file[0-9.txt"));
+        assertThrows(IllegalArgumentException.class, () -> EntryFilter.glob("*.{log,txt"));
+        assertThrows(IllegalArgumentException.class, () -> EntryFilter.glob("file.txt\\"));
+    }
+
+    @Test
+    void prefix_acceptsEntriesStartingWithPrefix() {
+        EntryFilter filter = EntryFilter.prefix("folder/");
+
+        assertThat(filter.accept("folder/file.txt")).isTrue();
+        assertThat(filter.accept("folder/")).isTrue();
+        assertThat(filter.accept("folder")).isFalse();
+        assertThat(filter.accept("other/folder/file.txt")).isFalse();
+    }
+
+    @Test
+    void combinators_combineFilters() {
+        EntryFilter txt = EntryFilter.glob("**.txt");
+        EntryFilter folder = EntryFilter.prefix("folder/");
+
+        assertThat(txt.and(folder).accept("folder/file.txt")).isTrue();
+        assertThat(txt.and(folder).accept("file.txt")).isFalse();
+        assertThat(txt.or(folder).accept("file.txt")).isTrue();
+        assertThat(txt.negate().accept("file.txt")).isFalse();
+        assertThat(EntryFilter.ALL.accept("anything")).isTrue();
+    }
+}
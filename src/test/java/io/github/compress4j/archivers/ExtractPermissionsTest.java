@@ -92,6 +92,18 @@ public class ExtractPermissionsTest {
             assertJavaPermissions();
         }
 
+        @Test
+        public void extract_restoresModificationTimes() throws Exception {
+            archiver.extract(archive, archiveExtractTmpDir);
+            assertModificationTimes();
+        }
+
+        @Test
+        public void extract_stream_restoresModificationTimes() throws Exception {
+            extractWithStream();
+            assertModificationTimes();
+        }
+
         private void extractWithStream() throws IOException {
             try (ArchiveStream stream = archiver.stream(archive)) {
                 ArchiveEntry entry;
@@ -101,6 +113,18 @@ public class ExtractPermissionsTest {
             }
         }
 
+        private void assertModificationTimes() throws IOException {
+            try (ArchiveStream stream = archiver.stream(archive)) {
+                ArchiveEntry entry;
+                while ((entry = stream.getNextEntry()) != null) {
+                    File file = getExtractedFile(entry.getName());
+                    assertThat(file.lastModified())
+                            .withFailMessage("modification time of <%s>", entry.getName())
+                            .isEqualTo(entry.getLastModifiedDate().getTime());
+                }
+            }
+        }
+
         private void assertJavaPermissions() {
             assertPermissions(true, true, true, getExtractedFile("permissions/executable_file.txt"));
             assertPermissions(true, true, true, getExtractedFile("permissions/private_executable_file.txt"));
@@ -20,9 +20,12 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.junit.jupiter.api.Test;
 
 class ExtractWithOptionsTest extends AbstractResourceTest {
@@ -82,6 +85,37 @@ class ExtractWithOptionsTest extends AbstractResourceTest {
         assertFileContains("new content");
     }
 
+    @Test
+    void extract_duplicateEntries_without_options_must_fail() throws IOException {
+        File archive = createArchiveWithDuplicateEntries();
+
+        assertThatExceptionOfType(FileAlreadyExistsException.class).isThrownBy(() -> {
+            getArchiver().extract(archive, archiveExtractTmpDir);
+        });
+    }
+
+    @Test
+    void extract_duplicateEntries_with_options_replace_keepsLastEntry() throws IOException {
+        File archive = createArchiveWithDuplicateEntries();
+
+        getArchiver().extract(archive, archiveExtractTmpDir, StandardCopyOption.REPLACE_EXISTING);
+
+        assertFileContains("content 15");
+    }
+
+    private File createArchiveWithDuplicateEntries() throws IOException {
+        File archive = new File(archiveCreateTmpDir, "duplicates.zip");
+        try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(archive)) {
+            for (int i = 0; i < 16; i++) {
+                byte[] content = ("content " + i + "\n").repeat(10_000 - i).getBytes(StandardCharsets.UTF_8);
+                out.putArchiveEntry(new ZipArchiveEntry(ZIP_FILE_NAME));
+                out.write(content);
+                out.closeArchiveEntry();
+            }
+        }
+        return archive;
+    }
+
     private void assertFileContains(String expectedFileContent) throws IOException {
         assertThat(archiveExtractTmpDir)
                 .isDirectoryContaining(file -> file.getName().equals(ZIP_FILE_NAME));
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ExtractionContextTest {
+
+    @TempDir
+    File destination;
+
+    private static Stream<Arguments> entryNames() {
+        return Stream.of(
+                Arguments.of("file.txt", "file.txt"),
+                Arguments.of("folder/sub/../file.txt", "folder/file.txt"),
+                Arguments.of("../../../file.txt", "file.txt"),
+                Arguments.of("/tmp/file.txt", "tmp/file.txt"),
+                Arguments.of("path/../../../tmp/file.txt", "tmp/file.txt"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("entryNames")
+    void resolve_keepsEntriesInsideDestination(String entryName, String expected) throws IOException {
+        ExtractionContext context = new ExtractionContext(destination);
+
+        assertThat(context.resolve(entryName)).isEqualTo(new File(destination, expected));
+    }
+
+    @Test
+    void resolve_siblingWithCommonPrefix_isCleaned() throws IOException {
+        ExtractionContext context = new ExtractionContext(destination);
+
+        File resolved = context.resolve("../" + destination.getName() + "-sibling/file.txt");
+
+        assertThat(resolved).isEqualTo(new File(destination, destination.getName() + "-sibling/file.txt"));
+    }
+
+    @Test
+    void createDirectories_createsEachDirectoryOnce() throws IOException {
+        ExtractionContext context = new ExtractionContext(destination);
+        File directory = context.resolve("folder/subfolder");
+
+        context.createDirectories(directory);
+        assertThat(directory).isDirectory();
+
+        Files.delete(directory.toPath());
+        context.createDirectories(directory);
+        context.createDirectories(directory.getParentFile());
+
+        assertThat(directory).doesNotExist();
+        assertThat(directory.getParentFile()).isDirectory();
+    }
+}
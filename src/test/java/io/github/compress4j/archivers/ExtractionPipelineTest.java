@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExtractionPipelineTest {
+
+    @TempDir
+    File destination;
+
+    @Test
+    void extract_entriesSmallerAndLargerThanBuffer_writesAllFiles() throws IOException {
+        ExtractionContext context = new ExtractionContext(destination);
+
+        try (ExtractionPipeline pipeline = new ExtractionPipeline(context, 2, 16)) {
+            pipeline.extract(stream(""), new TarArchiveEntry("folder/"));
+            for (int i = 0; i < 50; i++) {
+                String content = "entry " + i + " ".repeat(i);
+                pipeline.extract(stream(content), new TarArchiveEntry("folder/sub" + i % 3 + "/file" + i));
+            }
+            pipeline.finish();
+        }
+
+        assertThat(new File(destination, "folder")).isDirectory();
+        for (int i = 0; i < 50; i++) {
+            File file = new File(destination, "folder/sub" + i % 3 + "/file" + i);
+            assertThat(file).hasContent("entry " + i + " ".repeat(i));
+        }
+    }
+
+    @Test
+    void extract_sameFileTwice_writesLastEntry() throws IOException {
+        ExtractionContext context = new ExtractionContext(destination);
+
+        try (ExtractionPipeline pipeline = new ExtractionPipeline(context, 4, 1024)) {
+            for (int i = 0; i < 20; i++) {
+                TarArchiveEntry entry = new TarArchiveEntry("file.txt");
+                pipeline.extract(stream("version " + i), entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+            pipeline.finish();
+        }
+
+        assertThat(new File(destination, "file.txt")).hasContent("version 19");
+    }
+
+    @Test
+    void finish_afterFailedWrite_rethrowsFailure() throws IOException {
+        Files.write(new File(destination, "file.txt").toPath(), "existing".getBytes(StandardCharsets.UTF_8));
+        ExtractionContext context = new ExtractionContext(destination);
+
+        try (ExtractionPipeline pipeline = new ExtractionPipeline(context, 2, 1024)) {
+            pipeline.extract(stream("content"), new TarArchiveEntry("file.txt"));
+
+            assertThrows(FileAlreadyExistsException.class, pipeline::finish);
+        }
+        assertThat(new File(destination, "file.txt")).hasContent("existing");
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -42,7 +42,7 @@ class FactoryTest extends AbstractResourceTest {
     void createArchiver_fromStringArchiveFormat_returnsCorrectArchiver() {
         Archiver archiver = ArchiverFactory.createArchiver("tar");
 
-        assertThat(archiver).isNotNull().isOfAnyClassIn(CommonsArchiver.class);
+        assertThat(archiver).isNotNull().isOfAnyClassIn(TarFileArchiver.class);
     }
 
     @Test
@@ -63,7 +63,7 @@ class FactoryTest extends AbstractResourceTest {
     void createArchiver_fromArchiveFile_returnsCorrectArchiver() {
         Archiver archiver = ArchiverFactory.createArchiver(new File(RESOURCES_DIR, "archive.tar"));
 
-        assertThat(archiver).isNotNull().isOfAnyClassIn(CommonsArchiver.class);
+        assertThat(archiver).isNotNull().isOfAnyClassIn(TarFileArchiver.class);
     }
 
     @Test
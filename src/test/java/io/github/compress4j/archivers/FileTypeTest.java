@@ -60,6 +60,34 @@ class FileTypeTest {
         assertThat(extension.getSuffix()).isEqualTo(".tar.gz");
     }
 
+    @Test
+    void get_zstd_returnsCorrectFileTypes() {
+        assertThat(FileType.get("/path/to/file/file.zst").getCompressionType()).isEqualTo(CompressionType.ZSTANDARD);
+        assertThat(FileType.get("/path/to/file/file.zst").isArchive()).isFalse();
+
+        for (String name : new String[] {"/path/to/file/file.tar.zst", "/path/to/file/file.tzst"}) {
+            FileType extension = FileType.get(name);
+            assertThat(extension.getArchiveFormat()).isEqualTo(ArchiveFormat.TAR);
+            assertThat(extension.getCompressionType()).isEqualTo(CompressionType.ZSTANDARD);
+        }
+    }
+
+    @Test
+    void get_lz4_returnsCorrectFileTypes() {
+        assertThat(FileType.get("/path/to/file/file.lz4").getCompressionType()).isEqualTo(CompressionType.LZ4_FRAMED);
+        assertThat(FileType.get("/path/to/file/file.lz4").isArchive()).isFalse();
+
+        FileType extension = FileType.get("/path/to/file/file.tar.lz4");
+        assertThat(extension.getArchiveFormat()).isEqualTo(ArchiveFormat.TAR);
+        assertThat(extension.getCompressionType()).isEqualTo(CompressionType.LZ4_FRAMED);
+    }
+
+    @Test
+    void get_snappyAndBrotli_returnsCorrectFileTypes() {
+        assertThat(FileType.get("/path/to/file/file.sz").getCompressionType()).isEqualTo(CompressionType.SNAPPY_FRAMED);
+        assertThat(FileType.get("/path/to/file/file.br").getCompressionType()).isEqualTo(CompressionType.BROTLI);
+    }
+
     @Test
     void get_unknownExtension_returnsUnknown() {
         assertThat(FileType.get("/path/to/file/file.foobar")).isEqualTo(FileType.UNKNOWN);
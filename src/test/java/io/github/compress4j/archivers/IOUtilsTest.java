@@ -16,8 +16,17 @@
 package io.github.compress4j.archivers;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.Map;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -38,4 +47,21 @@ class IOUtilsTest {
     void shouldCleanEntryName(String entryName, String expected) {
         assertThat(IOUtils.cleanEntryName(entryName)).isEqualTo(expected);
     }
+
+    @Test
+    void toFile_defaultFileSystemPath_returnsFile(@TempDir Path directory) {
+        assertThat(IOUtils.toFile(directory)).isEqualTo(directory.toFile());
+    }
+
+    @Test
+    void toFile_otherFileSystemPath_throwsIllegalArgumentException(@TempDir Path directory) throws IOException {
+        URI uri = URI.create("jar:" + directory.resolve("archive.zip").toUri());
+        try (FileSystem zip = FileSystems.newFileSystem(uri, Map.of("create", "true"))) {
+            Path path = zip.getPath("/file.txt");
+
+            assertThatThrownBy(() -> IOUtils.toFile(path))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("default file system");
+        }
+    }
 }
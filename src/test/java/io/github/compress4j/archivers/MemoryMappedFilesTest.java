@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MemoryMappedFilesTest {
+
+    private static final int WINDOW_SIZE = 4096;
+
+    @TempDir
+    File tempDir;
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, WINDOW_SIZE - 1, WINDOW_SIZE, WINDOW_SIZE + 1, 10 * WINDOW_SIZE + 17, 1_000_000})
+    void transferTo_copiesWholeFileAcrossWindows(int size) throws IOException {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        File file = new File(tempDir, "data.bin");
+        Files.write(file.toPath(), data);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long copied = MemoryMappedFiles.transferTo(file, out, WINDOW_SIZE);
+
+        assertThat(copied).isEqualTo(size);
+        assertThat(out.toByteArray()).isEqualTo(data);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 50_000, MemoryMappedFiles.MAP_THRESHOLD - 1, MemoryMappedFiles.MAP_THRESHOLD + 1})
+    void crc32_ofRegion_matchesCrc32OfBytes(int size) throws IOException {
+        byte[] data = new byte[size + 2_000];
+        new Random(size).nextBytes(data);
+        File file = new File(tempDir, "data.bin");
+        Files.write(file.toPath(), data);
+        CRC32 expected = new CRC32();
+        expected.update(data, 1_000, size);
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            assertThat(MemoryMappedFiles.crc32(channel, 1_000, size)).isEqualTo(expected.getValue());
+        }
+    }
+
+    @Test
+    void crc32_ofRegionPastEndOfFile_fails() throws IOException {
+        File file = new File(tempDir, "data.bin");
+        Files.write(file.toPath(), new byte[1_000]);
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            assertThrows(EOFException.class, () -> MemoryMappedFiles.crc32(channel, 500, 1_000));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Date;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+@SuppressWarnings("OctalInteger")
+class MetadataBatchTest {
+
+    private static final long MODIFIED = 1_500_000_000_000L;
+
+    @TempDir
+    File tempDir;
+
+    private static TarArchiveEntry entry(String name, int mode) {
+        TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setMode(mode);
+        entry.setModTime(new Date(MODIFIED));
+        return entry;
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void apply_setsDirectoryMetadataAfterTheirContent() throws IOException {
+        File directory = new File(tempDir, "readonly");
+        File file = new File(directory, "file.txt");
+        MetadataBatch batch = new MetadataBatch();
+
+        // the directory is recorded first, but made read-only only after its content got its metadata
+        assertThat(directory.mkdir()).isTrue();
+        batch.add(entry("readonly/", 040555), directory);
+        Files.writeString(file.toPath(), "content");
+        batch.add(entry("readonly/file.txt", 0100640), file);
+        batch.apply();
+
+        assertThat(directory.lastModified()).isEqualTo(MODIFIED);
+        assertThat(file.lastModified()).isEqualTo(MODIFIED);
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(directory.toPath())))
+                .isEqualTo("r-xr-xr-x");
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file.toPath())))
+                .isEqualTo("rw-r-----");
+
+        assertThat(directory.setWritable(true)).isTrue();
+    }
+
+    @Test
+    void apply_nestedDirectories_keepTheirModificationTimes() throws IOException {
+        File parent = new File(tempDir, "parent");
+        File child = new File(parent, "child");
+        MetadataBatch batch = new MetadataBatch();
+
+        assertThat(parent.mkdir()).isTrue();
+        batch.add(entry("parent/", 040755), parent);
+        assertThat(child.mkdir()).isTrue();
+        batch.add(entry("parent/child/", 040755), child);
+        batch.apply();
+
+        assertThat(parent.lastModified()).isEqualTo(MODIFIED);
+        assertThat(child.lastModified()).isEqualTo(MODIFIED);
+    }
+}
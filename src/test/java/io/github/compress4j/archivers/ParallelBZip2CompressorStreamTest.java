@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ParallelBZip2CompressorStreamTest {
+
+    private static final int BLOCK_SIZE_100K = 1;
+    // ParallelBZip2CompressorOutputStream.inputBlockSize(BLOCK_SIZE_100K), spelled out to be usable in annotations
+    private static final int BLOCK_SIZE = (BLOCK_SIZE_100K * 100_000 - 20) / 5 * 4;
+
+    private static byte[] compressibleData(int size) {
+        Random random = new Random(size);
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+
+    /**
+     * Returns a block of data whose bzip2 symbol map consists of the given bits: 16 bits marking the used ranges of 16
+     * byte values, followed by 16 bits per used range marking the used values. No value repeats, so that the symbols
+     * are not run-length encoded.
+     */
+    private static byte[] symbolMapData(int usedRanges, int... usedValues) {
+        byte[] symbols = new byte[256];
+        int count = 0;
+        int range = 0;
+        for (int i = 0; i < 16; i++) {
+            if ((usedRanges >>> (15 - i) & 1) != 0) {
+                for (int j = 0; j < 16; j++) {
+                    if ((usedValues[range] >>> (15 - j) & 1) != 0) {
+                        symbols[count++] = (byte) (i * 16 + j);
+                    }
+                }
+                range++;
+            }
+        }
+
+        Random random = new Random(usedRanges);
+        byte[] data = new byte[BLOCK_SIZE];
+        int symbol = 0;
+        for (int i = 0; i < data.length; i++) {
+            symbol = i < count ? i : (symbol + 1 + random.nextInt(count - 1)) % count;
+            data[i] = symbols[symbol];
+        }
+        return data;
+    }
+
+    private static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = new ParallelBZip2CompressorOutputStream(compressed, 4, BLOCK_SIZE_100K)) {
+            out.write(data);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] decompressInParallel(byte[] compressed) throws IOException {
+        try (InputStream in = new ParallelBZip2CompressorInputStream(new ByteArrayInputStream(compressed), 4)) {
+            return in.readAllBytes();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 1_000, BLOCK_SIZE, BLOCK_SIZE + 1, 1_000_000})
+    void compress_producesSingleBZip2Stream(int size) throws IOException {
+        byte[] data = compressibleData(size);
+
+        byte[] compressed = compress(data);
+
+        try (InputStream in = new BZip2CompressorInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(in.readAllBytes()).isEqualTo(data);
+        }
+    }
+
+    @Test
+    void compress_withLongRuns_keepsOneBlockPerTask() throws IOException {
+        byte[] data = new byte[3 * BLOCK_SIZE];
+        Arrays.fill(data, (byte) 'x');
+        for (int i = 0; i < data.length; i += 5) {
+            data[i] = 'y';
+        }
+
+        byte[] compressed = compress(data);
+
+        assertThat(decompressInParallel(compressed)).isEqualTo(data);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1_000, 1_000_000})
+    void decompress_streamOfSequentialEncoder(int size) throws IOException {
+        byte[] data = compressibleData(size);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = new BZip2CompressorOutputStream(compressed, BLOCK_SIZE_100K)) {
+            out.write(data);
+        }
+
+        assertThat(decompressInParallel(compressed.toByteArray())).isEqualTo(data);
+    }
+
+    @Test
+    void decompress_withFalseBlockAndEndOfStreamMagic_decodesAllBlocks() throws IOException {
+        // the symbol maps of these blocks start with the bits of the block magic and the end-of-stream magic
+        byte[] falseBlockMagic = symbolMapData(0x3141, 0x5926, 0x5359, 0x8000, 0x8000, 0x8000);
+        byte[] falseEndOfStreamMagic =
+                symbolMapData(0x1772, 0x4538, 0x5090, 0x8000, 0x8000, 0x8000, 0x8000, 0x8000, 0x8000);
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write(falseBlockMagic);
+        data.write(falseEndOfStreamMagic);
+        data.write(falseBlockMagic);
+        data.write(falseEndOfStreamMagic);
+
+        byte[] compressed = compress(data.toByteArray());
+
+        assertThat(decompressInParallel(compressed)).isEqualTo(data.toByteArray());
+    }
+
+    @Test
+    void decompress_withCorruptStreamCrc_throwsException() throws IOException {
+        byte[] compressed = compress(compressibleData(500_000));
+        compressed[compressed.length - 2] ^= 1;
+
+        assertThrows(IOException.class, () -> decompressInParallel(compressed));
+    }
+
+    @Test
+    void decompress_nonBZip2Stream_throwsException() {
+        byte[] notBZip2 = "not a bzip2 stream".getBytes();
+
+        assertThrows(IOException.class, () -> decompressInParallel(notBZip2));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import org.junit.jupiter.api.Test;
+
+class ParallelCompressorOutputStreamTest {
+
+    private static final int BLOCK_SIZE = 4;
+
+    /** Copies the blocks as they are between a header and a trailer, failing on the block of the given index. */
+    private static class CopyingOutputStream extends ParallelCompressorOutputStream {
+
+        private final int failingBlock;
+        private int blocks;
+
+        CopyingOutputStream(OutputStream out, int failingBlock) {
+            super(out, 2, BLOCK_SIZE, "copy");
+            this.failingBlock = failingBlock;
+        }
+
+        @Override
+        protected Callable<byte[]> compressBlock(byte[] block, int length, boolean last) {
+            boolean failing = blocks++ == failingBlock;
+            return () -> {
+                if (failing) {
+                    throw new IOException("Block failed");
+                }
+                return Arrays.copyOf(block, length);
+            };
+        }
+
+        @Override
+        protected void writeHeader(OutputStream out) throws IOException {
+            out.write('H');
+        }
+
+        @Override
+        protected void writeTrailer(OutputStream out) throws IOException {
+            out.write('T');
+        }
+    }
+
+    @Test
+    void close_writesHeaderBlocksAndTrailer() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = new CopyingOutputStream(compressed, -1)) {
+            out.write("abcdefghij".getBytes());
+        }
+
+        assertThat(compressed.toString()).isEqualTo("HabcdefghijT");
+    }
+
+    @Test
+    void close_afterFailedBlock_skipsRemainingBlocksAndTrailer() {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        IOException e = assertThrows(IOException.class, () -> {
+            try (OutputStream out = new CopyingOutputStream(compressed, 1)) {
+                for (int i = 0; i < 100; i++) {
+                    out.write("abcd".getBytes());
+                }
+            }
+        });
+
+        assertThat(e).hasMessage("Block failed");
+        assertThat(compressed.toString()).isEqualTo("Habcd");
+    }
+
+    @Test
+    void finish_afterFailedBlock_rethrowsFailure() {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        CopyingOutputStream out = new CopyingOutputStream(compressed, 0);
+
+        assertThrows(IOException.class, () -> out.write(new byte[BLOCK_SIZE * 10]));
+        IOException e = assertThrows(IOException.class, out::finish);
+
+        assertThat(e.getCause()).hasMessage("Block failed");
+        assertThat(compressed.size()).isZero();
+        assertThrows(IOException.class, () -> out.write(1));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ParallelGzipCompressorOutputStreamTest {
+
+    private static final int BLOCK_SIZE = 40_000;
+
+    private static byte[] compressibleData(int size) {
+        Random random = new Random(size);
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+
+    private static byte[] compress(byte[] data, boolean flushInBetween) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = new ParallelGzipCompressorOutputStream(compressed, 4, BLOCK_SIZE, 6)) {
+            int chunk = 7_919;
+            for (int off = 0; off < data.length; off += chunk) {
+                out.write(data, off, Math.min(chunk, data.length - off));
+                if (flushInBetween) {
+                    out.flush();
+                }
+            }
+        }
+        return compressed.toByteArray();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 1_000, BLOCK_SIZE, BLOCK_SIZE + 1, 1_000_000})
+    void compress_producesSingleGzipStream(int size) throws IOException {
+        byte[] data = compressibleData(size);
+
+        byte[] compressed = compress(data, false);
+
+        try (GzipCompressorInputStream in = new GzipCompressorInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(in.readAllBytes()).isEqualTo(data);
+        }
+    }
+
+    @Test
+    void compress_withFlush_isReadableByJdkGzip() throws IOException {
+        byte[] data = compressibleData(250_000);
+
+        byte[] compressed = compress(data, true);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(in.readAllBytes()).isEqualTo(data);
+        }
+    }
+
+    @Test
+    void write_afterClose_throwsException() throws IOException {
+        OutputStream out = new ParallelGzipCompressorOutputStream(new ByteArrayOutputStream(), 2);
+        out.close();
+
+        assertThrows(IOException.class, () -> out.write(1));
+    }
+}
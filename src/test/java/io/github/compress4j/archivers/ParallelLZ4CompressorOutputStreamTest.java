@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorInputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ParallelLZ4CompressorOutputStreamTest {
+
+    private static final int BLOCK_SIZE = ParallelLZ4CompressorOutputStream.BLOCK_SIZE;
+
+    private static byte[] data(int size, boolean compressible) {
+        Random random = new Random(size);
+        byte[] data = new byte[size];
+        if (compressible) {
+            // long matches, as the commons LZ4 encoder slows down quadratically on many short ones
+            byte[] pattern = new byte[1000];
+            random.nextBytes(pattern);
+            for (int i = 0; i < size; i++) {
+                data[i] = pattern[i % pattern.length];
+            }
+            for (int i = 0; i < size; i += 50_000) {
+                data[i] ^= 1;
+            }
+        } else {
+            random.nextBytes(data);
+        }
+        return data;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 1_000, BLOCK_SIZE, 2 * BLOCK_SIZE + 1})
+    void compress_producesSameFrameAsSequentialStream(int size) throws IOException {
+        for (boolean compressible : new boolean[] {true, false}) {
+            byte[] data = data(size, compressible);
+
+            ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+            try (OutputStream out = new ParallelLZ4CompressorOutputStream(parallel, 4)) {
+                out.write(data);
+            }
+            ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+            try (OutputStream out = new FramedLZ4CompressorOutputStream(sequential)) {
+                out.write(data);
+            }
+
+            assertThat(parallel.toByteArray()).isEqualTo(sequential.toByteArray());
+            try (FramedLZ4CompressorInputStream in =
+                    new FramedLZ4CompressorInputStream(new ByteArrayInputStream(parallel.toByteArray()))) {
+                assertThat(in.readAllBytes()).isEqualTo(data);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.apache.commons.compress.archivers.zip.JarMarker;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParallelZipArchiveOutputStreamTest {
+
+    private static final CompressionOptions PARALLEL = CompressionOptions.builder().setThreads(4).build();
+
+    @TempDir
+    Path tempDir;
+
+    private File source;
+    private File destination;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        source = Files.createDirectories(tempDir.resolve("source")).toFile();
+        destination = Files.createDirectories(tempDir.resolve("destination")).toFile();
+
+        Random random = new Random(42);
+        for (int dir = 0; dir < 3; dir++) {
+            Path directory = Files.createDirectories(source.toPath().resolve("dir" + dir + "/sub"));
+            for (int file = 0; file < 20; file++) {
+                byte[] content = new byte[random.nextInt(10_000)];
+                for (int i = 0; i < content.length; i++) {
+                    content[i] = (byte) ('a' + random.nextInt(4));
+                }
+                Files.write(directory.resolve("file" + file + ".txt"), content);
+            }
+        }
+    }
+
+    private static List<String> entries(File archive) throws IOException {
+        List<String> entries = new ArrayList<>();
+        try (ZipFile zipFile = ZipFile.builder().setFile(archive).get()) {
+            for (ZipArchiveEntry entry : Collections.list(zipFile.getEntriesInPhysicalOrder())) {
+                entries.add(entry.getName() + ":" + entry.getSize() + ":" + entry.getCrc());
+            }
+        }
+        return entries;
+    }
+
+    @Test
+    void create_writesEntriesInSameOrderAsSequentialArchiver() throws IOException {
+        File sequential = ArchiverFactory.createArchiver(ArchiveFormat.ZIP).create("sequential", destination, source);
+
+        File parallel =
+                ArchiverFactory.createArchiver(ArchiveFormat.ZIP, PARALLEL).create("parallel", destination, source);
+
+        assertThat(entries(parallel)).isNotEmpty().isEqualTo(entries(sequential));
+    }
+
+    @Test
+    void create_jar_addsJarMarkerToFirstEntry() throws IOException {
+        File jar = ArchiverFactory.createArchiver(ArchiveFormat.JAR, PARALLEL).create("parallel", destination, source);
+
+        try (ZipFile zipFile = ZipFile.builder().setFile(jar).get()) {
+            ZipArchiveEntry first = zipFile.getEntriesInPhysicalOrder().nextElement();
+            assertThat(first.getExtraField(JarMarker.getInstance().getHeaderId())).isNotNull();
+        }
+    }
+
+    @Test
+    void create_withEntryLargerThanSpillThreshold_roundTrips() throws IOException {
+        byte[] content = new byte[3 * ParallelZipArchiveOutputStream.SPILL_THRESHOLD];
+        new Random(7).nextBytes(content);
+        Files.write(source.toPath().resolve("large.bin"), content);
+
+        File archive =
+                ArchiverFactory.createArchiver(ArchiveFormat.ZIP, PARALLEL).create("parallel", destination, source);
+
+        try (ZipFile zipFile = ZipFile.builder().setFile(archive).get();
+                InputStream in = zipFile.getInputStream(zipFile.getEntry("large.bin"))) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+    }
+}
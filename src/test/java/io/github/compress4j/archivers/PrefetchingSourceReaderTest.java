@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PrefetchingSourceReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File source;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        source = Files.createDirectories(tempDir.resolve("source")).toFile();
+
+        Random random = new Random(42);
+        for (int dir = 0; dir < 3; dir++) {
+            Path directory = Files.createDirectories(source.toPath().resolve("dir" + dir + "/sub/deeper"));
+            for (int file = 0; file < 10; file++) {
+                byte[] content = new byte[random.nextInt(2 * PrefetchingSourceReader.BUFFER_SIZE)];
+                random.nextBytes(content);
+                Files.write(directory.resolve("file" + file), content);
+                Files.write(directory.getParent().resolve("file" + file), content);
+            }
+        }
+        Files.createDirectories(source.toPath().resolve("empty"));
+    }
+
+    private static List<String> sequentialOrder(File parent, File file) {
+        List<String> names = new ArrayList<>();
+        names.add(CommonsArchiver.getRelativePath(parent, file));
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                names.addAll(sequentialOrder(parent, child));
+            }
+        }
+        return names;
+    }
+
+    @Test
+    void next_returnsFilesInDepthFirstOrderWithTheirContent() throws IOException {
+        List<String> names = new ArrayList<>();
+
+        try (TarArchiveOutputStream archive = new TarArchiveOutputStream(new ByteArrayOutputStream());
+                PrefetchingSourceReader<TarArchiveEntry> reader =
+                        new PrefetchingSourceReader<>(archive, new File[] {source}, 4)) {
+            PrefetchingSourceReader.PrefetchedFile<TarArchiveEntry> file;
+            while ((file = reader.next()) != null) {
+                names.add(file.getEntry().getName());
+
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                file.transferTo(content);
+                assertThat(content.size()).isEqualTo(file.getEntry().getSize());
+            }
+        }
+
+        assertThat(names).isEqualTo(sequentialOrder(tempDir.toFile(), source));
+    }
+
+    @Test
+    void next_withMissingFile_throwsException() throws IOException {
+        File missing = new File(source, "missing");
+
+        try (TarArchiveOutputStream archive = new TarArchiveOutputStream(new ByteArrayOutputStream());
+                PrefetchingSourceReader<TarArchiveEntry> reader =
+                        new PrefetchingSourceReader<>(archive, new File[] {missing}, 4)) {
+            assertThrows(FileNotFoundException.class, reader::next);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class ReadOptionsTest {
+
+    @Test
+    void default_neitherCachesNorPools() {
+        assertThat(ReadOptions.DEFAULT.getEntryCache()).isNull();
+        assertThat(ReadOptions.DEFAULT.getHandlePool()).isNull();
+    }
+
+    @Test
+    void build_keepsEntryCacheAndHandlePool() {
+        EntryCache cache = new EntryCache(1024);
+        try (ArchiveHandlePool pool = new ArchiveHandlePool(Duration.ofMinutes(1))) {
+            ReadOptions options = ReadOptions.builder().setEntryCache(cache).setHandlePool(pool).build();
+
+            assertThat(options.getEntryCache()).isSameAs(cache);
+            assertThat(options.getHandlePool()).isSameAs(pool);
+        }
+    }
+
+    @Test
+    void setEntryCache_null_fails() {
+        ReadOptions.Builder builder = ReadOptions.builder();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.setEntryCache(null));
+    }
+
+    @Test
+    void setHandlePool_null_fails() {
+        ReadOptions.Builder builder = ReadOptions.builder();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.setHandlePool(null));
+    }
+}
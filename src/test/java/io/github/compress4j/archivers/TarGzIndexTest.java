@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024 The Compress4J Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.compress4j.archivers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TarGzIndexTest {
+
+    private static final long SPACING = 64 * 1024;
+
+    @TempDir
+    File tempDir;
+
+    private final Archiver archiver = ArchiverFactory.createArchiver(ArchiveFormat.TAR, CompressionType.GZIP);
+
+    private File archive;
+
+    @BeforeEach
+    void createArchive() throws IOException {
+        File source = new File(tempDir, "logs");
+        Random random = new Random(1);
+        for (int i = 0; i < 20; i++) {
+            StringBuilder log = new StringBuilder();
+            for (int line = random.nextInt(5_000); line >= 0; line--) {
+                log.append("line ").append(random.nextInt(1_000)).append(" of log ").append(i).append('\n');
+            }
+            File file = new File(source, "day" + i / 7 + "/log" + i + ".txt");
+            Files.createDirectories(file.getParentFile().toPath());
+            Files.write(file.toPath(), log.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        archive = archiver.create("logs", tempDir, source);
+    }
+
+    @Test
+    void build_writesIndexNextToArchive() throws IOException {
+        File index = TarGzIndex.build(archive, SPACING);
+
+        assertThat(index).isEqualTo(new File(archive.getPath() + ".index")).isFile();
+        assertThat(TarGzIndex.read(archive)).isNotNull();
+    }
+
+    @Test
+    void build_withNonPositiveSpacing_fails() {
+        assertThrows(IllegalArgumentException.class, () -> TarGzIndex.build(archive, 0));
+    }
+
+    @Test
+    void read_withoutIndex_returnsNull() throws IOException {
+        assertThat(TarGzIndex.read(archive)).isNull();
+    }
+
+    @Test
+    void read_afterArchiveChanged_returnsNull() throws IOException {
+        TarGzIndex.build(archive, SPACING);
+        assertThat(archive.setLastModified(archive.lastModified() - 10_000)).isTrue();
+
+        assertThat(TarGzIndex.read(archive)).isNull();
+    }
+
+    @Test
+    void stream_fromEntry_withIndex_returnsEveryEntryAndItsSuccessors() throws IOException {
+        Map<String, byte[]> entries = readEntries();
+        TarGzIndex.build(archive, SPACING);
+        List<String> names = new ArrayList<>(entries.keySet());
+
+        for (int i = 0; i < names.size(); i++) {
+            try (ArchiveStream stream = archiver.stream(archive, names.get(i))) {
+                ArchiveEntry entry = stream.getNextEntry();
+                assertThat(entry.getName()).isEqualTo(names.get(i));
+                assertThat(stream.readAllBytes()).isEqualTo(entries.get(names.get(i)));
+
+                ArchiveEntry next = stream.getNextEntry();
+                if (i + 1 < names.size()) {
+                    assertThat(next.getName()).isEqualTo(names.get(i + 1));
+                } else {
+                    assertThat(next).isNull();
+                }
+            }
+        }
+    }
+
+    @Test
+    void stream_fromMissingEntry_withIndex_returnsNoEntries() throws IOException {
+        TarGzIndex.build(archive, SPACING);
+
+        try (ArchiveStream stream = archiver.stream(archive, "missing.txt")) {
+            assertThat(stream.getNextEntry()).isNull();
+        }
+    }
+
+    @Test
+    void stream_fromEntry_withStaleIndex_readsFromStart() throws IOException {
+        Map<String, byte[]> entries = readEntries();
+        TarGzIndex.build(archive, SPACING);
+        assertThat(archive.setLastModified(archive.lastModified() - 10_000)).isTrue();
+        String last = new ArrayList<>(entries.keySet()).get(entries.size() - 1);
+
+        try (ArchiveStream stream = archiver.stream(archive, last)) {
+            assertThat(stream.getNextEntry().getName()).isEqualTo(last);
+            assertThat(stream.readAllBytes()).isEqualTo(entries.get(last));
+        }
+    }
+
+    private Map<String, byte[]> readEntries() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ArchiveStream stream = archiver.stream(archive)) {
+            ArchiveEntry entry;
+            while ((entry = stream.getNextEntry()) != null) {
+                entries.put(entry.getName(), stream.readAllBytes());
+            }
+        }
+        return entries;
+    }
+}
@@ -26,9 +26,13 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -74,6 +78,30 @@ public abstract class AbstractArchiverTest extends AbstractResourceTest {
         }
     }
 
+    @Test
+    void extract_withPrefixFilter_extractsOnlyMatchingEntries() throws Exception {
+        archiver.extract(archive, archiveExtractTmpDir, EntryFilter.prefix("folder/"));
+
+        assertThat(new File(archiveExtractTmpDir, "folder/folder_file.txt")).isFile();
+        assertThat(new File(archiveExtractTmpDir, "folder/subfolder/subfolder_file.txt"))
+                .hasSameTextualContentAs(new File(ARCHIVE_DIR, "folder/subfolder/subfolder_file.txt"));
+        assertThat(new File(archiveExtractTmpDir, "file.txt")).doesNotExist();
+        assertThat(new File(archiveExtractTmpDir, "permissions")).doesNotExist();
+    }
+
+    @Test
+    void extract_path_withGlobFilter_extractsOnlyMatchingEntries() throws Exception {
+        archiver.extract(
+                archive.toPath(),
+                archiveExtractTmpDir.toPath(),
+                EntryFilter.glob("**/*_file.txt").and(EntryFilter.prefix("permissions/").negate()));
+
+        assertThat(new File(archiveExtractTmpDir, "folder/folder_file.txt")).isFile();
+        assertThat(new File(archiveExtractTmpDir, "folder/subfolder/subfolder_file.txt")).isFile();
+        assertThat(new File(archiveExtractTmpDir, "file.txt")).doesNotExist();
+        assertThat(new File(archiveExtractTmpDir, "permissions")).doesNotExist();
+    }
+
     @Test
     void create_recursiveDirectory_withFileExtension_properlyCreatesArchive() throws Exception {
         String archiveName = archive.getName();
@@ -110,6 +138,23 @@ public abstract class AbstractArchiverTest extends AbstractResourceTest {
         assertExtractionWasSuccessful();
     }
 
+    @Test
+    void extract_path_properlyExtractsArchive() throws Exception {
+        archiver.extract(archive.toPath(), archiveExtractTmpDir.toPath());
+
+        assertExtractionWasSuccessful();
+    }
+
+    @Test
+    void create_path_properlyCreatesArchive() throws Exception {
+        Path createdArchive = archiver.create("archive", archiveCreateTmpDir.toPath(), ARCHIVE_DIR.toPath());
+
+        assertThat(createdArchive).exists().hasFileName(archive.getName());
+
+        archiver.extract(createdArchive, archiveExtractTmpDir.toPath());
+        assertExtractionWasSuccessful();
+    }
+
     @Test
     void create_withNonExistingSource_fails() {
         assertThrows(
@@ -132,6 +177,71 @@ public abstract class AbstractArchiverTest extends AbstractResourceTest {
         assertThrows(IllegalArgumentException.class, () -> archiver.create("archive", nonWritableDir, ARCHIVE_DIR));
     }
 
+    @Test
+    void readEntry_returnsContentOfEntry() throws IOException {
+        ByteBuffer content = archiver.readEntry(archive, "folder/subfolder/subfolder_file.txt");
+
+        assertThat(content.isReadOnly()).isTrue();
+        byte[] bytes = new byte[content.remaining()];
+        content.get(bytes);
+        assertThat(bytes)
+                .isEqualTo(Files.readAllBytes(new File(ARCHIVE_DIR, "folder/subfolder/subfolder_file.txt").toPath()));
+    }
+
+    @Test
+    void readEntry_missingEntry_returnsNull() throws IOException {
+        assertThat(archiver.readEntry(archive, "missing.txt")).isNull();
+    }
+
+    @Test
+    void list_returnsEveryEntryWithoutReadingData() throws IOException {
+        List<String> streamed = new ArrayList<>();
+        try (ArchiveStream stream = archiver.stream(archive)) {
+            ArchiveEntry entry;
+            while ((entry = stream.getNextEntry()) != null) {
+                streamed.add(entry.getName());
+            }
+        }
+
+        List<ArchiveEntryInfo> entries = archiver.list(archive);
+
+        assertThat(entries).extracting(ArchiveEntryInfo::getName).containsExactlyInAnyOrderElementsOf(streamed);
+        assertThat(entries)
+                .filteredOn(entry -> entry.getName().equals("folder/folder_file.txt"))
+                .singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.getSize()).isEqualTo(31);
+                    assertThat(entry.isDirectory()).isFalse();
+                });
+    }
+
+    @Test
+    void list_ofStreamEntries_matchesListedEntries() throws IOException {
+        List<ArchiveEntryInfo> streamed = new ArrayList<>();
+        try (ArchiveStream stream = archiver.stream(archive)) {
+            ArchiveEntry entry;
+            while ((entry = stream.getNextEntry()) != null) {
+                streamed.add(ArchiveEntryInfo.of(entry));
+            }
+        }
+
+        assertThat(streamed)
+                .extracting(entry -> entry.getName() + ":" + entry.getSize() + ":" + entry.isDirectory())
+                .containsExactlyInAnyOrderElementsOf(archiver.list(archive).stream()
+                        .map(entry -> entry.getName() + ":" + entry.getSize() + ":" + entry.isDirectory())
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void list_path_returnsEveryEntry() throws IOException {
+        assertThat(archiver.list(archive.toPath())).hasSize(archiver.list(archive).size());
+    }
+
+    @Test
+    void list_withNonExistingSource_fails() {
+        assertThrows(FileNotFoundException.class, () -> archiver.list(NON_EXISTING_FILE));
+    }
+
     @Test
     void extract_withNonExistingSource_fails() {
         assertThrows(FileNotFoundException.class, () -> archiver.extract(NON_EXISTING_FILE, archiveExtractTmpDir));
@@ -181,6 +291,35 @@ public abstract class AbstractArchiverTest extends AbstractResourceTest {
         }
     }
 
+    @Test
+    void stream_fromEntry_startsAtNamedEntry() throws IOException {
+        List<String> entries = new ArrayList<>();
+        try (ArchiveStream stream = archiver.stream(archive)) {
+            ArchiveEntry entry;
+            while ((entry = stream.getNextEntry()) != null) {
+                entries.add(entry.getName());
+            }
+        }
+        int first = entries.size() / 2;
+
+        try (ArchiveStream stream = archiver.stream(archive, entries.get(first))) {
+            ArchiveEntry entry;
+            List<String> remaining = new ArrayList<>();
+            while ((entry = stream.getNextEntry()) != null) {
+                remaining.add(entry.getName());
+            }
+
+            assertThat(remaining).isEqualTo(entries.subList(first, entries.size()));
+        }
+    }
+
+    @Test
+    void stream_fromMissingEntry_returnsNoEntries() throws IOException {
+        try (ArchiveStream stream = archiver.stream(archive, "missing.txt")) {
+            assertThat(stream.getNextEntry()).isNull();
+        }
+    }
+
     @Test
     void entry_isDirectory_behavesCorrectly() throws Exception {
         try (ArchiveStream stream = archiver.stream(archive)) {
@@ -60,6 +60,13 @@ public abstract class AbstractCompressorTest extends AbstractResourceTest {
         assertCompressionWasSuccessful();
     }
 
+    @Test
+    public void compress_path_compressesFileCorrectly() throws Exception {
+        getCompressor().compress(COMPRESS_TXT.toPath(), compressDestinationFile.toPath());
+
+        assertCompressionWasSuccessful();
+    }
+
     @Test
     public void compress_Directory_throwsException() {
         var exception = assertThrows(
@@ -130,6 +137,13 @@ public abstract class AbstractCompressorTest extends AbstractResourceTest {
         assertDecompressionWasSuccessful();
     }
 
+    @Test
+    public void decompress_path_decompressesFileCorrectly() throws Exception {
+        getCompressor().decompress(getCompressedFile().toPath(), archiveExtractTmpDir.toPath());
+
+        assertDecompressionWasSuccessful();
+    }
+
     @Test
     public void decompress_Directory_throwsException() {
         var exception = assertThrows(